@@ -16,8 +16,12 @@
 
 package com.dream.springframework.auth.base;
 
+import com.dream.springframework.auth.base.model.AuthorityTrie;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Base class type for authorized user.
@@ -61,6 +65,12 @@ public class BaseAuthUser {
      */
     private Map<String, Set<String>> orgAuthMap;
 
+    /**
+     * compiled wildcard authorities cache, keyed by organization identity ("" for common authorities)
+     */
+    @JsonIgnore
+    private final Map<String, AuthorityTrie> authorityTries = new ConcurrentHashMap<>();
+
     public BaseAuthUser(String uid) {
         this.uid = uid;
     }
@@ -112,6 +122,7 @@ public class BaseAuthUser {
      */
     public void setAuthIds(Set<String> authIds) {
         this.authIds = authIds;
+        this.authorityTries.clear();
     }
 
     /**
@@ -144,5 +155,24 @@ public class BaseAuthUser {
      */
     public void setOrgAuthMap(Map<String, Set<String>> orgAuthMap) {
         this.orgAuthMap = orgAuthMap;
+        this.authorityTries.clear();
+    }
+
+    /**
+     * Gets compiled wildcard authorities of the organization, compiled authorities are cached with this user and recompiled when the
+     * granted authorities differ by content, e.g. changed in place or derived from a swapped organization hierarchy
+     *
+     * @param orgId       organization identity (null for common authorities)
+     * @param authorities granted authorities of the organization
+     * @return compiled authorities
+     */
+    public AuthorityTrie getAuthorityTrie(String orgId, Set<String> authorities) {
+        String key = orgId == null ? "" : orgId;
+        AuthorityTrie trie = authorityTries.get(key);
+        if (trie == null || !trie.isCompiledFrom(authorities)) {
+            trie = AuthorityTrie.compile(authorities);
+            authorityTries.put(key, trie);
+        }
+        return trie;
     }
 }
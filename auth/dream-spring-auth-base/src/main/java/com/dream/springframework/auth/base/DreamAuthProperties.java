@@ -16,7 +16,10 @@
 
 package com.dream.springframework.auth.base;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -36,6 +39,21 @@ public class DreamAuthProperties {
      */
     private Set<String> skipAuthUids = new HashSet<>();
 
+    /**
+     * Role hierarchy definition: role identity to its directly implied role identities
+     */
+    private Map<String, Set<String>> roleHierarchy = new HashMap<>();
+
+    /**
+     * Whether to match granted authorities with segment wildcards, e.g. 'org:*:read'
+     */
+    private boolean wildcardAuthorityEnabled = false;
+
+    /**
+     * Whether to reject organization based authorization early when required authorities or roles are granted in no organization
+     */
+    private boolean preAuthorizeEnabled = true;
+
     /**
      * Authorization path patterns
      */
@@ -46,6 +64,21 @@ public class DreamAuthProperties {
      */
     private String[] excludePathPatterns = new String[]{"/api/open/**"};
 
+    /**
+     * Organization resource permission cache
+     */
+    private OrgPermissionCache orgPermissionCache = new OrgPermissionCache();
+
+    /**
+     * Organization based checks prefetching
+     */
+    private Prefetch prefetch = new Prefetch();
+
+    /**
+     * Authentication and authorization metrics
+     */
+    private Metrics metrics = new Metrics();
+
     /**
      * @return Role identities that will skip authorization checking
      */
@@ -78,6 +111,50 @@ public class DreamAuthProperties {
         this.skipAuthUids = skipAuthUids;
     }
 
+    /**
+     * @return Role identity to its directly implied role identities
+     */
+    public Map<String, Set<String>> getRoleHierarchy() {
+        return roleHierarchy;
+    }
+
+    /**
+     * Specifies role hierarchy, e.g. admin implies manager and manager implies operator
+     *
+     * @param roleHierarchy Role identity to its directly implied role identities
+     */
+    public void setRoleHierarchy(Map<String, Set<String>> roleHierarchy) {
+        this.roleHierarchy = roleHierarchy;
+    }
+
+    /**
+     * @return Whether to match granted authorities with segment wildcards
+     */
+    public boolean isWildcardAuthorityEnabled() {
+        return wildcardAuthorityEnabled;
+    }
+
+    /**
+     * @param wildcardAuthorityEnabled Whether to match granted authorities with segment wildcards
+     */
+    public void setWildcardAuthorityEnabled(boolean wildcardAuthorityEnabled) {
+        this.wildcardAuthorityEnabled = wildcardAuthorityEnabled;
+    }
+
+    /**
+     * @return Whether to reject organization based authorization early
+     */
+    public boolean isPreAuthorizeEnabled() {
+        return preAuthorizeEnabled;
+    }
+
+    /**
+     * @param preAuthorizeEnabled Whether to reject organization based authorization early
+     */
+    public void setPreAuthorizeEnabled(boolean preAuthorizeEnabled) {
+        this.preAuthorizeEnabled = preAuthorizeEnabled;
+    }
+
     /**
      * @return Authorization path patterns
      */
@@ -105,4 +182,273 @@ public class DreamAuthProperties {
     public void setExcludePathPatterns(String[] excludePathPatterns) {
         this.excludePathPatterns = excludePathPatterns;
     }
+
+    /**
+     * @return Organization resource permission cache properties
+     */
+    public OrgPermissionCache getOrgPermissionCache() {
+        return orgPermissionCache;
+    }
+
+    /**
+     * @param orgPermissionCache Organization resource permission cache properties
+     */
+    public void setOrgPermissionCache(OrgPermissionCache orgPermissionCache) {
+        this.orgPermissionCache = orgPermissionCache;
+    }
+
+    /**
+     * @return Organization based checks prefetching properties
+     */
+    public Prefetch getPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * @param prefetch Organization based checks prefetching properties
+     */
+    public void setPrefetch(Prefetch prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * @return Authentication and authorization metrics properties
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics Authentication and authorization metrics properties
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Organization resource permission cache properties
+     */
+    public static class OrgPermissionCache {
+
+        /**
+         * Whether to cache {@link com.dream.springframework.auth.base.service.OrgPermissionService} results
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum cached results
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * Time to live of check passed results
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+        /**
+         * Time to live of forbidden results
+         */
+        private Duration forbiddenExpireAfterWrite = Duration.ofSeconds(10);
+
+        /**
+         * @return Whether to cache organization resource permission results
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled Whether to cache organization resource permission results
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return Maximum cached results
+         */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        /**
+         * @param maximumSize Maximum cached results
+         */
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        /**
+         * @return Time to live of check passed results
+         */
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        /**
+         * @param expireAfterWrite Time to live of check passed results
+         */
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        /**
+         * @return Time to live of forbidden results
+         */
+        public Duration getForbiddenExpireAfterWrite() {
+            return forbiddenExpireAfterWrite;
+        }
+
+        /**
+         * @param forbiddenExpireAfterWrite Time to live of forbidden results
+         */
+        public void setForbiddenExpireAfterWrite(Duration forbiddenExpireAfterWrite) {
+            this.forbiddenExpireAfterWrite = forbiddenExpireAfterWrite;
+        }
+    }
+
+    /**
+     * Organization based checks prefetching properties
+     */
+    public static class Prefetch {
+
+        /**
+         * Whether to prefetch organization checks of path variables and request parameters
+         */
+        private boolean enabled = false;
+
+        /**
+         * Core thread size
+         */
+        private int coreSize = 4;
+
+        /**
+         * Max thread size
+         */
+        private int maxSize = 16;
+
+        /**
+         * Queue capacity, prefetching is skipped when the queue is full
+         */
+        private int queueCapacity = 256;
+
+        /**
+         * Max time to wait for a prefetched check before checking synchronously
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+
+        /**
+         * @return Whether to prefetch organization checks
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled Whether to prefetch organization checks
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return Core thread size
+         */
+        public int getCoreSize() {
+            return coreSize;
+        }
+
+        /**
+         * @param coreSize Core thread size
+         */
+        public void setCoreSize(int coreSize) {
+            this.coreSize = coreSize;
+        }
+
+        /**
+         * @return Max thread size
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        /**
+         * @param maxSize Max thread size
+         */
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * @return Queue capacity
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * @param queueCapacity Queue capacity
+         */
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * @return Max time to wait for a prefetched check
+         */
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        /**
+         * @param timeout Max time to wait for a prefetched check
+         */
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Authentication and authorization metrics properties
+     */
+    public static class Metrics {
+
+        /**
+         * Whether to record metrics when Micrometer is present
+         */
+        private boolean enabled = true;
+
+        /**
+         * Whether to publish percentile histograms of timers
+         */
+        private boolean percentileHistogram = false;
+
+        /**
+         * @return Whether to record metrics
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled Whether to record metrics
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return Whether to publish percentile histograms of timers
+         */
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        /**
+         * @param percentileHistogram Whether to publish percentile histograms of timers
+         */
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+    }
 }
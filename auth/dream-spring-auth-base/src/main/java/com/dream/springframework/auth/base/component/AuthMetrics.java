@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.component;
+
+import com.dream.springframework.auth.base.DreamAuthProperties;
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.ForbiddenException;
+import com.dream.springframework.base.exception.RuntimeRequestException;
+import com.dream.springframework.base.exception.UnauthorizedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer metrics of authentication and authorization
+ * <p>
+ * Timers are tagged by handler ('Controller#method') and outcome (ok, unauthorized, expired, forbidden or error):
+ * <ul>
+ * <li>{@value #AUTHENTICATE}: user authentication</li>
+ * <li>{@value #AUTHORIZE}: authorities and roles authorization</li>
+ * <li>{@value #ORG_PERMISSION}: organization resource permission checking, additionally tagged by service bean name</li>
+ * </ul>
+ * Distribution summary {@value #ORGS_CHECKED} records distinct organizations checked per authenticated request.
+ *
+ * @author DreamJM
+ */
+public class AuthMetrics {
+
+    public static final String AUTHENTICATE = "dream.auth.authenticate";
+
+    public static final String AUTHORIZE = "dream.auth.authorize";
+
+    public static final String ORG_PERMISSION = "dream.auth.org.permission";
+
+    public static final String ORGS_CHECKED = "dream.auth.orgs.checked";
+
+    private static final String CHECKED_ORGS_KEY = "auth_metrics_checked_orgs";
+
+    private static final String UNKNOWN_HANDLER = "unknown";
+
+    private MeterRegistry registry;
+
+    private boolean percentileHistogram;
+
+    /**
+     * @param registry   meter registry
+     * @param properties metrics properties
+     */
+    public AuthMetrics(MeterRegistry registry, DreamAuthProperties.Metrics properties) {
+        this.registry = registry;
+        this.percentileHistogram = properties.isPercentileHistogram();
+    }
+
+    /**
+     * Records authentication
+     *
+     * @param handler    request handler
+     * @param startNanos start time from {@link System#nanoTime()}
+     * @param error      authentication error, null if succeeded
+     */
+    public void recordAuthentication(Object handler, long startNanos, Throwable error) {
+        timer(AUTHENTICATE, handlerTag(handler), outcome(error)).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records authorization of current request
+     *
+     * @param startNanos start time from {@link System#nanoTime()}
+     * @param error      authorization error, null if succeeded
+     */
+    public void recordAuthorization(long startNanos, Throwable error) {
+        timer(AUTHORIZE, handlerTag(currentHandler()), outcome(error)).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records organization resource permission checking of current request
+     *
+     * @param service    permission service bean name
+     * @param startNanos start time from {@link System#nanoTime()}
+     * @param error      checking error, null if succeeded
+     */
+    public void recordPermission(String service, long startNanos, Throwable error) {
+        timer(ORG_PERMISSION, handlerTag(currentHandler()), outcome(error), "service", service)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts collecting checked organizations of the authenticated request
+     *
+     * @param request http request
+     */
+    public void beginRequest(HttpServletRequest request) {
+        // Organizations may also be checked by prefetching threads
+        request.setAttribute(CHECKED_ORGS_KEY, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Marks the organization checked in current request
+     *
+     * @param orgId organization identity, ignored if null
+     */
+    @SuppressWarnings("unchecked")
+    public void addCheckedOrg(String orgId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (orgId == null || attributes == null) {
+            return;
+        }
+        Set<String> orgIds = (Set<String>) attributes.getAttribute(CHECKED_ORGS_KEY, RequestAttributes.SCOPE_REQUEST);
+        if (orgIds != null) {
+            orgIds.add(orgId);
+        }
+    }
+
+    /**
+     * Records distinct organizations checked in the request
+     *
+     * @param request http request
+     * @param handler request handler
+     */
+    public void recordCheckedOrgs(HttpServletRequest request, Object handler) {
+        Set<?> orgIds = (Set<?>) request.getAttribute(CHECKED_ORGS_KEY);
+        if (orgIds == null) {
+            return;
+        }
+        DistributionSummary.builder(ORGS_CHECKED).tag("handler", handlerTag(handler)).register(registry)
+                .record(orgIds.size());
+    }
+
+    private Timer timer(String name, String handler, String outcome, String... tags) {
+        return Timer.builder(name).tag("handler", handler).tag("outcome", outcome).tags(tags)
+                .publishPercentileHistogram(percentileHistogram).register(registry);
+    }
+
+    private static Object currentHandler() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : attributes
+                .getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static String handlerTag(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return UNKNOWN_HANDLER;
+    }
+
+    private static String outcome(Throwable error) {
+        if (error instanceof RuntimeRequestException) {
+            error = error.getCause();
+        }
+        if (error == null) {
+            return "ok";
+        } else if (error instanceof UnauthorizedException) {
+            return ((UnauthorizedException) error).getCode() == BaseErrorCode.AUTH_EXPIRED ? "expired" : "unauthorized";
+        } else if (error instanceof ForbiddenException) {
+            return "forbidden";
+        }
+        return "error";
+    }
+}
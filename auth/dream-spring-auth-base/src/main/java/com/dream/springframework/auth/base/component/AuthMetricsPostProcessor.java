@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.component;
+
+import com.dream.springframework.auth.base.service.AuthorizationService;
+import com.dream.springframework.auth.base.service.OrgPermissionService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+
+/**
+ * Post processor proxying {@link AuthorizationService} and {@link OrgPermissionService} beans for metrics recording
+ * <p>
+ * Beans are proxied by class so that injection by concrete type keeps working, final or synthetic (e.g. lambda) classes are
+ * proxied by interfaces. Permission checks are tagged by bean name, so that beans of the same class (e.g. caching decorators) are
+ * told apart.
+ *
+ * @author DreamJM
+ * @see AuthMetrics
+ */
+public class AuthMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<AuthMetrics> metricsProvider;
+
+    private volatile AuthMetrics metrics;
+
+    /**
+     * @param metricsProvider ObjectProvider for authentication and authorization metrics, resolved on first invocation
+     */
+    public AuthMetricsPostProcessor(ObjectProvider<AuthMetrics> metricsProvider) {
+        this.metricsProvider = metricsProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof AuthorizationService) && !(bean instanceof OrgPermissionService)) {
+            return bean;
+        }
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new MetricsInterceptor(beanName));
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvisor(0, advisor);
+            return bean;
+        }
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(!Modifier.isFinal(targetClass.getModifiers()) && !targetClass.isSynthetic());
+        factory.addAdvisor(advisor);
+        return factory.getProxy(ClassUtils.getDefaultClassLoader());
+    }
+
+    private AuthMetrics getMetrics() {
+        if (metrics == null) {
+            metrics = metricsProvider.getObject();
+        }
+        return metrics;
+    }
+
+    private class MetricsInterceptor implements MethodInterceptor {
+
+        private final String beanName;
+
+        private MetricsInterceptor(String beanName) {
+            this.beanName = beanName;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            Object target = invocation.getThis();
+            Object[] args = invocation.getArguments();
+            boolean authorization = target instanceof AuthorizationService && ("authorize".equals(method.getName()) && args.length == 4
+                    || "preAuthorize".equals(method.getName()) && args.length == 3);
+            boolean permission = target instanceof OrgPermissionService && args.length == 2 && ("checkOrgResourcePermission"
+                    .equals(method.getName()) || "checkOrgsResourcePermission".equals(method.getName()));
+            if (!authorization && !permission) {
+                return invocation.proceed();
+            }
+            AuthMetrics authMetrics = getMetrics();
+            if (args[1] instanceof String) {
+                authMetrics.addCheckedOrg((String) args[1]);
+            } else if (permission && args[1] instanceof Collection) {
+                ((Collection<?>) args[1]).forEach(orgId -> authMetrics.addCheckedOrg((String) orgId));
+            }
+            long start = System.nanoTime();
+            Throwable error = null;
+            try {
+                return invocation.proceed();
+            } catch (Throwable ex) {
+                error = ex;
+                throw ex;
+            } finally {
+                if (authorization) {
+                    authMetrics.recordAuthorization(start, error);
+                } else {
+                    authMetrics.recordPermission(beanName, start, error);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.component;
+
+import com.dream.springframework.auth.base.BaseAuthUser;
+import com.dream.springframework.dao.scope.OrgScopeContext;
+import com.dream.springframework.dao.scope.OrgScopeProvider;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Provides organizations of current authorized user for {@link com.dream.springframework.dao.annotation.OrgScope} queries
+ * <p>
+ * Organizations bound by {@link OrgScopeContext} (e.g. in export jobs) take precedence. Otherwise queries outside of web requests (e.g.
+ * scheduled tasks) are not restricted, while requests without authorized user see no rows. When an {@link OrgHierarchyHolder} is
+ * present, user's organizations are expanded with their descendants.
+ *
+ * @author DreamJM
+ */
+public class AuthOrgScopeProvider implements OrgScopeProvider {
+
+    private final OrgHierarchyHolder hierarchyHolder;
+
+    /**
+     * @param hierarchyHolder organization hierarchy holder, null if organizations are not inherited
+     */
+    public AuthOrgScopeProvider(OrgHierarchyHolder hierarchyHolder) {
+        this.hierarchyHolder = hierarchyHolder;
+    }
+
+    @Override
+    public Collection<String> getOrgIds() {
+        Collection<String> boundOrgIds = OrgScopeContext.getOrgIds();
+        if (boundOrgIds != null) {
+            return boundOrgIds;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        BaseAuthUser authUser = (BaseAuthUser) attributes.getAttribute(BaseAuthUser.USER_KEY, RequestAttributes.SCOPE_REQUEST);
+        if (authUser == null || authUser.getOrgIds() == null) {
+            return Collections.emptySet();
+        }
+        return hierarchyHolder == null ? authUser.getOrgIds() : hierarchyHolder.get().expand(authUser.getOrgIds());
+    }
+}
@@ -48,7 +48,11 @@ public class AuthenticationInterceptor extends HandlerInterceptorAdapter {
 
     private AuthorizationService authorizationService;
 
-    private Map<Method, Boolean> orgCheckMethodMap = new ConcurrentHashMap<>();
+    private Map<Method, OrgCheck> orgCheckMethodMap = new ConcurrentHashMap<>();
+
+    private OrgCheckPrefetcher prefetcher;
+
+    private AuthMetrics metrics;
 
     /**
      * @param authenticationService user authentication service
@@ -59,13 +63,27 @@ public class AuthenticationInterceptor extends HandlerInterceptorAdapter {
         this.authorizationService = authorizationService;
     }
 
+    /**
+     * @param prefetcher prefetcher for organization based checks, null to disable prefetching
+     */
+    public void setPrefetcher(OrgCheckPrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
+    /**
+     * @param metrics authentication and authorization metrics, null to disable recording
+     */
+    public void setMetrics(AuthMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         AuthIgnore ignoreAnnotation;
         RequiredAuthorities authAnnotation;
         RequiredRoles roleAnnotation;
         HandlerMethod method;
-        boolean orgCheck = false;
+        OrgCheck orgCheck = OrgCheck.NONE;
         if (handler instanceof HandlerMethod) {
             method = ((HandlerMethod) handler);
             ignoreAnnotation = method.getMethodAnnotation(AuthIgnore.class);
@@ -73,19 +91,7 @@ public class AuthenticationInterceptor extends HandlerInterceptorAdapter {
             roleAnnotation = method.getMethodAnnotation(RequiredRoles.class);
             // Caches and judge OrgAuthCheck Tag for methods
             if (authAnnotation != null || roleAnnotation != null) {
-                Boolean orgCheckBool = orgCheckMethodMap.get(method.getMethod());
-                if (orgCheckBool != null) {
-                    orgCheck = orgCheckBool;
-                } else if (method.hasMethodAnnotation(OrgAuthorization.class)) {
-                    orgCheck = true;
-                } else {
-                    for (MethodParameter parameter : method.getMethodParameters()) {
-                        if (parameter.hasParameterAnnotation(OrgAuthorization.class)) {
-                            orgCheck = true;
-                        }
-                    }
-                    orgCheckMethodMap.put(method.getMethod(), orgCheck);
-                }
+                orgCheck = orgCheckMethodMap.computeIfAbsent(method.getMethod(), m -> judgeOrgCheck(method));
             }
         } else {
             return true;
@@ -96,15 +102,71 @@ public class AuthenticationInterceptor extends HandlerInterceptorAdapter {
             return true;
         }
 
-        BaseAuthUser authUser = authenticationService.authenticate(request, response);
+        BaseAuthUser authUser = authenticate(request, response, handler);
         if (logger.isDebugEnabled()) {
             logger.debug("Request {} was authorized for user: {}", request.getRequestURI(), authUser.getUid());
         }
         // If not need to check basing on organization, checking here. Or else, delay to corresponding Resolver or Advice
-        if (!orgCheck) {
+        if (orgCheck == OrgCheck.NONE) {
             authorizationService.authorize(authUser, null, authAnnotation, roleAnnotation);
+        } else if (orgCheck == OrgCheck.PARAMETER) {
+            // Rejects before arguments (e.g. request body) are resolved if no organization could pass the deferred checking
+            authorizationService.preAuthorize(authUser, authAnnotation, roleAnnotation);
         }
         request.setAttribute(BaseAuthUser.USER_KEY, authUser);
+        if (prefetcher != null) {
+            prefetcher.prefetch(request, method, authUser);
+        }
         return true;
     }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (metrics != null) {
+            metrics.recordCheckedOrgs(request, handler);
+        }
+    }
+
+    private BaseAuthUser authenticate(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (metrics == null) {
+            return authenticationService.authenticate(request, response);
+        }
+        long start = System.nanoTime();
+        try {
+            BaseAuthUser authUser = authenticationService.authenticate(request, response);
+            metrics.recordAuthentication(handler, start, null);
+            metrics.beginRequest(request);
+            return authUser;
+        } catch (Exception ex) {
+            metrics.recordAuthentication(handler, start, ex);
+            throw ex;
+        }
+    }
+
+    private OrgCheck judgeOrgCheck(HandlerMethod method) {
+        for (MethodParameter parameter : method.getMethodParameters()) {
+            if (parameter.hasParameterAnnotation(OrgAuthorization.class)) {
+                return OrgCheck.PARAMETER;
+            }
+        }
+        return method.hasMethodAnnotation(OrgAuthorization.class) ? OrgCheck.RETURN_VALUE : OrgCheck.NONE;
+    }
+
+    /**
+     * Where organization based authorization is deferred to
+     */
+    private enum OrgCheck {
+        /**
+         * Not organization based, checked in interceptor
+         */
+        NONE,
+        /**
+         * Deferred to argument resolvers or request body advice
+         */
+        PARAMETER,
+        /**
+         * Deferred to response body advice
+         */
+        RETURN_VALUE
+    }
 }
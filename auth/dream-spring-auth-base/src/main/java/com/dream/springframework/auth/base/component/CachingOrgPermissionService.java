@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.component;
+
+import com.dream.springframework.auth.base.DreamAuthProperties;
+import com.dream.springframework.auth.base.service.OrgPermissionService;
+import com.dream.springframework.base.exception.ForbiddenException;
+import com.dream.springframework.base.exception.RequestException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caching decorator for {@link OrgPermissionService}.
+ * <p>
+ * Results are cached by (authorized organization identities, checked organization id) with bounded size and TTL. Forbidden results
+ * are cached in a separate cache with a shorter TTL. {@link #invalidateOrg(String)} records the epoch each organization was last
+ * invalidated at and evicts every entry depending on that organization. Entries remember the epoch captured before their check
+ * started, and are only served if neither the checked organization nor any authorizing one was invalidated after it, so results
+ * loaded concurrently with the invalidation are never served afterwards. Invalidation epochs expire after idling twice the longest
+ * result TTL, when no result loaded before them is cached anymore.
+ *
+ * @param <T> check passed organization model type
+ * @author DreamJM
+ */
+public class CachingOrgPermissionService<T> implements OrgPermissionService<T> {
+
+    private final OrgPermissionService<T> delegate;
+
+    private final Cache<Key, Entry<T>> grantedCache;
+
+    private final Cache<Key, Entry<RequestException>> forbiddenCache;
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final Cache<String, Long> orgEpochs;
+
+    /**
+     * @param delegate   organization resource permission checking service to be cached
+     * @param properties organization permission cache properties
+     */
+    public CachingOrgPermissionService(OrgPermissionService<T> delegate, DreamAuthProperties.OrgPermissionCache properties) {
+        this.delegate = delegate;
+        this.grantedCache = CacheBuilder.newBuilder().maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite().toMillis(), TimeUnit.MILLISECONDS).recordStats().build();
+        this.forbiddenCache = CacheBuilder.newBuilder().maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getForbiddenExpireAfterWrite().toMillis(), TimeUnit.MILLISECONDS).recordStats().build();
+        long epochIdleMillis = 2 * Math.max(properties.getExpireAfterWrite().toMillis(),
+                properties.getForbiddenExpireAfterWrite().toMillis());
+        this.orgEpochs = CacheBuilder.newBuilder().expireAfterAccess(epochIdleMillis, TimeUnit.MILLISECONDS).build();
+    }
+
+    @Override
+    public T checkOrgResourcePermission(Set<String> orgIds, String checkOrgId) throws RequestException {
+        Key key = new Key(orgIds, checkOrgId);
+        Entry<T> granted = grantedCache.getIfPresent(key);
+        if (granted != null) {
+            if (isValid(key, granted.epoch)) {
+                return granted.value;
+            }
+            grantedCache.invalidate(key);
+        }
+        Entry<RequestException> forbidden = forbiddenCache.getIfPresent(key);
+        if (forbidden != null) {
+            if (isValid(key, forbidden.epoch)) {
+                throw forbidden.value;
+            }
+            forbiddenCache.invalidate(key);
+        }
+        long start = epoch.get();
+        try {
+            T checkedOrg = delegate.checkOrgResourcePermission(orgIds, checkOrgId);
+            if (checkedOrg != null) {
+                grantedCache.put(key.frozen(), new Entry<>(checkedOrg, start));
+            }
+            return checkedOrg;
+        } catch (ForbiddenException e) {
+            forbiddenCache.put(key.frozen(), new Entry<>(e, start));
+            throw e;
+        }
+    }
+
+    /**
+     * Marks the organization invalidated and evicts every cached result checking it or authorized by it
+     *
+     * @param orgId organization identity
+     */
+    public void invalidateOrg(String orgId) {
+        orgEpochs.put(orgId, epoch.incrementAndGet());
+        grantedCache.asMap().keySet().removeIf(key -> key.dependsOn(orgId));
+        forbiddenCache.asMap().keySet().removeIf(key -> key.dependsOn(orgId));
+    }
+
+    /**
+     * Evicts all cached results
+     */
+    public void invalidateAll() {
+        grantedCache.invalidateAll();
+        forbiddenCache.invalidateAll();
+    }
+
+    /**
+     * @return cache of check passed results
+     */
+    public Cache<?, ?> getGrantedCache() {
+        return grantedCache;
+    }
+
+    /**
+     * @return cache of forbidden results
+     */
+    public Cache<?, ?> getForbiddenCache() {
+        return forbiddenCache;
+    }
+
+    /**
+     * @param key        cache key
+     * @param entryEpoch epoch captured before the entry was loaded
+     * @return whether none of the organizations the entry depends on was invalidated after it started loading
+     */
+    private boolean isValid(Key key, long entryEpoch) {
+        if (getEpoch(key.checkOrgId) > entryEpoch) {
+            return false;
+        }
+        for (String orgId : key.orgIds) {
+            if (getEpoch(orgId) > entryEpoch) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long getEpoch(String orgId) {
+        Long invalidated = orgId == null ? null : orgEpochs.getIfPresent(orgId);
+        return invalidated == null ? 0L : invalidated;
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+
+        private final long epoch;
+
+        private Entry(V value, long epoch) {
+            this.value = value;
+            this.epoch = epoch;
+        }
+    }
+
+    private static class Key {
+
+        private final Set<String> orgIds;
+
+        private final String checkOrgId;
+
+        private final int hash;
+
+        private Key(Set<String> orgIds, String checkOrgId) {
+            this.orgIds = orgIds == null ? Collections.emptySet() : orgIds;
+            this.checkOrgId = checkOrgId;
+            this.hash = 31 * this.orgIds.hashCode() + Objects.hashCode(checkOrgId);
+        }
+
+        private Key frozen() {
+            return new Key(Collections.unmodifiableSet(new HashSet<>(orgIds)), checkOrgId);
+        }
+
+        private boolean dependsOn(String orgId) {
+            return Objects.equals(checkOrgId, orgId) || orgIds.contains(orgId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && Objects.equals(checkOrgId, key.checkOrgId) && orgIds.equals(key.orgIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
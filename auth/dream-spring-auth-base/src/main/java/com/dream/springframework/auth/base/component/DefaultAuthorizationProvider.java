@@ -23,6 +23,8 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -63,4 +65,24 @@ public class DefaultAuthorizationProvider implements AuthorizationProvider {
         }
         return roles == null ? new HashSet<>() : roles;
     }
+
+    @Nullable
+    @Override
+    public Set<String> getAllAuthorities(BaseAuthUser baseAuthUser) {
+        return union(baseAuthUser.getAuthIds(), baseAuthUser.getOrgAuthMap());
+    }
+
+    @Nullable
+    @Override
+    public Set<String> getAllRoles(BaseAuthUser baseAuthUser) {
+        return union(baseAuthUser.getRoleIds(), baseAuthUser.getOrgRoleMap());
+    }
+
+    private Set<String> union(Set<String> common, Map<String, Set<String>> orgMap) {
+        Set<String> result = common == null ? new HashSet<>() : new HashSet<>(common);
+        if (orgMap != null) {
+            orgMap.values().stream().filter(Objects::nonNull).forEach(result::addAll);
+        }
+        return result;
+    }
 }
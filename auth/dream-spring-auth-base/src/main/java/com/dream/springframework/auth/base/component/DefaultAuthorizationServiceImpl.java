@@ -20,6 +20,8 @@ import com.dream.springframework.auth.base.BaseAuthUser;
 import com.dream.springframework.auth.base.DreamAuthProperties;
 import com.dream.springframework.auth.base.annotation.RequiredAuthorities;
 import com.dream.springframework.auth.base.annotation.RequiredRoles;
+import com.dream.springframework.auth.base.model.AuthorityTrie;
+import com.dream.springframework.auth.base.model.RoleHierarchy;
 import com.dream.springframework.auth.base.service.AuthorizationProvider;
 import com.dream.springframework.auth.base.service.AuthorizationService;
 import com.dream.springframework.base.exception.BaseErrorCode;
@@ -27,10 +29,15 @@ import com.dream.springframework.base.exception.ForbiddenException;
 import com.dream.springframework.base.exception.RequestException;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Default authorization service for required authorities and roles.
+ * <p>
+ * Roles implied by {@link RoleHierarchy} are granted as well, so users only need to carry their highest roles. Wildcard authorities
+ * (see {@link AuthorityTrie}) are supported when 'dream.auth.wildcard-authority-enabled' is true.
  *
  * @author DreamJM
  * @see RequiredAuthorities
@@ -38,13 +45,25 @@ import java.util.Set;
  */
 public class DefaultAuthorizationServiceImpl implements AuthorizationService {
 
+    /**
+     * Key of compiled authorities over all organizations
+     */
+    private static final String ALL_ORGS = "\u0000";
+
     private DreamAuthProperties properties;
 
     private AuthorizationProvider provider;
 
+    private RoleHierarchy roleHierarchy;
+
     public DefaultAuthorizationServiceImpl(DreamAuthProperties properties, AuthorizationProvider provider) {
+        this(properties, provider, RoleHierarchy.EMPTY);
+    }
+
+    public DefaultAuthorizationServiceImpl(DreamAuthProperties properties, AuthorizationProvider provider, RoleHierarchy roleHierarchy) {
         this.properties = properties;
         this.provider = provider;
+        this.roleHierarchy = roleHierarchy == null ? RoleHierarchy.EMPTY : roleHierarchy;
     }
 
     @Override
@@ -53,40 +72,93 @@ public class DefaultAuthorizationServiceImpl implements AuthorizationService {
         if (authAnnotation == null && roleAnnotation == null) {
             return;
         }
-        boolean skipAuth = false;
+        if (isSkipAuthUid(authUser)) {
+            return;
+        }
         Set<String> roleIdSet = null;
-        if (properties.getSkipAuthRoleIds() != null && !properties.getSkipAuthRoleIds().isEmpty()) {
+        BitSet encodedRoles = null;
+        if (roleAnnotation != null || hasSkipAuthRoles()) {
             roleIdSet = provider.getRoles(orgId, authUser);
-            for (String skipRoleId : properties.getSkipAuthRoleIds()) {
-                if (roleIdSet.contains(skipRoleId)) {
-                    skipAuth = true;
-                    break;
-                }
+            encodedRoles = roleIdSet == null ? null : roleHierarchy.encode(roleIdSet);
+            if (hasSkipAuthRole(roleIdSet, encodedRoles)) {
+                return;
             }
         }
-        skipAuth = skipAuth || (properties.getSkipAuthUids() != null && properties.getSkipAuthUids().contains(authUser.getUid()));
-        if (!skipAuth) {
-            checkAuthorities(authAnnotation, provider.getAuthorities(orgId, authUser));
-            checkRoles(roleAnnotation, roleIdSet == null ? provider.getRoles(orgId, authUser) : roleIdSet);
+        if (authAnnotation != null) {
+            checkAuthorities(authAnnotation, authUser, orgId, provider.getAuthorities(orgId, authUser));
         }
+        checkRoles(roleAnnotation, roleIdSet, encodedRoles);
     }
 
+    @Override
+    public void preAuthorize(BaseAuthUser authUser, RequiredAuthorities authAnnotation, RequiredRoles roleAnnotation)
+            throws RequestException {
+        if ((authAnnotation == null && roleAnnotation == null) || !properties.isPreAuthorizeEnabled() || isSkipAuthUid(authUser)) {
+            return;
+        }
+        Set<String> allRoles = null;
+        BitSet encodedRoles = null;
+        if (roleAnnotation != null || hasSkipAuthRoles()) {
+            allRoles = provider.getAllRoles(authUser);
+            if (allRoles == null) {
+                return;
+            }
+            encodedRoles = roleHierarchy.encode(allRoles);
+            if (hasSkipAuthRole(allRoles, encodedRoles)) {
+                return;
+            }
+        }
+        if (authAnnotation != null) {
+            Set<String> allAuthorities = provider.getAllAuthorities(authUser);
+            if (allAuthorities == null) {
+                return;
+            }
+            checkAuthorities(authAnnotation, authUser, ALL_ORGS, allAuthorities);
+        }
+        checkRoles(roleAnnotation, allRoles, encodedRoles);
+    }
+
+    private boolean isSkipAuthUid(BaseAuthUser authUser) {
+        return properties.getSkipAuthUids() != null && properties.getSkipAuthUids().contains(authUser.getUid());
+    }
 
-    private void checkAuthorities(RequiredAuthorities authAnnotation, Set<String> authorities) throws RequestException {
+    private boolean hasSkipAuthRoles() {
+        return properties.getSkipAuthRoleIds() != null && !properties.getSkipAuthRoleIds().isEmpty();
+    }
+
+    private boolean hasSkipAuthRole(Set<String> roleIdSet, BitSet encodedRoles) {
+        if (roleIdSet == null || !hasSkipAuthRoles()) {
+            return false;
+        }
+        for (String skipRoleId : properties.getSkipAuthRoleIds()) {
+            if (roleHierarchy.implies(encodedRoles, roleIdSet, skipRoleId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkAuthorities(RequiredAuthorities authAnnotation, BaseAuthUser authUser, String orgId, Set<String> authorities)
+            throws RequestException {
         if (authAnnotation == null) {
             return;
         }
-        if (authorities == null || !Arrays.stream(authAnnotation.value()).map(authorities::contains)
+        Predicate<String> matcher = authorities == null ? null : authorities::contains;
+        if (authorities != null && properties.isWildcardAuthorityEnabled()) {
+            AuthorityTrie trie = authUser.getAuthorityTrie(orgId, authorities);
+            matcher = authority -> authorities.contains(authority) || trie.matches(authority);
+        }
+        if (matcher == null || !Arrays.stream(authAnnotation.value()).map(matcher::test)
                 .reduce(authAnnotation.logical().judge()).orElse(Boolean.FALSE)) {
             throw new ForbiddenException(BaseErrorCode.ACCESS_DENY);
         }
     }
 
-    private void checkRoles(RequiredRoles roleAnnotation, Set<String> roles) throws RequestException {
+    private void checkRoles(RequiredRoles roleAnnotation, Set<String> roles, BitSet encodedRoles) throws RequestException {
         if (roleAnnotation == null) {
             return;
         }
-        if (roles == null || !Arrays.stream(roleAnnotation.value()).map(roles::contains)
+        if (roles == null || !Arrays.stream(roleAnnotation.value()).map(role -> roleHierarchy.implies(encodedRoles, roles, role))
                 .reduce(roleAnnotation.logical().judge()).orElse(Boolean.FALSE)) {
             throw new ForbiddenException(BaseErrorCode.ACCESS_DENY);
         }
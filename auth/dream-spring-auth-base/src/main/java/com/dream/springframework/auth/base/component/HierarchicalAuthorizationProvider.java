@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.component;
+
+import com.dream.springframework.auth.base.BaseAuthUser;
+import com.dream.springframework.auth.base.model.OrgHierarchy;
+import com.dream.springframework.auth.base.service.AuthorizationProvider;
+import com.google.common.base.Strings;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Authorization provider that inherits organization based authorities and roles from ancestor organizations
+ * <p>
+ * Authorities and roles granted on an organization in {@link BaseAuthUser#getOrgAuthMap()} and {@link BaseAuthUser#getOrgRoleMap()}
+ * take effect in all its descendants. Ancestor checks are answered by the current {@link OrgHierarchy} snapshot, so no recursion or
+ * database access is involved. If 'orgId' is null, {@link BaseAuthUser#getAuthIds()} and {@link BaseAuthUser#getRoleIds()} are used.
+ *
+ * @author DreamJM
+ */
+public class HierarchicalAuthorizationProvider implements AuthorizationProvider {
+
+    private final OrgHierarchyHolder hierarchyHolder;
+
+    /**
+     * @param hierarchyHolder organization hierarchy holder
+     */
+    public HierarchicalAuthorizationProvider(OrgHierarchyHolder hierarchyHolder) {
+        this.hierarchyHolder = hierarchyHolder;
+    }
+
+    @NonNull
+    @Override
+    public Set<String> getAuthorities(@Nullable String orgId, BaseAuthUser baseAuthUser) {
+        if (Strings.isNullOrEmpty(orgId)) {
+            return baseAuthUser.getAuthIds() == null ? new HashSet<>() : baseAuthUser.getAuthIds();
+        }
+        return inherit(orgId, baseAuthUser.getOrgAuthMap());
+    }
+
+    @NonNull
+    @Override
+    public Set<String> getRoles(@Nullable String orgId, BaseAuthUser baseAuthUser) {
+        if (Strings.isNullOrEmpty(orgId)) {
+            return baseAuthUser.getRoleIds() == null ? new HashSet<>() : baseAuthUser.getRoleIds();
+        }
+        return inherit(orgId, baseAuthUser.getOrgRoleMap());
+    }
+
+    @Nullable
+    @Override
+    public Set<String> getAllAuthorities(BaseAuthUser baseAuthUser) {
+        return union(baseAuthUser.getAuthIds(), baseAuthUser.getOrgAuthMap());
+    }
+
+    @Nullable
+    @Override
+    public Set<String> getAllRoles(BaseAuthUser baseAuthUser) {
+        return union(baseAuthUser.getRoleIds(), baseAuthUser.getOrgRoleMap());
+    }
+
+    private Set<String> union(Set<String> common, Map<String, Set<String>> orgMap) {
+        Set<String> result = common == null ? new HashSet<>() : new HashSet<>(common);
+        if (orgMap != null) {
+            orgMap.values().stream().filter(Objects::nonNull).forEach(result::addAll);
+        }
+        return result;
+    }
+
+    private Set<String> inherit(String orgId, Map<String, Set<String>> orgMap) {
+        Set<String> result = new HashSet<>();
+        if (orgMap == null || orgMap.isEmpty()) {
+            return result;
+        }
+        OrgHierarchy hierarchy = hierarchyHolder.get();
+        if (!hierarchy.contains(orgId)) {
+            Set<String> values = orgMap.get(orgId);
+            return values == null ? result : values;
+        }
+        for (Map.Entry<String, Set<String>> entry : orgMap.entrySet()) {
+            if (entry.getValue() != null && hierarchy.isAncestorOrSelf(entry.getKey(), orgId)) {
+                result.addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
+}
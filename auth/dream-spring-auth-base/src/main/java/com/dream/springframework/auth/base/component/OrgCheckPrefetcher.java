@@ -0,0 +1,297 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.component;
+
+import com.dream.springframework.auth.base.BaseAuthUser;
+import com.dream.springframework.auth.base.annotation.OrgAuthorization;
+import com.dream.springframework.auth.base.annotation.OrgPermission;
+import com.dream.springframework.auth.base.annotation.RequiredAuthorities;
+import com.dream.springframework.auth.base.annotation.RequiredRoles;
+import com.dream.springframework.auth.base.service.AuthorizationService;
+import com.dream.springframework.auth.base.service.OrgPermissionService;
+import com.dream.springframework.base.exception.RequestException;
+import com.google.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Prefetches organization based checks whose organization identities are known before argument resolution
+ * <p>
+ * For parameters annotated with {@link OrgAuthorization} or {@link OrgPermission} together with {@link PathVariable} or
+ * {@link RequestParam}, {@link AuthenticationInterceptor} starts {@link AuthorizationService#authorize} and
+ * {@link OrgPermissionService#checkOrgResourcePermission} asynchronously on a bounded executor. The org check resolvers then wait on
+ * the prefetched results, so that permission lookups overlap with request body reading and binding. Checks are executed synchronously
+ * as before when the executor rejects them or they don't complete within the timeout.
+ *
+ * @author DreamJM
+ */
+public class OrgCheckPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrgCheckPrefetcher.class);
+
+    /**
+     * Key used to store prefetched results in HttpServletRequest as attribute
+     */
+    public static final String PREFETCH_KEY = "org_check_prefetch";
+
+    private final Executor executor;
+
+    private final AuthorizationService authService;
+
+    private final OrgPermissionService<?> permissionService;
+
+    private final long timeoutMillis;
+
+    private final ParameterNameDiscoverer nameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private final Map<Method, List<PrefetchParameter>> parameterMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor          bounded executor to run checks
+     * @param authService       authorization service for authorities and roles
+     * @param permissionService organization resource permission checking service (nullable)
+     * @param timeoutMillis     max time to wait for a prefetched check
+     */
+    public OrgCheckPrefetcher(Executor executor, AuthorizationService authService, OrgPermissionService<?> permissionService,
+                              long timeoutMillis) {
+        this.executor = executor;
+        this.authService = authService;
+        this.permissionService = permissionService;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Starts checks for organization identities in path variables and request parameters
+     *
+     * @param request  http servlet request
+     * @param handler  handler method
+     * @param authUser authenticated user
+     */
+    public void prefetch(HttpServletRequest request, HandlerMethod handler, BaseAuthUser authUser) {
+        List<PrefetchParameter> parameters = parameterMap.computeIfAbsent(handler.getMethod(), m -> parsePrefetchParameters(handler));
+        if (parameters.isEmpty()) {
+            return;
+        }
+        RequiredAuthorities authAnnotation = handler.getMethodAnnotation(RequiredAuthorities.class);
+        RequiredRoles roleAnnotation = handler.getMethodAnnotation(RequiredRoles.class);
+        Prefetched prefetched = new Prefetched();
+        for (PrefetchParameter parameter : parameters) {
+            List<String> orgIds = getValues(request, parameter);
+            for (String orgId : orgIds) {
+                if (parameter.authorization && (authAnnotation != null || roleAnnotation != null)) {
+                    prefetched.authorizations.computeIfAbsent(orgId, id -> submit(() -> {
+                        authService.authorize(authUser, id, authAnnotation, roleAnnotation);
+                        return null;
+                    }));
+                }
+                // Multiple values are checked in bulk by OrgPermissionService#checkOrgsResourcePermission
+                if (parameter.permission && permissionService != null && orgIds.size() == 1) {
+                    prefetched.permissions.computeIfAbsent(orgId,
+                            id -> submit(() -> permissionService.checkOrgResourcePermission(authUser.getOrgIds(), id)));
+                }
+            }
+        }
+        request.setAttribute(PREFETCH_KEY, prefetched);
+    }
+
+    /**
+     * Waits for prefetched authorization of the organization
+     *
+     * @param request web request
+     * @param orgId   organization identity
+     * @return true if prefetched authorization passed, false if not prefetched (should be checked by caller)
+     * @throws RequestException prefetched authorization failure
+     */
+    public static boolean awaitAuthorization(NativeWebRequest request, String orgId) throws RequestException {
+        Prefetched prefetched = (Prefetched) request.getAttribute(PREFETCH_KEY, RequestAttributes.SCOPE_REQUEST);
+        return prefetched != null && orgId != null && await(prefetched.authorizations.get(orgId), prefetched);
+    }
+
+    /**
+     * Waits for prefetched resource permission checking of the organization
+     *
+     * @param request web request
+     * @param orgId   organization identity
+     * @return true if prefetched checking passed, false if not prefetched (should be checked by caller)
+     * @throws RequestException prefetched checking failure
+     */
+    public static boolean awaitPermission(NativeWebRequest request, String orgId) throws RequestException {
+        Prefetched prefetched = (Prefetched) request.getAttribute(PREFETCH_KEY, RequestAttributes.SCOPE_REQUEST);
+        return prefetched != null && orgId != null && await(prefetched.permissions.get(orgId), prefetched);
+    }
+
+    private static boolean await(CompletableFuture<?> future, Prefetched prefetched) throws RequestException {
+        if (future == null) {
+            return false;
+        }
+        try {
+            future.get(prefetched.timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RequestException) {
+                throw (RequestException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            logger.warn("Prefetched organization check timeout, fall back to synchronous checking");
+            future.cancel(true);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private <V> CompletableFuture<V> submit(PrefetchTask<V> task) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        try {
+            executor.execute(() -> {
+                LocaleContextHolder.setLocaleContext(localeContext);
+                RequestContextHolder.setRequestAttributes(attributes);
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    LocaleContextHolder.resetLocaleContext();
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Organization check prefetch rejected, will be checked synchronously");
+            return null;
+        }
+        return future;
+    }
+
+    private List<String> getValues(HttpServletRequest request, PrefetchParameter parameter) {
+        if (parameter.pathVariable) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            String value = variables == null ? null : variables.get(parameter.name);
+            return Strings.isNullOrEmpty(value) ? Collections.emptyList() : Collections.singletonList(value);
+        }
+        // Reading parameters of form requests consumes the body, leaves them to the resolvers
+        String contentType = request.getContentType();
+        if (contentType != null && (contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE) || contentType
+                .startsWith(MediaType.MULTIPART_FORM_DATA_VALUE))) {
+            return Collections.emptyList();
+        }
+        String[] values = request.getParameterValues(parameter.name);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>(values.length);
+        for (String value : values) {
+            if (!Strings.isNullOrEmpty(value)) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    private List<PrefetchParameter> parsePrefetchParameters(HandlerMethod handler) {
+        List<PrefetchParameter> parameters = new ArrayList<>();
+        for (MethodParameter parameter : handler.getMethodParameters()) {
+            boolean authorization = parameter.hasParameterAnnotation(OrgAuthorization.class);
+            boolean permission = parameter.hasParameterAnnotation(OrgPermission.class);
+            if (!authorization && !permission) {
+                continue;
+            }
+            PathVariable pathVariable = parameter.getParameterAnnotation(PathVariable.class);
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            String name = pathVariable != null ? pathVariable.name() : requestParam != null ? requestParam.name() : null;
+            if (name == null) {
+                continue;
+            }
+            if (name.isEmpty()) {
+                parameter.initParameterNameDiscovery(nameDiscoverer);
+                name = parameter.getParameterName();
+            }
+            if (name != null) {
+                boolean single = !parameter.getParameterType().isArray();
+                parameters.add(new PrefetchParameter(name, pathVariable != null, authorization, permission && single));
+            }
+        }
+        return parameters.isEmpty() ? Collections.emptyList() : parameters;
+    }
+
+    @FunctionalInterface
+    private interface PrefetchTask<V> {
+
+        V call() throws Exception;
+    }
+
+    private static class PrefetchParameter {
+
+        private final String name;
+
+        private final boolean pathVariable;
+
+        private final boolean authorization;
+
+        private final boolean permission;
+
+        private PrefetchParameter(String name, boolean pathVariable, boolean authorization, boolean permission) {
+            this.name = name;
+            this.pathVariable = pathVariable;
+            this.authorization = authorization;
+            this.permission = permission;
+        }
+    }
+
+    private class Prefetched {
+
+        private final Map<String, CompletableFuture<?>> authorizations = new HashMap<>();
+
+        private final Map<String, CompletableFuture<?>> permissions = new HashMap<>();
+
+        private final long timeoutMillis = OrgCheckPrefetcher.this.timeoutMillis;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.component;
+
+import com.dream.springframework.auth.base.model.OrgHierarchy;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holder of current organization hierarchy snapshot
+ * <p>
+ * Readers always see a complete immutable {@link OrgHierarchy}. Updates build a new snapshot outside of readers' path and swap it
+ * atomically.
+ *
+ * @author DreamJM
+ */
+public class OrgHierarchyHolder {
+
+    private final AtomicReference<OrgHierarchy> hierarchy;
+
+    public OrgHierarchyHolder() {
+        this(OrgHierarchy.EMPTY);
+    }
+
+    /**
+     * @param hierarchy initial organization hierarchy
+     */
+    public OrgHierarchyHolder(OrgHierarchy hierarchy) {
+        this.hierarchy = new AtomicReference<>(hierarchy);
+    }
+
+    /**
+     * @return current organization hierarchy snapshot
+     */
+    public OrgHierarchy get() {
+        return hierarchy.get();
+    }
+
+    /**
+     * Rebuilds and swaps the organization hierarchy snapshot
+     *
+     * @param parentMap organization identity to its parent identity
+     */
+    public void update(Map<String, String> parentMap) {
+        swap(OrgHierarchy.of(parentMap));
+    }
+
+    /**
+     * Swaps the organization hierarchy snapshot
+     *
+     * @param newHierarchy new organization hierarchy
+     * @return previous organization hierarchy
+     */
+    public OrgHierarchy swap(OrgHierarchy newHierarchy) {
+        return hierarchy.getAndSet(newHierarchy);
+    }
+}
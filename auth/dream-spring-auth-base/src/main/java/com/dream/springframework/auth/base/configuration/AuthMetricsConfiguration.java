@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.configuration;
+
+import com.dream.springframework.auth.base.DreamAuthProperties;
+import com.dream.springframework.auth.base.component.AuthMetrics;
+import com.dream.springframework.auth.base.component.AuthMetricsPostProcessor;
+import com.dream.springframework.auth.base.component.CachingOrgPermissionService;
+import com.dream.springframework.auth.base.service.AuthenticationService;
+import com.dream.springframework.auth.base.service.AuthorizationService;
+import com.dream.springframework.auth.base.service.OrgPermissionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Authentication and authorization metrics configuration
+ * <p>
+ * Enabled when Micrometer {@link MeterRegistry} is present (e.g. with Spring Boot Actuator), could be disabled by
+ * {@code dream.auth.metrics.enabled=false}. {@link AuthorizationService} and {@link OrgPermissionService} beans are proxied for
+ * measuring, statistics of {@link CachingOrgPermissionService} caches are bound as cache metrics.
+ *
+ * @author DreamJM
+ * @see AuthMetrics
+ */
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean({AuthenticationService.class, MeterRegistry.class})
+@ConditionalOnProperty(prefix = "dream.auth.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureAfter(name = {"org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration"})
+@Configuration
+public class AuthMetricsConfiguration {
+
+    /**
+     * @param registry   meter registry
+     * @param properties authorization properties
+     * @return authentication and authorization metrics
+     */
+    @Bean
+    public AuthMetrics authMetrics(MeterRegistry registry, DreamAuthProperties properties) {
+        return new AuthMetrics(registry, properties.getMetrics());
+    }
+
+    /**
+     * @param metricsProvider ObjectProvider for authentication and authorization metrics
+     * @return post processor proxying authorization and organization permission services
+     */
+    @Bean
+    public static AuthMetricsPostProcessor authMetricsPostProcessor(ObjectProvider<AuthMetrics> metricsProvider) {
+        return new AuthMetricsPostProcessor(metricsProvider);
+    }
+
+    /**
+     * @param registry      meter registry
+     * @param cacheProvider ObjectProvider for organization resource permission cache
+     * @return binder of cache statistics, bound after all singletons are created
+     */
+    @Bean
+    public SmartInitializingSingleton orgPermissionCacheMetricsBinder(MeterRegistry registry,
+                                                                      ObjectProvider<CachingOrgPermissionService<?>> cacheProvider) {
+        return () -> cacheProvider.ifAvailable(service -> {
+            GuavaCacheMetrics.monitor(registry, service.getGrantedCache(), "orgPermissionGranted");
+            GuavaCacheMetrics.monitor(registry, service.getForbiddenCache(), "orgPermissionForbidden");
+        });
+    }
+}
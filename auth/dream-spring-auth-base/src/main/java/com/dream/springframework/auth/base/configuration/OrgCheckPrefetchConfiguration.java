@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.configuration;
+
+import com.dream.springframework.auth.base.DreamAuthProperties;
+import com.dream.springframework.auth.base.component.OrgCheckPrefetcher;
+import com.dream.springframework.auth.base.service.AuthenticationService;
+import com.dream.springframework.auth.base.service.AuthorizationService;
+import com.dream.springframework.auth.base.service.OrgPermissionService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Organization based checks prefetching configuration
+ * <p>
+ * Takes effect when 'dream.auth.prefetch.enabled' is set to true.
+ *
+ * @author DreamJM
+ * @see OrgCheckPrefetcher
+ */
+@ConditionalOnBean({AuthenticationService.class})
+@ConditionalOnProperty(prefix = "dream.auth.prefetch", name = "enabled", havingValue = "true")
+@Configuration
+public class OrgCheckPrefetchConfiguration {
+
+    /**
+     * Bounded executor for prefetching, rejects tasks when the queue is full so that the checks fall back to synchronous ones
+     *
+     * @param properties authorization properties
+     * @return bounded executor for prefetching
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "orgCheckPrefetchExecutor")
+    public Executor orgCheckPrefetchExecutor(DreamAuthProperties properties) {
+        DreamAuthProperties.Prefetch prefetch = properties.getPrefetch();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(prefetch.getCoreSize());
+        executor.setMaxPoolSize(prefetch.getMaxSize());
+        executor.setQueueCapacity(prefetch.getQueueCapacity());
+        executor.setThreadNamePrefix("Dream-OrgCheck-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * @param properties            authorization properties
+     * @param authService           authorization service for authorities and roles
+     * @param orgPermissionProvider ObjectProvider for organization resource access permission checking service
+     * @return organization based checks prefetcher
+     */
+    @Bean
+    public OrgCheckPrefetcher orgCheckPrefetcher(DreamAuthProperties properties, AuthorizationService authService,
+                                                 ObjectProvider<OrgPermissionService<?>> orgPermissionProvider) {
+        return new OrgCheckPrefetcher(orgCheckPrefetchExecutor(properties), authService, orgPermissionProvider.getIfAvailable(),
+                properties.getPrefetch().getTimeout().toMillis());
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.configuration;
+
+import com.dream.springframework.auth.base.DreamAuthProperties;
+import com.dream.springframework.auth.base.component.CachingOrgPermissionService;
+import com.dream.springframework.auth.base.service.AuthenticationService;
+import com.dream.springframework.auth.base.service.OrgPermissionService;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.Arrays;
+
+/**
+ * Organization resource permission cache configuration
+ * <p>
+ * Registers a primary {@link CachingOrgPermissionService} decorating the application's {@link OrgPermissionService} when
+ * {@code dream.auth.org-permission-cache.enabled} is true.
+ *
+ * @author DreamJM
+ */
+@ConditionalOnBean({AuthenticationService.class, OrgPermissionService.class})
+@ConditionalOnProperty(prefix = "dream.auth.org-permission-cache", name = "enabled", havingValue = "true")
+@Configuration
+public class OrgPermissionCacheConfiguration {
+
+    private static final String CACHE_BEAN_NAME = "cachingOrgPermissionService";
+
+    /**
+     * @param beanFactory bean factory to look up the decorated service
+     * @param properties  authorization properties
+     * @return caching organization resource permission checking service
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Primary
+    @Bean(CACHE_BEAN_NAME)
+    public CachingOrgPermissionService<?> cachingOrgPermissionService(ListableBeanFactory beanFactory, DreamAuthProperties properties) {
+        String delegateName = Arrays.stream(beanFactory.getBeanNamesForType(OrgPermissionService.class))
+                .filter(name -> !CACHE_BEAN_NAME.equals(name)).findFirst()
+                .orElseThrow(() -> new IllegalStateException("No OrgPermissionService found to be cached"));
+        return new CachingOrgPermissionService(beanFactory.getBean(delegateName, OrgPermissionService.class),
+                properties.getOrgPermissionCache());
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.configuration;
+
+import com.dream.springframework.auth.base.component.AuthOrgScopeProvider;
+import com.dream.springframework.auth.base.component.OrgHierarchyHolder;
+import com.dream.springframework.auth.base.service.AuthenticationService;
+import com.dream.springframework.dao.scope.OrgScopeProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Organization scope provider configuration
+ * <p>
+ * Takes effect when dream sql dao framework is present, restricting {@link com.dream.springframework.dao.annotation.OrgScope}
+ * queries to organizations of current authorized user.
+ *
+ * @author DreamJM
+ */
+@ConditionalOnClass(OrgScopeProvider.class)
+@ConditionalOnBean({AuthenticationService.class})
+@Configuration
+public class OrgScopeProviderConfiguration {
+
+    /**
+     * @param hierarchyProvider ObjectProvider for organization hierarchy holder
+     * @return organization scope provider based on current authorized user
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OrgScopeProvider orgScopeProvider(ObjectProvider<OrgHierarchyHolder> hierarchyProvider) {
+        return new AuthOrgScopeProvider(hierarchyProvider.getIfAvailable());
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiled matcher for segment based wildcard authorities
+ * <p>
+ * Authorities are split into segments by {@code ':'}. A {@code '*'} segment in a granted authority matches exactly one segment of the
+ * required authority, and a trailing {@code '*'} matches all remaining segments, e.g. {@code org:*:read} grants {@code org:o1:read}
+ * and {@code report:finance:*} grants {@code report:finance:monthly:view}. Required authorities are always literal.
+ * <p>
+ * Granted authorities are compiled into a segment trie once, each required authority is matched by walking it segment by segment.
+ *
+ * @author DreamJM
+ */
+public final class AuthorityTrie {
+
+    /**
+     * Authority segment separator
+     */
+    public static final char SEPARATOR = ':';
+
+    /**
+     * Wildcard segment
+     */
+    public static final String WILDCARD = "*";
+
+    /**
+     * Immutable copy of the compiled authorities, null if compiled from null
+     */
+    private final Set<String> authorities;
+
+    private final Node root = new Node();
+
+    private AuthorityTrie(Set<String> authorities) {
+        this.authorities = authorities;
+    }
+
+    /**
+     * Compiles granted authorities, the trie keeps an immutable copy of them to be validated against
+     *
+     * @param authorities granted authorities
+     * @return authority trie
+     */
+    public static AuthorityTrie compile(Set<String> authorities) {
+        AuthorityTrie trie = new AuthorityTrie(authorities == null ? null : Collections.unmodifiableSet(new HashSet<>(authorities)));
+        if (authorities != null) {
+            for (String authority : trie.authorities) {
+                trie.add(authority);
+            }
+        }
+        return trie;
+    }
+
+    private void add(String authority) {
+        if (authority == null) {
+            return;
+        }
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = authority.indexOf(SEPARATOR, start);
+            boolean last = end < 0;
+            String segment = last ? authority.substring(start) : authority.substring(start, end);
+            if (WILDCARD.equals(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+                if (last) {
+                    node.matchesRest = true;
+                }
+            } else {
+                node = node.children.computeIfAbsent(segment, k -> new Node());
+            }
+            if (last) {
+                node.terminal = true;
+                return;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Checks whether this trie is still valid by content, so that authorities changed in place or derived again (e.g. from a new
+     * organization hierarchy) are never matched by a stale trie
+     *
+     * @param authorities granted authorities
+     * @return whether this trie is compiled from the same granted authorities
+     */
+    public boolean isCompiledFrom(Set<String> authorities) {
+        if (this.authorities == null || authorities == null) {
+            return this.authorities == authorities;
+        }
+        return this.authorities.size() == authorities.size() && this.authorities.equals(authorities);
+    }
+
+    /**
+     * Matches required authority against compiled granted authorities
+     *
+     * @param authority required authority
+     * @return whether the authority is granted
+     */
+    public boolean matches(String authority) {
+        if (authority == null) {
+            return false;
+        }
+        List<Node> current = new ArrayList<>(2);
+        List<Node> next = new ArrayList<>(2);
+        current.add(root);
+        int start = 0;
+        while (true) {
+            int end = authority.indexOf(SEPARATOR, start);
+            boolean last = end < 0;
+            String segment = last ? authority.substring(start) : authority.substring(start, end);
+            for (Node node : current) {
+                Node child = node.children.get(segment);
+                if (child != null && !next.contains(child)) {
+                    next.add(child);
+                }
+                if (node.wildcard != null) {
+                    if (node.wildcard.matchesRest) {
+                        return true;
+                    }
+                    if (!next.contains(node.wildcard)) {
+                        next.add(node.wildcard);
+                    }
+                }
+            }
+            if (next.isEmpty()) {
+                return false;
+            }
+            if (last) {
+                for (Node node : next) {
+                    if (node.terminal) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            List<Node> swap = current;
+            current = next;
+            next = swap;
+            next.clear();
+            start = end + 1;
+        }
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>(4);
+
+        private Node wildcard;
+
+        private boolean terminal;
+
+        private boolean matchesRest;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable organization hierarchy snapshot
+ * <p>
+ * Every organization is numbered by an Euler tour of the forest: {@code enter} is its preorder index and {@code exit} is the largest
+ * preorder index inside its subtree. Organization A is an ancestor of (or same as) B if and only if
+ * {@code enter[A] <= enter[B] && enter[B] <= exit[A]}.
+ *
+ * @author DreamJM
+ */
+public final class OrgHierarchy {
+
+    /**
+     * Empty hierarchy, every organization is only related to itself
+     */
+    public static final OrgHierarchy EMPTY = new OrgHierarchy(Collections.emptyMap(), new String[0], new int[0], new int[0], new int[0]);
+
+    private final Map<String, Integer> indexes;
+
+    /**
+     * Organization identities ordered by preorder index
+     */
+    private final String[] preorder;
+
+    private final int[] enter;
+
+    private final int[] exit;
+
+    private final int[] parents;
+
+    private OrgHierarchy(Map<String, Integer> indexes, String[] preorder, int[] enter, int[] exit, int[] parents) {
+        this.indexes = indexes;
+        this.preorder = preorder;
+        this.enter = enter;
+        this.exit = exit;
+        this.parents = parents;
+    }
+
+    /**
+     * Builds hierarchy snapshot
+     *
+     * @param parentMap organization identity to its parent identity (null or absent parent for root organizations)
+     * @return organization hierarchy
+     * @throws IllegalArgumentException if organizations form a cycle
+     */
+    public static OrgHierarchy of(Map<String, String> parentMap) {
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> orgIds = new ArrayList<>();
+        parentMap.forEach((orgId, parentId) -> {
+            indexes.computeIfAbsent(orgId, k -> register(orgIds, k));
+            if (parentId != null) {
+                indexes.computeIfAbsent(parentId, k -> register(orgIds, k));
+            }
+        });
+        int size = orgIds.size();
+        int[] parents = new int[size];
+        int[] childCounts = new int[size];
+        for (int i = 0; i < size; i++) {
+            String parentId = parentMap.get(orgIds.get(i));
+            parents[i] = parentId == null ? -1 : indexes.get(parentId);
+            if (parents[i] >= 0) {
+                childCounts[parents[i]]++;
+            }
+        }
+        // Children adjacency in CSR layout
+        int[] childStart = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            childStart[i + 1] = childStart[i] + childCounts[i];
+        }
+        int[] children = new int[childStart[size]];
+        int[] fill = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (parents[i] >= 0) {
+                children[childStart[parents[i]] + fill[parents[i]]++] = i;
+            }
+        }
+        int[] enter = new int[size];
+        int[] exit = new int[size];
+        int[] cursor = new int[size];
+        int counter = 0;
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int root = 0; root < size; root++) {
+            if (parents[root] >= 0) {
+                continue;
+            }
+            enter[root] = counter++;
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                int node = stack.peek();
+                if (cursor[node] < childCounts[node]) {
+                    int child = children[childStart[node] + cursor[node]++];
+                    enter[child] = counter++;
+                    stack.push(child);
+                } else {
+                    exit[node] = counter - 1;
+                    stack.pop();
+                }
+            }
+        }
+        if (counter != size) {
+            throw new IllegalArgumentException("Organization hierarchy contains cycle");
+        }
+        String[] preorder = new String[size];
+        for (int i = 0; i < size; i++) {
+            preorder[enter[i]] = orgIds.get(i);
+        }
+        return new OrgHierarchy(Collections.unmodifiableMap(indexes), preorder, enter, exit, parents);
+    }
+
+    private static Integer register(List<String> orgIds, String orgId) {
+        orgIds.add(orgId);
+        return orgIds.size() - 1;
+    }
+
+    /**
+     * @param orgId organization identity
+     * @return whether the organization is in the hierarchy
+     */
+    public boolean contains(String orgId) {
+        return orgId != null && indexes.containsKey(orgId);
+    }
+
+    /**
+     * @param ancestorId   possible ancestor organization identity
+     * @param descendantId possible descendant organization identity
+     * @return whether 'ancestorId' is the same organization as or an ancestor of 'descendantId'
+     */
+    public boolean isAncestorOrSelf(String ancestorId, String descendantId) {
+        if (ancestorId == null || descendantId == null) {
+            return false;
+        }
+        if (ancestorId.equals(descendantId)) {
+            return true;
+        }
+        Integer ancestor = indexes.get(ancestorId);
+        Integer descendant = indexes.get(descendantId);
+        return ancestor != null && descendant != null && enter[ancestor] <= enter[descendant] && enter[descendant] <= exit[ancestor];
+    }
+
+    /**
+     * @param ancestorId   possible ancestor organization identity
+     * @param descendantId possible descendant organization identity
+     * @return whether 'ancestorId' is a strict ancestor of 'descendantId'
+     */
+    public boolean isAncestor(String ancestorId, String descendantId) {
+        return ancestorId != null && !ancestorId.equals(descendantId) && isAncestorOrSelf(ancestorId, descendantId);
+    }
+
+    /**
+     * Checks whether the organization is covered by authorized organizations, i.e. one of them is the organization or its ancestor
+     *
+     * @param orgIds authorized organization identities
+     * @param orgId  organization identity to check
+     * @return whether covered
+     */
+    public boolean isCovered(Set<String> orgIds, String orgId) {
+        if (orgIds == null || orgId == null) {
+            return false;
+        }
+        if (orgIds.contains(orgId)) {
+            return true;
+        }
+        Integer index = indexes.get(orgId);
+        if (index == null) {
+            return false;
+        }
+        for (String authorizedId : orgIds) {
+            Integer ancestor = indexes.get(authorizedId);
+            if (ancestor != null && enter[ancestor] <= enter[index] && enter[index] <= exit[ancestor]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Expands authorized organizations with all their descendants, each subtree is a contiguous preorder range
+     *
+     * @param orgIds authorized organization identities
+     * @return authorized organizations and their descendants, organizations not in the hierarchy are kept as they are
+     */
+    public Set<String> expand(Set<String> orgIds) {
+        if (orgIds == null || orgIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> expanded = new LinkedHashSet<>();
+        for (String orgId : orgIds) {
+            Integer index = indexes.get(orgId);
+            if (index == null) {
+                expanded.add(orgId);
+            } else if (!expanded.contains(orgId)) {
+                expanded.addAll(Arrays.asList(preorder).subList(enter[index], exit[index] + 1));
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * @return organization count in hierarchy
+     */
+    public int size() {
+        return parents.length;
+    }
+}
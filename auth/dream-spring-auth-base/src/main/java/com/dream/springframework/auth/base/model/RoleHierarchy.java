@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.base.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable role hierarchy with precomputed transitive closure
+ * <p>
+ * Built from role to directly implied roles definitions (e.g. admin -&gt; [manager], manager -&gt; [operator]). For every role the set
+ * of roles implying it (including itself) is computed once as a {@link BitSet}, so checking a required role against a user's role set
+ * is a single bit set intersection and user role sets never need to be expanded.
+ *
+ * @author DreamJM
+ */
+public final class RoleHierarchy {
+
+    /**
+     * Empty hierarchy, every role only implies itself
+     */
+    public static final RoleHierarchy EMPTY = new RoleHierarchy(Collections.emptyMap(), new BitSet[0]);
+
+    private final Map<String, Integer> indexes;
+
+    private final BitSet[] impliedBy;
+
+    private RoleHierarchy(Map<String, Integer> indexes, BitSet[] impliedBy) {
+        this.indexes = indexes;
+        this.impliedBy = impliedBy;
+    }
+
+    /**
+     * Builds role hierarchy
+     *
+     * @param impliedRoles role identity to its directly implied role identities
+     * @return role hierarchy
+     */
+    public static RoleHierarchy of(Map<String, ? extends Set<String>> impliedRoles) {
+        if (impliedRoles == null || impliedRoles.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, Integer> indexes = new HashMap<>();
+        List<List<Integer>> edges = new ArrayList<>();
+        impliedRoles.forEach((role, implied) -> {
+            int from = index(indexes, edges, role);
+            if (implied != null) {
+                for (String impliedRole : implied) {
+                    int to = index(indexes, edges, impliedRole);
+                    edges.get(from).add(to);
+                }
+            }
+        });
+        int size = indexes.size();
+        BitSet[] impliedBy = new BitSet[size];
+        for (int i = 0; i < size; i++) {
+            impliedBy[i] = new BitSet(size);
+        }
+        // Traverses the closure of every role iteratively, cycles are harmless as visited roles are skipped
+        BitSet visited = new BitSet(size);
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int role = 0; role < size; role++) {
+            visited.clear();
+            visited.set(role);
+            stack.push(role);
+            while (!stack.isEmpty()) {
+                int current = stack.pop();
+                impliedBy[current].set(role);
+                for (int next : edges.get(current)) {
+                    if (!visited.get(next)) {
+                        visited.set(next);
+                        stack.push(next);
+                    }
+                }
+            }
+        }
+        return new RoleHierarchy(Collections.unmodifiableMap(indexes), impliedBy);
+    }
+
+    private static int index(Map<String, Integer> indexes, List<List<Integer>> edges, String role) {
+        return indexes.computeIfAbsent(role, k -> {
+            edges.add(new ArrayList<>());
+            return edges.size() - 1;
+        });
+    }
+
+    /**
+     * @return whether no role hierarchy is defined
+     */
+    public boolean isEmpty() {
+        return indexes.isEmpty();
+    }
+
+    /**
+     * Encodes user roles for {@link #implies(BitSet, Set, String)} lookups, roles out of the hierarchy are ignored
+     *
+     * @param roles user role identities
+     * @return encoded roles
+     */
+    public BitSet encode(Set<String> roles) {
+        BitSet bits = new BitSet(indexes.size());
+        if (roles != null && !isEmpty()) {
+            for (String role : roles) {
+                Integer index = indexes.get(role);
+                if (index != null) {
+                    bits.set(index);
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Checks whether user roles imply the required role
+     *
+     * @param encodedRoles user roles encoded by {@link #encode(Set)}
+     * @param roles        user role identities
+     * @param requiredRole required role identity
+     * @return whether the required role is granted directly or implied
+     */
+    public boolean implies(BitSet encodedRoles, Set<String> roles, String requiredRole) {
+        if (roles != null && roles.contains(requiredRole)) {
+            return true;
+        }
+        Integer index = indexes.get(requiredRole);
+        return index != null && impliedBy[index].intersects(encodedRoles);
+    }
+
+    /**
+     * Checks whether user roles imply the required role
+     *
+     * @param roles        user role identities
+     * @param requiredRole required role identity
+     * @return whether the required role is granted directly or implied
+     */
+    public boolean implies(Set<String> roles, String requiredRole) {
+        return implies(encode(roles), roles, requiredRole);
+    }
+}
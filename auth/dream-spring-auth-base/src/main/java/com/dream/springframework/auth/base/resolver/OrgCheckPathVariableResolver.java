@@ -21,6 +21,7 @@ import com.dream.springframework.auth.base.annotation.OrgAuthorization;
 import com.dream.springframework.auth.base.annotation.OrgPermission;
 import com.dream.springframework.auth.base.annotation.RequiredAuthorities;
 import com.dream.springframework.auth.base.annotation.RequiredRoles;
+import com.dream.springframework.auth.base.component.OrgCheckPrefetcher;
 import com.dream.springframework.auth.base.service.AuthorizationService;
 import com.dream.springframework.auth.base.service.OrgPermissionService;
 import com.dream.springframework.base.exception.BaseErrorCode;
@@ -70,7 +71,10 @@ public class OrgCheckPathVariableResolver extends PathVariableMethodArgumentReso
         if (orgAuthCheck != null) {
             RequiredAuthorities authAnnotation = parameter.getMethodAnnotation(RequiredAuthorities.class);
             RequiredRoles roleAnnotation = parameter.getMethodAnnotation(RequiredRoles.class);
-            authService.authorize(authUser, result == null ? null : String.valueOf(result), authAnnotation, roleAnnotation);
+            String orgId = result == null ? null : String.valueOf(result);
+            if (!OrgCheckPrefetcher.awaitAuthorization(request, orgId)) {
+                authService.authorize(authUser, orgId, authAnnotation, roleAnnotation);
+            }
         }
         if (annPrm != null) {
             if (permissionService == null) {
@@ -80,7 +84,9 @@ public class OrgCheckPathVariableResolver extends PathVariableMethodArgumentReso
                 if (Strings.isNullOrEmpty(orgId) && !annPrm.skipEmpty()) {
                     throw new ForbiddenException(BaseErrorCode.EMPTY_ORG_FORBIDDEN);
                 }
-                permissionService.checkOrgResourcePermission(authUser.getOrgIds(), orgId);
+                if (!OrgCheckPrefetcher.awaitPermission(request, orgId)) {
+                    permissionService.checkOrgResourcePermission(authUser.getOrgIds(), orgId);
+                }
             }
         }
         return result;
@@ -21,6 +21,7 @@ import com.dream.springframework.auth.base.annotation.OrgAuthorization;
 import com.dream.springframework.auth.base.annotation.OrgPermission;
 import com.dream.springframework.auth.base.annotation.RequiredAuthorities;
 import com.dream.springframework.auth.base.annotation.RequiredRoles;
+import com.dream.springframework.auth.base.component.OrgCheckPrefetcher;
 import com.dream.springframework.auth.base.service.AuthorizationService;
 import com.dream.springframework.auth.base.service.OrgPermissionService;
 import com.dream.springframework.base.exception.BaseErrorCode;
@@ -85,9 +86,12 @@ public class OrgCheckRequestParamResolver extends RequestParamMethodArgumentReso
                 authService.authorize(authUser, null, authAnnotation, roleAnnotation);
             } else if (result.getClass().isArray()) {
                 for (int i = 0; i < Array.getLength(result); i++) {
-                    authService.authorize(authUser, String.valueOf(Array.get(result, i)), authAnnotation, roleAnnotation);
+                    String orgId = String.valueOf(Array.get(result, i));
+                    if (!OrgCheckPrefetcher.awaitAuthorization(request, orgId)) {
+                        authService.authorize(authUser, orgId, authAnnotation, roleAnnotation);
+                    }
                 }
-            } else {
+            } else if (!OrgCheckPrefetcher.awaitAuthorization(request, String.valueOf(result))) {
                 authService.authorize(authUser, String.valueOf(result), authAnnotation, roleAnnotation);
             }
         }
@@ -112,7 +116,9 @@ public class OrgCheckRequestParamResolver extends RequestParamMethodArgumentReso
                 if ("".equals(orgId) && !annPrm.skipEmpty()) {
                     throw new ForbiddenException(BaseErrorCode.EMPTY_ORG_FORBIDDEN);
                 }
-                permissionService.checkOrgResourcePermission(authUser.getOrgIds(), String.valueOf(result));
+                if (!OrgCheckPrefetcher.awaitPermission(request, orgId)) {
+                    permissionService.checkOrgResourcePermission(authUser.getOrgIds(), orgId);
+                }
             }
         }
         return result;
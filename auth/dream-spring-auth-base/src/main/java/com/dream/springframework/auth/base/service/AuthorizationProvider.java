@@ -18,6 +18,8 @@ package com.dream.springframework.auth.base.service;
 
 import com.dream.springframework.auth.base.BaseAuthUser;
 import com.dream.springframework.auth.base.component.DefaultAuthorizationProvider;
+import com.dream.springframework.auth.base.component.HierarchicalAuthorizationProvider;
+import com.dream.springframework.auth.base.component.OrgHierarchyHolder;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
@@ -29,6 +31,7 @@ import java.util.Set;
  * {@link DefaultAuthorizationProvider} is provided as default provider.
  * But under certain circumstances(for example: organization has children and the authorities and roles may take effects automatically in
  * their children), you may want to customize the provider's behavior by implementing this interface and injecting it into spring context.
+ * {@link HierarchicalAuthorizationProvider} covers the organization inheritance case based on {@link OrgHierarchyHolder}.
  *
  * @author DreamJM
  */
@@ -55,4 +58,28 @@ public interface AuthorizationProvider {
      */
     @NonNull
     Set<String> getRoles(@Nullable String orgId, BaseAuthUser baseAuthUser);
+
+    /**
+     * Gets union of user's common authorities and authorities in all organizations, used to reject requests early when the required
+     * authorities are not granted anywhere.
+     *
+     * @param baseAuthUser authenticated user information
+     * @return all authorities that may be provided for the user, or null if they can't be enumerated
+     */
+    @Nullable
+    default Set<String> getAllAuthorities(BaseAuthUser baseAuthUser) {
+        return null;
+    }
+
+    /**
+     * Gets union of user's common roles and roles in all organizations, used to reject requests early when the required roles are not
+     * granted anywhere.
+     *
+     * @param baseAuthUser authenticated user information
+     * @return all roles that may be provided for the user, or null if they can't be enumerated
+     */
+    @Nullable
+    default Set<String> getAllRoles(BaseAuthUser baseAuthUser) {
+        return null;
+    }
 }
@@ -42,4 +42,17 @@ public interface AuthorizationService {
      */
     void authorize(BaseAuthUser authUser, String orgId, RequiredAuthorities authAnnotation, RequiredRoles roleAnnotation) throws
             RequestException;
+
+    /**
+     * Rejects user early when the required roles or authorities are granted in none of user's organizations. Called before organization
+     * based authorization is deferred to argument resolving, so that doomed requests never get their body parsed.
+     *
+     * @param authUser       authenticated user
+     * @param authAnnotation required authorities
+     * @param roleAnnotation required roles
+     * @throws RequestException authorization failure in all organizations
+     */
+    default void preAuthorize(BaseAuthUser authUser, RequiredAuthorities authAnnotation, RequiredRoles roleAnnotation) throws
+            RequestException {
+    }
 }
@@ -17,6 +17,7 @@
 package com.dream.springframework.auth.token;
 
 import com.dream.springframework.auth.base.component.*;
+import com.dream.springframework.auth.base.model.RoleHierarchy;
 import com.dream.springframework.auth.base.resolver.LoginUserHandlerMethodArgumentResolver;
 import com.dream.springframework.auth.base.service.AuthorizationProvider;
 import com.dream.springframework.auth.base.service.AuthorizationService;
@@ -55,14 +56,28 @@ public class DreamAuthTokenAutoConfiguration implements WebMvcConfigurer {
 
     private BaseTokenAuthenticationService<?> authenticationService;
 
+    private RoleHierarchy roleHierarchy;
+
+    private ObjectProvider<OrgCheckPrefetcher> prefetcherProvider;
+
+    private ObjectProvider<AuthMetrics> metricsProvider;
+
     /**
      * @param properties            token authorization properties
      * @param authenticationService token based authentication service
+     * @param roleHierarchyProvider customized role hierarchy, built from 'dream.auth.role-hierarchy' if absent
+     * @param prefetcherProvider    organization based checks prefetcher
+     * @param metricsProvider       authentication and authorization metrics
      */
     public DreamAuthTokenAutoConfiguration(DreamTokenAuthProperties properties, BaseTokenAuthenticationService<?> authenticationService,
-                                           ObjectProvider<Docket> docketProvider) {
+                                           ObjectProvider<Docket> docketProvider, ObjectProvider<RoleHierarchy> roleHierarchyProvider,
+                                           ObjectProvider<OrgCheckPrefetcher> prefetcherProvider,
+                                           ObjectProvider<AuthMetrics> metricsProvider) {
         this.properties = properties;
+        this.roleHierarchy = roleHierarchyProvider.getIfAvailable(() -> RoleHierarchy.of(properties.getRoleHierarchy()));
         this.authenticationService = authenticationService;
+        this.prefetcherProvider = prefetcherProvider;
+        this.metricsProvider = metricsProvider;
         docketProvider.ifAvailable(docket -> docket.globalOperationParameters(Collections.singletonList(
                 new ParameterBuilder().name(BaseTokenAuthenticationService.HEADER_AUTH).description("Bearer Token")
                         .modelRef(new ModelRef("string")).parameterType("header").required(false).build())));
@@ -83,7 +98,7 @@ public class DreamAuthTokenAutoConfiguration implements WebMvcConfigurer {
     @ConditionalOnMissingBean
     @Bean
     public AuthorizationService authorizationService() {
-        return new DefaultAuthorizationServiceImpl(properties, authorizationProvider());
+        return new DefaultAuthorizationServiceImpl(properties, authorizationProvider(), roleHierarchy);
     }
 
     /**
@@ -112,7 +127,10 @@ public class DreamAuthTokenAutoConfiguration implements WebMvcConfigurer {
      */
     @Bean
     public AuthenticationInterceptor authorizationInterceptor() {
-        return new AuthenticationInterceptor(authenticationService, authorizationService());
+        AuthenticationInterceptor interceptor = new AuthenticationInterceptor(authenticationService, authorizationService());
+        interceptor.setPrefetcher(prefetcherProvider.getIfAvailable());
+        interceptor.setMetrics(metricsProvider.getIfAvailable());
+        return interceptor;
     }
 
     @Override
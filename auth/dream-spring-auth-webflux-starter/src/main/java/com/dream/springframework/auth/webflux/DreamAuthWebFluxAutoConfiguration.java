@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.webflux;
+
+import com.dream.springframework.auth.base.component.DefaultAuthorizationProvider;
+import com.dream.springframework.auth.base.component.DefaultAuthorizationServiceImpl;
+import com.dream.springframework.auth.base.model.RoleHierarchy;
+import com.dream.springframework.auth.base.service.AuthorizationProvider;
+import com.dream.springframework.auth.base.service.AuthorizationService;
+import com.dream.springframework.auth.base.service.OrgPermissionService;
+import com.dream.springframework.auth.webflux.component.*;
+import com.dream.springframework.auth.webflux.resolver.ReactiveLoginUserArgumentResolver;
+import com.dream.springframework.auth.webflux.service.ReactiveAuthenticationService;
+import com.dream.springframework.auth.webflux.service.ReactiveOrgPermissionService;
+import com.dream.springframework.base.util.MessageUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Auto configuration for reactive (WebFlux) authorization service
+ * <p>
+ * Servlet based framework starter is not applicable for reactive web application, so {@link MessageUtils} is initialized here for
+ * error message translation.
+ *
+ * @author DreamJM
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnBean(ReactiveAuthenticationService.class)
+@Configuration
+@EnableConfigurationProperties(DreamWebFluxAuthProperties.class)
+public class DreamAuthWebFluxAutoConfiguration implements WebFluxConfigurer {
+
+    private DreamWebFluxAuthProperties properties;
+
+    private RoleHierarchy roleHierarchy;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectProvider<ReactiveOrgPermissionService<?>> reactivePermissionProvider;
+
+    private ObjectProvider<OrgPermissionService<?>> permissionProvider;
+
+    /**
+     * @param properties                  WebFlux authorization properties
+     * @param messageSource               message source for error message translation
+     * @param roleHierarchyProvider       customized role hierarchy, built from 'dream.auth.role-hierarchy' if absent
+     * @param objectMapperProvider        application object mapper
+     * @param reactivePermissionProvider  reactive organization resource permission checking service
+     * @param permissionProvider          blocking organization resource permission checking service, adapted if no reactive one
+     */
+    public DreamAuthWebFluxAutoConfiguration(DreamWebFluxAuthProperties properties, MessageSource messageSource,
+                                             ObjectProvider<RoleHierarchy> roleHierarchyProvider,
+                                             ObjectProvider<ObjectMapper> objectMapperProvider,
+                                             ObjectProvider<ReactiveOrgPermissionService<?>> reactivePermissionProvider,
+                                             ObjectProvider<OrgPermissionService<?>> permissionProvider) {
+        this.properties = properties;
+        MessageUtils.setMessageSource(messageSource);
+        this.roleHierarchy = roleHierarchyProvider.getIfAvailable(() -> RoleHierarchy.of(properties.getRoleHierarchy()));
+        this.objectMapper = objectMapperProvider.getIfAvailable(ObjectMapper::new);
+        this.reactivePermissionProvider = reactivePermissionProvider;
+        this.permissionProvider = permissionProvider;
+    }
+
+    /**
+     * @return user authorities and roles provider
+     */
+    @ConditionalOnMissingBean
+    @Bean
+    public AuthorizationProvider authorizationProvider() {
+        return new DefaultAuthorizationProvider();
+    }
+
+    /**
+     * @return authorization service for user authorities and roles
+     */
+    @ConditionalOnMissingBean
+    @Bean
+    public AuthorizationService authorizationService() {
+        return new DefaultAuthorizationServiceImpl(properties, authorizationProvider(), roleHierarchy);
+    }
+
+    /**
+     * @return reactive organization checking service
+     */
+    @Bean
+    public ReactiveOrgCheckService reactiveOrgCheckService() {
+        ReactiveOrgPermissionService<?> permissionService = reactivePermissionProvider.getIfAvailable();
+        if (permissionService == null) {
+            OrgPermissionService<?> blockingService = permissionProvider.getIfAvailable();
+            if (blockingService != null) {
+                permissionService = ReactiveOrgPermissionService.fromBlocking(blockingService, Schedulers.boundedElastic());
+            }
+        }
+        return new ReactiveOrgCheckService(permissionService, authorizationService(), Schedulers.boundedElastic());
+    }
+
+    /**
+     * @param authenticationService reactive user authentication service
+     * @param handlerMapping        request mapping handler mapping
+     * @return web filter for authentication
+     */
+    @Bean
+    public AuthenticationWebFilter authenticationWebFilter(ReactiveAuthenticationService<?> authenticationService,
+                                                           @Qualifier("requestMappingHandlerMapping") HandlerMapping handlerMapping) {
+        return new AuthenticationWebFilter(authenticationService, reactiveOrgCheckService(), handlerMapping, objectMapper,
+                properties.getPathPatterns(), properties.getExcludePathPatterns());
+    }
+
+    /**
+     * @return global exception handler for reactive web application
+     */
+    @ConditionalOnMissingBean
+    @Bean
+    public ReactiveExceptionHandlerAdvice reactiveExceptionHandlerAdvice() {
+        return new ReactiveExceptionHandlerAdvice();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new OrgCheckHttpMessageReader(new DecoderHttpMessageReader<>(
+                new Jackson2JsonDecoder(objectMapper)), reactiveOrgCheckService()));
+        configurer.customCodecs().register(new OrgCheckHttpMessageWriter(new EncoderHttpMessageWriter<>(
+                new Jackson2JsonEncoder(objectMapper)), reactiveOrgCheckService()));
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactiveLoginUserArgumentResolver());
+    }
+}
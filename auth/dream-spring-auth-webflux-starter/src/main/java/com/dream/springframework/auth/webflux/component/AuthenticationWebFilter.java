@@ -0,0 +1,307 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.webflux.component;
+
+import com.dream.springframework.auth.base.BaseAuthUser;
+import com.dream.springframework.auth.base.annotation.AuthIgnore;
+import com.dream.springframework.auth.base.annotation.OrgAuthorization;
+import com.dream.springframework.auth.base.annotation.OrgPermission;
+import com.dream.springframework.auth.base.annotation.RequiredAuthorities;
+import com.dream.springframework.auth.base.annotation.RequiredRoles;
+import com.dream.springframework.auth.webflux.service.ReactiveAuthenticationService;
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.RequestException;
+import com.dream.springframework.base.exception.RuntimeRequestException;
+import com.dream.springframework.base.exception.UnauthorizedException;
+import com.dream.springframework.base.model.Result;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * User authentication web filter, the reactive edition of the authentication interceptor
+ * <p>
+ * Organization checks of path variables and request parameters are performed here before the handler is invoked, since the built-in
+ * WebFlux argument resolvers could not be replaced. Authenticated user is stored in exchange attribute {@link BaseAuthUser#USER_KEY}
+ * and in subscriber context, see {@link #currentUser()}.
+ *
+ * @author DreamJM
+ */
+public class AuthenticationWebFilter implements WebFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationWebFilter.class);
+
+    private static final DefaultParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private ReactiveAuthenticationService<?> authenticationService;
+
+    private ReactiveOrgCheckService orgCheckService;
+
+    private HandlerMapping handlerMapping;
+
+    private ObjectMapper objectMapper;
+
+    private List<PathPattern> pathPatterns;
+
+    private List<PathPattern> excludePathPatterns;
+
+    private Map<Method, MethodCheck> methodCheckMap = new ConcurrentHashMap<>();
+
+    private int order = 0;
+
+    /**
+     * @param authenticationService reactive user authentication service
+     * @param orgCheckService       organization checking service
+     * @param handlerMapping        handler mapping to look up annotated handler methods
+     * @param objectMapper          object mapper to write error result
+     * @param pathPatterns          authorization path patterns
+     * @param excludePathPatterns   path patterns that excluded from authorization path
+     */
+    public AuthenticationWebFilter(ReactiveAuthenticationService<?> authenticationService, ReactiveOrgCheckService orgCheckService,
+                                   HandlerMapping handlerMapping, ObjectMapper objectMapper, String[] pathPatterns,
+                                   String[] excludePathPatterns) {
+        this.authenticationService = authenticationService;
+        this.orgCheckService = orgCheckService;
+        this.handlerMapping = handlerMapping;
+        this.objectMapper = objectMapper;
+        this.pathPatterns = parsePatterns(pathPatterns);
+        this.excludePathPatterns = parsePatterns(excludePathPatterns);
+    }
+
+    /**
+     * @return authenticated user of current request, empty if not authenticated
+     */
+    public static Mono<BaseAuthUser> currentUser() {
+        return Mono.subscriberContext().flatMap(context -> Mono.justOrEmpty(context.getOrEmpty(BaseAuthUser.USER_KEY)))
+                .cast(BaseAuthUser.class);
+    }
+
+    /**
+     * @param order filter order
+     */
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (pathPatterns.stream().noneMatch(pattern -> pattern.matches(path)) || excludePathPatterns.stream()
+                .anyMatch(pattern -> pattern.matches(path))) {
+            return chain.filter(exchange);
+        }
+        return handlerMapping.getHandler(exchange).filter(handler -> handler instanceof HandlerMethod).cast(HandlerMethod.class)
+                .flatMap(handler -> authenticate(exchange, handler)).map(Optional::of).defaultIfEmpty(Optional.empty())
+                .onErrorResume(ex -> ex instanceof RequestException || ex instanceof RuntimeRequestException,
+                        ex -> writeError(exchange, ex).then(Mono.<Optional<BaseAuthUser>>empty()))
+                .flatMap(authUser -> authUser.map(user -> chain.filter(exchange)
+                        .subscriberContext(context -> context.put(BaseAuthUser.USER_KEY, user))).orElseGet(() -> chain.filter(exchange)));
+    }
+
+    private Mono<BaseAuthUser> authenticate(ServerWebExchange exchange, HandlerMethod handler) {
+        //If AuthIgnore annotation contained，skip authorization
+        if (handler.hasMethodAnnotation(AuthIgnore.class)) {
+            return Mono.empty();
+        }
+        RequiredAuthorities authAnnotation = handler.getMethodAnnotation(RequiredAuthorities.class);
+        RequiredRoles roleAnnotation = handler.getMethodAnnotation(RequiredRoles.class);
+        MethodCheck methodCheck = methodCheckMap.computeIfAbsent(handler.getMethod(), m -> judgeMethodCheck(handler));
+        return authenticationService.authenticate(exchange).cast(BaseAuthUser.class)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new UnauthorizedException(BaseErrorCode.AUTH_FAILURE))))
+                .flatMap(authUser -> {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Request {} was authorized for user: {}", exchange.getRequest().getURI().getPath(), authUser.getUid());
+                    }
+                    exchange.getAttributes().put(BaseAuthUser.USER_KEY, authUser);
+                    // If not need to check basing on organization, checking here. Or else, delay to parameter or body checks
+                    Mono<Void> authCheck = Mono.empty();
+                    if (methodCheck.orgCheck == OrgCheck.NONE) {
+                        authCheck = orgCheckService.authorize(authUser, null, authAnnotation, roleAnnotation);
+                    } else if (methodCheck.orgCheck == OrgCheck.PARAMETER) {
+                        authCheck = orgCheckService.preAuthorize(authUser, authAnnotation, roleAnnotation);
+                    }
+                    return authCheck.thenMany(Flux.fromIterable(methodCheck.parameterChecks))
+                            .concatMap(check -> orgCheckService.checkOrgIds(check.getValues(exchange), authUser, check.parameter,
+                                    check.orgPrmAnnotation, check.orgAuthAnnotated)).then(Mono.just(authUser));
+                });
+    }
+
+    private Mono<Void> writeError(ServerWebExchange exchange, Throwable ex) {
+        RequestException requestException = ex instanceof RuntimeRequestException ? (RequestException) ex.getCause() :
+                (RequestException) ex;
+        logger.warn("Error Returned with Code {} and Message {}", requestException.getCode(), requestException.getMessage());
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(requestException.getStatus());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(new Result<>(requestException.getCode(), requestException.getMessage()));
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private MethodCheck judgeMethodCheck(HandlerMethod method) {
+        List<ParameterCheck> parameterChecks = new ArrayList<>();
+        boolean orgAuthParameter = false;
+        for (MethodParameter parameter : method.getMethodParameters()) {
+            boolean orgAuthAnnotated = parameter.hasParameterAnnotation(OrgAuthorization.class);
+            orgAuthParameter |= orgAuthAnnotated;
+            OrgPermission orgPrmAnnotation = parameter.getParameterAnnotation(OrgPermission.class);
+            if (!orgAuthAnnotated && orgPrmAnnotation == null) {
+                continue;
+            }
+            PathVariable pathVariable = parameter.getParameterAnnotation(PathVariable.class);
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            if (pathVariable != null) {
+                parameterChecks.add(new ParameterCheck(parameter, resolveName(parameter, pathVariable.name(), pathVariable.value()), true,
+                        orgPrmAnnotation, orgAuthAnnotated));
+            } else if (requestParam != null) {
+                parameterChecks.add(new ParameterCheck(parameter, resolveName(parameter, requestParam.name(), requestParam.value()), false,
+                        orgPrmAnnotation, orgAuthAnnotated));
+            }
+        }
+        OrgCheck orgCheck = OrgCheck.NONE;
+        if (orgAuthParameter) {
+            orgCheck = OrgCheck.PARAMETER;
+        } else if (method.hasMethodAnnotation(OrgAuthorization.class)) {
+            orgCheck = OrgCheck.RETURN_VALUE;
+        }
+        return new MethodCheck(orgCheck, parameterChecks);
+    }
+
+    private static String resolveName(MethodParameter parameter, String name, String value) {
+        if (!Strings.isNullOrEmpty(name)) {
+            return name;
+        }
+        if (!Strings.isNullOrEmpty(value)) {
+            return value;
+        }
+        MethodParameter copy = new MethodParameter(parameter);
+        copy.initParameterNameDiscovery(parameterNameDiscoverer);
+        return copy.getParameterName();
+    }
+
+    private static List<PathPattern> parsePatterns(String[] patterns) {
+        if (patterns == null) {
+            return Collections.emptyList();
+        }
+        PathPatternParser parser = new PathPatternParser();
+        return Arrays.stream(patterns).map(parser::parse).collect(Collectors.toList());
+    }
+
+    /**
+     * Organization checks of handler method
+     */
+    private static class MethodCheck {
+
+        private final OrgCheck orgCheck;
+
+        private final List<ParameterCheck> parameterChecks;
+
+        private MethodCheck(OrgCheck orgCheck, List<ParameterCheck> parameterChecks) {
+            this.orgCheck = orgCheck;
+            this.parameterChecks = parameterChecks;
+        }
+    }
+
+    /**
+     * Organization check of path variable or request parameter
+     */
+    private static class ParameterCheck {
+
+        private final MethodParameter parameter;
+
+        private final String name;
+
+        private final boolean pathVariable;
+
+        private final OrgPermission orgPrmAnnotation;
+
+        private final boolean orgAuthAnnotated;
+
+        private ParameterCheck(MethodParameter parameter, String name, boolean pathVariable, OrgPermission orgPrmAnnotation,
+                               boolean orgAuthAnnotated) {
+            this.parameter = parameter;
+            this.name = name;
+            this.pathVariable = pathVariable;
+            this.orgPrmAnnotation = orgPrmAnnotation;
+            this.orgAuthAnnotated = orgAuthAnnotated;
+        }
+
+        private List<String> getValues(ServerWebExchange exchange) {
+            if (!pathVariable) {
+                return exchange.getRequest().getQueryParams().get(name);
+            }
+            Map<String, String> variables = exchange.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            String value = variables == null ? null : variables.get(name);
+            return value == null ? null : Collections.singletonList(value);
+        }
+    }
+
+    /**
+     * Where organization based authorization is deferred to
+     */
+    private enum OrgCheck {
+        /**
+         * Not organization based, checked in filter
+         */
+        NONE,
+        /**
+         * Deferred to path variable, request parameter or request body checks
+         */
+        PARAMETER,
+        /**
+         * Deferred to response body check
+         */
+        RETURN_VALUE
+    }
+}
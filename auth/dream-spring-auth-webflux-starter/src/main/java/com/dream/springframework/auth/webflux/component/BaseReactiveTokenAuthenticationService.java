@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.webflux.component;
+
+import com.dream.springframework.auth.token.exception.TokenException;
+import com.dream.springframework.auth.token.exception.TokenExpiredException;
+import com.dream.springframework.auth.token.model.TokenAuthUser;
+import com.dream.springframework.auth.webflux.service.ReactiveAuthenticationService;
+import com.dream.springframework.base.exception.*;
+import com.google.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive token based user authentication service.
+ * <p>
+ * HTTP Authorization header used for conveying the Bearer Token.
+ * Example:
+ * Authorization: Bearer xxxxxx
+ *
+ * @author DreamJM
+ */
+public abstract class BaseReactiveTokenAuthenticationService<T extends TokenAuthUser> implements ReactiveAuthenticationService<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BaseReactiveTokenAuthenticationService.class);
+
+    public static final String HEADER_AUTH = HttpHeaders.AUTHORIZATION;
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Mono<T> authenticate(ServerWebExchange exchange) {
+        String token = exchange.getRequest().getHeaders().getFirst(HEADER_AUTH);
+        if (Strings.isNullOrEmpty(token)) {
+            return Mono.error(new UnauthorizedException(BaseErrorCode.AUTH_MISSING));
+        }
+        if (!token.startsWith(BEARER_PREFIX)) {
+            return Mono.error(new UnauthorizedException(BaseErrorCode.AUTH_FORMAT_ERROR));
+        }
+        return Mono.defer(() -> parseToken(token.substring(BEARER_PREFIX.length()).trim()))
+                .switchIfEmpty(Mono.error(() -> new UnauthorizedException(BaseErrorCode.AUTH_FAILURE)))
+                .onErrorMap(this::translateException);
+    }
+
+    private Throwable translateException(Throwable ex) {
+        if (ex instanceof TokenExpiredException) {
+            return new UnauthorizedException(BaseErrorCode.AUTH_EXPIRED, ex);
+        } else if (ex instanceof TokenException) {
+            return new ForbiddenException(BaseErrorCode.TOKEN_CHECK_ERROR, ex);
+        } else if (ex instanceof RequestException || ex instanceof InternalServerException) {
+            return ex;
+        }
+        logger.error("Unexpected exception occurred!", ex);
+        return new UnauthorizedException(BaseErrorCode.AUTH_FAILURE, ex);
+    }
+
+    /**
+     * Parses token and Gets the authenticated user information
+     * <p>
+     * {@link TokenException}, {@link TokenExpiredException} and other {@link RequestException} should be signaled by error.
+     *
+     * @param token authentication token
+     * @return user session information for authenticated user
+     */
+    protected abstract Mono<T> parseToken(String token);
+}
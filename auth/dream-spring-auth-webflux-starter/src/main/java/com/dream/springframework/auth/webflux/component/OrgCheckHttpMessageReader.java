@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.webflux.component;
+
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.UnauthorizedException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request body reader checking organization resource permission and organization based authorities and roles after decoded
+ * <p>
+ * Reactive edition of the servlet request body advice, decorates the JSON reader and only handles organization checkable types.
+ *
+ * @author DreamJM
+ */
+public class OrgCheckHttpMessageReader implements HttpMessageReader<Object> {
+
+    private HttpMessageReader<Object> delegate;
+
+    private ReactiveOrgCheckService orgCheckService;
+
+    /**
+     * @param delegate        decorated request body reader
+     * @param orgCheckService organization checking service
+     */
+    public OrgCheckHttpMessageReader(HttpMessageReader<Object> delegate, ReactiveOrgCheckService orgCheckService) {
+        this.delegate = delegate;
+        this.orgCheckService = orgCheckService;
+    }
+
+    @Override
+    public List<MediaType> getReadableMediaTypes() {
+        return delegate.getReadableMediaTypes();
+    }
+
+    @Override
+    public boolean canRead(ResolvableType elementType, MediaType mediaType) {
+        return delegate.canRead(elementType, mediaType) && orgCheckService.supportsType(elementType);
+    }
+
+    @Override
+    public Flux<Object> read(ResolvableType elementType, ReactiveHttpInputMessage message, Map<String, Object> hints) {
+        return delegate.read(elementType, message, hints);
+    }
+
+    @Override
+    public Mono<Object> readMono(ResolvableType elementType, ReactiveHttpInputMessage message, Map<String, Object> hints) {
+        return delegate.readMono(elementType, message, hints);
+    }
+
+    @Override
+    public Flux<Object> read(ResolvableType actualType, ResolvableType elementType, ServerHttpRequest request,
+                             ServerHttpResponse response, Map<String, Object> hints) {
+        Flux<Object> body = delegate.read(actualType, elementType, request, response, hints);
+        MethodParameter parameter = getCheckedParameter(actualType);
+        if (parameter == null) {
+            return body;
+        }
+        return body.concatMap(item -> check(item, parameter));
+    }
+
+    @Override
+    public Mono<Object> readMono(ResolvableType actualType, ResolvableType elementType, ServerHttpRequest request,
+                                 ServerHttpResponse response, Map<String, Object> hints) {
+        Mono<Object> body = delegate.readMono(actualType, elementType, request, response, hints);
+        MethodParameter parameter = getCheckedParameter(actualType);
+        if (parameter == null) {
+            return body;
+        }
+        return body.flatMap(item -> check(item, parameter));
+    }
+
+    private Mono<Object> check(Object item, MethodParameter parameter) {
+        // fails closed like the servlet edition when there is no authenticated user, e.g. of AuthIgnore handlers
+        return AuthenticationWebFilter.currentUser()
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new UnauthorizedException(BaseErrorCode.AUTH_FAILURE))))
+                .flatMap(authUser -> orgCheckService.check(item, parameter, authUser, false)).thenReturn(item);
+    }
+
+    private MethodParameter getCheckedParameter(ResolvableType actualType) {
+        Object source = actualType.getSource();
+        if (source instanceof MethodParameter && orgCheckService.supports((MethodParameter) source, false)) {
+            return (MethodParameter) source;
+        }
+        return null;
+    }
+}
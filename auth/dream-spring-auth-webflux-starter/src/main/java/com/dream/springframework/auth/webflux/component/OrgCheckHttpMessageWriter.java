@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.webflux.component;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response body writer checking organization resource permission and organization based authorities and roles before encoded
+ * <p>
+ * Reactive edition of the servlet response body advice, decorates the JSON writer and only handles organization checkable types.
+ * Single value publisher stays {@link Mono} so that it is not encoded as an array.
+ *
+ * @author DreamJM
+ */
+public class OrgCheckHttpMessageWriter implements HttpMessageWriter<Object> {
+
+    private HttpMessageWriter<Object> delegate;
+
+    private ReactiveOrgCheckService orgCheckService;
+
+    /**
+     * @param delegate        decorated response body writer
+     * @param orgCheckService organization checking service
+     */
+    public OrgCheckHttpMessageWriter(HttpMessageWriter<Object> delegate, ReactiveOrgCheckService orgCheckService) {
+        this.delegate = delegate;
+        this.orgCheckService = orgCheckService;
+    }
+
+    @Override
+    public List<MediaType> getWritableMediaTypes() {
+        return delegate.getWritableMediaTypes();
+    }
+
+    @Override
+    public boolean canWrite(ResolvableType elementType, MediaType mediaType) {
+        return delegate.canWrite(elementType, mediaType) && orgCheckService.supportsType(elementType);
+    }
+
+    @Override
+    public Mono<Void> write(Publisher<?> inputStream, ResolvableType elementType, MediaType mediaType, ReactiveHttpOutputMessage message,
+                            Map<String, Object> hints) {
+        return delegate.write(inputStream, elementType, mediaType, message, hints);
+    }
+
+    @Override
+    public Mono<Void> write(Publisher<?> inputStream, ResolvableType actualType, ResolvableType elementType, MediaType mediaType,
+                            ServerHttpRequest request, ServerHttpResponse response, Map<String, Object> hints) {
+        Object source = actualType.getSource();
+        if (!(source instanceof MethodParameter) || !orgCheckService.supports((MethodParameter) source, true)) {
+            return delegate.write(inputStream, actualType, elementType, mediaType, request, response, hints);
+        }
+        MethodParameter returnType = (MethodParameter) source;
+        Publisher<?> checked;
+        if (inputStream instanceof Mono) {
+            checked = Mono.from(inputStream).flatMap(item -> AuthenticationWebFilter.currentUser()
+                    .flatMap(authUser -> orgCheckService.check(item, returnType, authUser, true)).thenReturn(item));
+        } else {
+            checked = Flux.from(inputStream).concatMap(item -> AuthenticationWebFilter.currentUser()
+                    .flatMap(authUser -> orgCheckService.check(item, returnType, authUser, true)).thenReturn(item));
+        }
+        return delegate.write(checked, actualType, elementType, mediaType, request, response, hints);
+    }
+}
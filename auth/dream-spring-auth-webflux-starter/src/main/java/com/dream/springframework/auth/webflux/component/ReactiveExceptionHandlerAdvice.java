@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.webflux.component;
+
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.InternalServerException;
+import com.dream.springframework.base.exception.RequestException;
+import com.dream.springframework.base.exception.RuntimeRequestException;
+import com.dream.springframework.base.model.Result;
+import com.dream.springframework.base.util.MessageUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+/**
+ * Global Exception handler for reactive web application
+ *
+ * @author DreamJM
+ */
+@ControllerAdvice
+@ResponseBody
+public class ReactiveExceptionHandlerAdvice {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandlerAdvice.class);
+
+    @ExceptionHandler(RequestException.class)
+    public Result<Object> handleRequestException(RequestException ex, ServerHttpResponse response) {
+        response.setStatusCode(ex.getStatus());
+        logger.warn("Error Returned with Code {} and Message {}", ex.getCode(), ex.getMessage());
+        Result<Object> result = new Result<>(ex.getCode(), ex.getMessage());
+        if (ex.getData() != null) {
+            result.setData(ex.getData());
+        }
+        return result;
+    }
+
+    @ExceptionHandler(RuntimeRequestException.class)
+    public Result<Object> handleRuntimeRequestException(RuntimeRequestException ex, ServerHttpResponse response) {
+        return handleRequestException((RequestException) ex.getCause(), response);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public Result<Object> handleBindException(WebExchangeBindException ex, ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.BAD_REQUEST);
+        FieldError error = ex.getBindingResult().getFieldError();
+        String errorMsg = null;
+        if (error != null && error.getDefaultMessage() != null) {
+            errorMsg = MessageUtils.get(error.getDefaultMessage());
+        }
+        return new Result<>(BaseErrorCode.PARAM_INVALID, errorMsg);
+    }
+
+    @ExceptionHandler(InternalServerException.class)
+    public Result<Object> handleServerException(InternalServerException ex, ServerHttpResponse response) {
+        response.setStatusCode(ex.getStatus());
+        logger.warn("Internal Server Returned with Code {} and Message {}", ex.getCode(), ex.getMessage());
+        return new Result<>(ex.getCode(), ex.getMessage());
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.webflux.component;
+
+import com.dream.springframework.auth.base.BaseAuthUser;
+import com.dream.springframework.auth.base.annotation.*;
+import com.dream.springframework.auth.base.model.CheckedOrg;
+import com.dream.springframework.auth.base.model.CheckedOrgList;
+import com.dream.springframework.auth.base.model.CheckedOrgs;
+import com.dream.springframework.auth.base.service.AuthorizationService;
+import com.dream.springframework.auth.webflux.service.ReactiveOrgPermissionService;
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.ForbiddenException;
+import com.dream.springframework.base.exception.RequestException;
+import com.dream.springframework.base.util.StreamUtils;
+import com.google.common.base.Strings;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reactive service for organization resource permission and organization based authorities and roles checking
+ * <p>
+ * Reactive edition of the servlet body advices, permission checks are non-blocking and chained on the checked value. The blocking
+ * {@link AuthorizationService} is called on the given scheduler, never on the event loop.
+ *
+ * @author DreamJM
+ */
+public class ReactiveOrgCheckService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrgCheckService.class);
+
+    private ReactiveOrgPermissionService<?> permissionService;
+
+    private AuthorizationService authService;
+
+    private Scheduler scheduler;
+
+    /**
+     * @param permissionService organization resource permission checking service, null if absent
+     * @param authService       authorization service for user authorities and roles
+     * @param scheduler         scheduler to run blocking authorization on
+     */
+    public ReactiveOrgCheckService(ReactiveOrgPermissionService<?> permissionService, AuthorizationService authService,
+                                   Scheduler scheduler) {
+        this.permissionService = permissionService;
+        this.authService = authService;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param type body element type
+     * @return whether the type (or its array/collection element type) is organization checkable
+     */
+    public boolean supportsType(ResolvableType type) {
+        if (type.isArray()) {
+            type = type.getComponentType();
+        } else if (Collection.class.isAssignableFrom(type.toClass())) {
+            type = type.asCollection().getGeneric(0);
+        }
+        Class<?> targetClass = type.toClass();
+        return CheckedOrg.class.isAssignableFrom(targetClass) || CheckedOrgList.class.isAssignableFrom(targetClass) || CheckedOrgs.class
+                .isAssignableFrom(targetClass);
+    }
+
+    /**
+     * @param parameter   method parameter or return type
+     * @param returnValue whether checking return value
+     * @return whether organization checks are annotated
+     */
+    public boolean supports(MethodParameter parameter, boolean returnValue) {
+        if (parameter.getMethod() == null || parameter.getMethodAnnotation(AuthIgnore.class) != null) {
+            return false;
+        }
+        if (orgPermissionAnnotated(parameter, returnValue) == null && !orgAuthorizationAnnotated(parameter, returnValue)) {
+            return false;
+        }
+        ResolvableType type = ResolvableType.forMethodParameter(parameter);
+        if (Publisher.class.isAssignableFrom(type.toClass())) {
+            type = type.getGeneric(0);
+        }
+        return supportsType(type);
+    }
+
+    /**
+     * Checks request or response body
+     *
+     * @param body        request or response body
+     * @param parameter   method parameter or return type
+     * @param authUser    authenticated user, skipped if null
+     * @param returnValue whether checking return value
+     * @return completion, or error signal of {@link RequestException} if check failed
+     */
+    public Mono<Void> check(Object body, MethodParameter parameter, BaseAuthUser authUser, boolean returnValue) {
+        if (body == null || authUser == null || parameter.getMethod() == null) {
+            return Mono.empty();
+        }
+        OrgPermission orgPrmAnnotation = orgPermissionAnnotated(parameter, returnValue);
+        boolean orgAuthAnnotated = orgAuthorizationAnnotated(parameter, returnValue);
+        if (orgPrmAnnotation == null && !orgAuthAnnotated) {
+            return Mono.empty();
+        }
+        RequiredAuthorities authAnnotation = parameter.getMethodAnnotation(RequiredAuthorities.class);
+        RequiredRoles roleAnnotation = parameter.getMethodAnnotation(RequiredRoles.class);
+        return checkAuthAndPermission(body, new Context(authUser, authAnnotation, roleAnnotation, orgPrmAnnotation, orgAuthAnnotated));
+    }
+
+    /**
+     * Checks organization identities from path variable or request parameter
+     *
+     * @param orgIds           organization identities, null or empty if absent
+     * @param authUser         authenticated user
+     * @param parameter        method parameter
+     * @param orgPrmAnnotation organization permission annotation, null if absent
+     * @param orgAuthAnnotated whether organization authorization annotated
+     * @return completion, or error signal of {@link RequestException} if check failed
+     */
+    public Mono<Void> checkOrgIds(List<String> orgIds, BaseAuthUser authUser, MethodParameter parameter, OrgPermission orgPrmAnnotation,
+                                  boolean orgAuthAnnotated) {
+        RequiredAuthorities authAnnotation = parameter.getMethodAnnotation(RequiredAuthorities.class);
+        RequiredRoles roleAnnotation = parameter.getMethodAnnotation(RequiredRoles.class);
+        Mono<Void> authCheck = Mono.empty();
+        if (orgAuthAnnotated) {
+            authCheck = orgIds == null || orgIds.isEmpty() ? authorize(authUser, null, authAnnotation, roleAnnotation) : Flux
+                    .fromIterable(orgIds).concatMap(orgId -> authorize(authUser, orgId, authAnnotation, roleAnnotation)).then();
+        }
+        if (orgPrmAnnotation == null) {
+            return authCheck;
+        }
+        if (permissionService == null) {
+            logger.warn("@OrgPermission Annotation used, but no OrgPermissionService found");
+            return authCheck;
+        }
+        Mono<Void> permissionCheck;
+        if (orgIds == null || orgIds.isEmpty() || (orgIds.size() == 1 && Strings.isNullOrEmpty(orgIds.get(0)))) {
+            if (!orgPrmAnnotation.skipEmpty()) {
+                return authCheck.then(Mono.error(new ForbiddenException(BaseErrorCode.EMPTY_ORG_FORBIDDEN)));
+            }
+            permissionCheck = permissionService.checkOrgResourcePermission(authUser.getOrgIds(), orgIds == null || orgIds.isEmpty() ? null :
+                    orgIds.get(0)).then();
+        } else if (orgIds.size() == 1) {
+            permissionCheck = permissionService.checkOrgResourcePermission(authUser.getOrgIds(), orgIds.get(0)).then();
+        } else {
+            permissionCheck = permissionService.checkOrgsResourcePermission(authUser.getOrgIds(), orgIds).then();
+        }
+        return authCheck.then(permissionCheck);
+    }
+
+    private Mono<Void> checkAuthAndPermission(Object body, Context context) {
+        if (body instanceof CheckedOrg) {
+            return checkOrg((CheckedOrg<?>) body, context);
+        } else if (body instanceof CheckedOrgs) {
+            return checkOrgs((CheckedOrgs<?>) body, context);
+        } else if (body instanceof CheckedOrgList) {
+            return checkOrgList((CheckedOrgList<?>) body, context);
+        } else if (body.getClass().isArray()) {
+            Object[] items = new Object[Array.getLength(body)];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = Array.get(body, i);
+            }
+            return Flux.fromIterable(Arrays.asList(items)).concatMap(item -> checkAuthAndPermission(item, context)).then();
+        } else if (body instanceof Collection) {
+            return Flux.fromIterable((Collection<?>) body).concatMap(item -> checkAuthAndPermission(item, context)).then();
+        }
+        return Mono.empty();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Mono<Void> checkOrg(CheckedOrg orgCheck, Context context) {
+        Mono<Void> permissionCheck = Mono.empty();
+        if (context.orgPrmAnnotation != null) {
+            if (permissionService == null) {
+                logger.warn("@OrgPermission Annotation used, but no OrgPermissionService found");
+            } else {
+                if (Strings.isNullOrEmpty(orgCheck.getCheckOrgId()) && !context.orgPrmAnnotation.skipEmpty()) {
+                    return Mono.error(new ForbiddenException(BaseErrorCode.EMPTY_ORG_FORBIDDEN));
+                }
+                permissionCheck = permissionService.checkOrgResourcePermission(context.authUser.getOrgIds(), orgCheck.getCheckOrgId())
+                        .doOnNext(orgCheck::setCheckedOrg).then();
+            }
+        }
+        if (context.orgAuthAnnotated) {
+            return permissionCheck.then(authorize(context.authUser, orgCheck.getCheckOrgId(), context.authAnnotation,
+                    context.roleAnnotation));
+        }
+        return permissionCheck;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Mono<Void> checkOrgs(CheckedOrgs orgsCheck, Context context) {
+        Collection<String> checkOrgIds = orgsCheck.getCheckOrgIds();
+        Mono<Void> permissionCheck = Mono.empty();
+        if (context.orgPrmAnnotation != null && checkOrgIds != null) {
+            if (permissionService == null) {
+                logger.warn("@OrgPermission Annotation used, but no OrgPermissionService found");
+            } else {
+                if (StreamUtils.isNullOrEmpty(checkOrgIds) && !context.orgPrmAnnotation.skipEmpty()) {
+                    return Mono.error(new ForbiddenException(BaseErrorCode.EMPTY_ORG_FORBIDDEN));
+                }
+                permissionCheck = permissionService.checkOrgsResourcePermission(context.authUser.getOrgIds(), checkOrgIds)
+                        .doOnNext(checkedOrgs -> orgsCheck.setCheckedOrgs((List) checkedOrgs)).then();
+            }
+        }
+        if (!context.orgAuthAnnotated || (context.authAnnotation == null && context.roleAnnotation == null)) {
+            return permissionCheck;
+        }
+        if (checkOrgIds == null || checkOrgIds.isEmpty()) {
+            return permissionCheck.then(authorize(context.authUser, null, context.authAnnotation, context.roleAnnotation));
+        }
+        return permissionCheck.thenMany(Flux.fromIterable(checkOrgIds))
+                .concatMap(checkOrgId -> authorize(context.authUser, checkOrgId, context.authAnnotation, context.roleAnnotation)).then();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Mono<Void> checkOrgList(CheckedOrgList orgCheckList, Context context) {
+        Collection<CheckedOrg> checkOrgs = orgCheckList.getCheckOrgs();
+        Mono<Void> permissionCheck = Mono.empty();
+        if (context.orgPrmAnnotation != null) {
+            if (permissionService == null) {
+                logger.warn("@OrgPermission Annotation used, but no OrgPermissionService found");
+            } else {
+                if (StreamUtils.isNullOrEmpty(checkOrgs) && !context.orgPrmAnnotation.skipEmpty()) {
+                    return Mono.error(new ForbiddenException(BaseErrorCode.EMPTY_ORG_FORBIDDEN));
+                }
+                if (checkOrgs != null) {
+                    permissionCheck = Flux.fromIterable(checkOrgs).concatMap(orgCheck -> permissionService
+                            .checkOrgResourcePermission(context.authUser.getOrgIds(), orgCheck.getCheckOrgId())
+                            .doOnNext(orgCheck::setCheckedOrg)).then();
+                }
+            }
+        }
+        if (!context.orgAuthAnnotated || (context.authAnnotation == null && context.roleAnnotation == null)) {
+            return permissionCheck;
+        }
+        if (checkOrgs == null || checkOrgs.isEmpty()) {
+            return permissionCheck.then(authorize(context.authUser, null, context.authAnnotation, context.roleAnnotation));
+        }
+        return permissionCheck.thenMany(Flux.fromIterable(checkOrgs)).concatMap(orgCheck -> authorize(context.authUser,
+                orgCheck.getCheckOrgId(), context.authAnnotation, context.roleAnnotation)).then();
+    }
+
+    /**
+     * Authorizes authorities and roles of the organization on the blocking scheduler
+     *
+     * @param authUser       authenticated user
+     * @param orgId          organization identity, null for common authorities and roles
+     * @param authAnnotation required authorities, null if absent
+     * @param roleAnnotation required roles, null if absent
+     * @return completion, or error signal of {@link RequestException} if authorization failed
+     */
+    public Mono<Void> authorize(BaseAuthUser authUser, String orgId, RequiredAuthorities authAnnotation, RequiredRoles roleAnnotation) {
+        if (authAnnotation == null && roleAnnotation == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> {
+            authService.authorize(authUser, orgId, authAnnotation, roleAnnotation);
+            return Boolean.TRUE;
+        }).subscribeOn(scheduler).then();
+    }
+
+    /**
+     * Pre-authorizes authorities and roles over all organizations on the blocking scheduler
+     *
+     * @param authUser       authenticated user
+     * @param authAnnotation required authorities, null if absent
+     * @param roleAnnotation required roles, null if absent
+     * @return completion, or error signal of {@link RequestException} if authorization failed
+     */
+    public Mono<Void> preAuthorize(BaseAuthUser authUser, RequiredAuthorities authAnnotation, RequiredRoles roleAnnotation) {
+        if (authAnnotation == null && roleAnnotation == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> {
+            authService.preAuthorize(authUser, authAnnotation, roleAnnotation);
+            return Boolean.TRUE;
+        }).subscribeOn(scheduler).then();
+    }
+
+    private boolean orgAuthorizationAnnotated(MethodParameter parameter, boolean returnValue) {
+        return returnValue ? parameter.hasMethodAnnotation(OrgAuthorization.class) : parameter
+                .hasParameterAnnotation(OrgAuthorization.class);
+    }
+
+    private OrgPermission orgPermissionAnnotated(MethodParameter parameter, boolean returnValue) {
+        return returnValue ? parameter.getMethodAnnotation(OrgPermission.class) : parameter.getParameterAnnotation(OrgPermission.class);
+    }
+
+    /**
+     * Checking context of one request or response body
+     */
+    private static class Context {
+
+        private final BaseAuthUser authUser;
+
+        private final RequiredAuthorities authAnnotation;
+
+        private final RequiredRoles roleAnnotation;
+
+        private final OrgPermission orgPrmAnnotation;
+
+        private final boolean orgAuthAnnotated;
+
+        private Context(BaseAuthUser authUser, RequiredAuthorities authAnnotation, RequiredRoles roleAnnotation,
+                        OrgPermission orgPrmAnnotation, boolean orgAuthAnnotated) {
+            this.authUser = authUser;
+            this.authAnnotation = authAnnotation;
+            this.roleAnnotation = roleAnnotation;
+            this.orgPrmAnnotation = orgPrmAnnotation;
+            this.orgAuthAnnotated = orgAuthAnnotated;
+        }
+    }
+}
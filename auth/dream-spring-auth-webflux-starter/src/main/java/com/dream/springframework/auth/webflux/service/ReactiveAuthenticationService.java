@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.webflux.service;
+
+import com.dream.springframework.auth.base.BaseAuthUser;
+import com.dream.springframework.base.exception.RequestException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive user authentication service.
+ * <p>
+ * Parses server exchange and composes authenticated user information without blocking the event loop
+ *
+ * @author DreamJM
+ */
+public interface ReactiveAuthenticationService<T extends BaseAuthUser> {
+
+    /**
+     * Parses server exchange and composes authenticated user information
+     *
+     * @param exchange server exchange
+     * @return authenticated user information, or error signal of {@link RequestException} if authentication failed
+     */
+    Mono<T> authenticate(ServerWebExchange exchange);
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.auth.webflux.service;
+
+import com.dream.springframework.auth.base.model.CheckedOrg;
+import com.dream.springframework.auth.base.service.OrgPermissionService;
+import com.dream.springframework.base.exception.RequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reactive service for organization resource permission checking
+ * <p>
+ * If only a blocking {@link OrgPermissionService} is provided, it is adapted by {@link #fromBlocking(OrgPermissionService, Scheduler)}.
+ *
+ * @param <T> check passed organization model type (should conform to the generic type defined in {@link CheckedOrg})
+ * @author DreamJM
+ */
+public interface ReactiveOrgPermissionService<T> {
+
+    /**
+     * Organization with identity to check
+     *
+     * @param orgIds     authorized organization identities
+     * @param checkOrgId organization id to be checked
+     * @return check passed organization, or error signal of {@link RequestException} if permission denied
+     */
+    Mono<T> checkOrgResourcePermission(Set<String> orgIds, String checkOrgId);
+
+    /**
+     * Organization list with identities to check
+     *
+     * @param orgIds      authorized organization identities
+     * @param checkOrgIds organization identities to be checked
+     * @return check passed organizations, or error signal of {@link RequestException} if permission denied
+     */
+    default Mono<List<T>> checkOrgsResourcePermission(Set<String> orgIds, Collection<String> checkOrgIds) {
+        if (checkOrgIds == null) {
+            return Flux.<T>empty().collectList();
+        }
+        return Flux.fromIterable(checkOrgIds).concatMap(checkOrgId -> checkOrgResourcePermission(orgIds, checkOrgId)).collectList();
+    }
+
+    /**
+     * Adapts blocking permission checking service, checks are subscribed on the given scheduler
+     *
+     * @param service   blocking organization resource permission checking service
+     * @param scheduler scheduler for blocking checks
+     * @param <T>       check passed organization model type
+     * @return reactive organization resource permission checking service
+     */
+    static <T> ReactiveOrgPermissionService<T> fromBlocking(OrgPermissionService<T> service, Scheduler scheduler) {
+        return new ReactiveOrgPermissionService<T>() {
+
+            @Override
+            public Mono<T> checkOrgResourcePermission(Set<String> orgIds, String checkOrgId) {
+                return Mono.fromCallable(() -> service.checkOrgResourcePermission(orgIds, checkOrgId)).subscribeOn(scheduler);
+            }
+
+            @Override
+            public Mono<List<T>> checkOrgsResourcePermission(Set<String> orgIds, Collection<String> checkOrgIds) {
+                return Mono.fromCallable(() -> service.checkOrgsResourcePermission(orgIds, checkOrgIds)).subscribeOn(scheduler);
+            }
+        };
+    }
+
+}
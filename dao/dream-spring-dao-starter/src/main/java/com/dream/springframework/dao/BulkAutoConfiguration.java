@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao;
+
+import com.dream.springframework.dao.bulk.BulkWriter;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Bulk write auto configuration
+ *
+ * @author DreamJM
+ */
+@Configuration
+@ConditionalOnSingleCandidate(PlatformTransactionManager.class)
+@AutoConfigureAfter({MybatisAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class})
+public class BulkAutoConfiguration {
+
+    /**
+     * @param sqlSessionFactory  MyBatis session factory
+     * @param transactionManager transaction manager
+     * @param properties         dao properties
+     * @return batch executor based bulk writer
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnSingleCandidate(SqlSessionFactory.class)
+    public BulkWriter bulkWriter(SqlSessionFactory sqlSessionFactory, PlatformTransactionManager transactionManager,
+                                 DreamDaoProperties properties) {
+        return new BulkWriter(sqlSessionFactory, transactionManager, properties.getBulk().getChunkSize());
+    }
+}
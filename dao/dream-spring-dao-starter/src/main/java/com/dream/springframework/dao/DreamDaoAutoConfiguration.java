@@ -16,15 +16,27 @@
 
 package com.dream.springframework.dao;
 
+import com.dream.springframework.dao.cache.EntityCacheAspect;
+import com.dream.springframework.dao.cache.EntityCacheBroadcaster;
+import com.dream.springframework.dao.cache.EntityCacheManager;
+import com.dream.springframework.dao.cache.LocalEntityCacheBroadcaster;
+import com.dream.springframework.dao.cache.ModifiesTablesAspect;
+import com.dream.springframework.dao.cache.PageResultCache;
+import com.dream.springframework.dao.cache.TableTagInterceptor;
 import com.dream.springframework.dao.exception.DbExceptionHandlerAdvice;
 import com.dream.springframework.dao.query.QueryConditionAspect;
+import com.dream.springframework.dao.query.StatementTimeoutInterceptor;
+import com.dream.springframework.dao.scope.OrgScopeProvider;
 import com.dream.springframework.dao.util.PageUtil;
 import com.github.pagehelper.autoconfigure.PageHelperAutoConfiguration;
 import com.github.pagehelper.autoconfigure.PageHelperProperties;
 import com.google.common.base.Strings;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,7 +51,10 @@ import org.springframework.context.annotation.Configuration;
 @EnableConfigurationProperties(DreamDaoProperties.class)
 public class DreamDaoAutoConfiguration {
 
+    private final DreamDaoProperties properties;
+
     public DreamDaoAutoConfiguration(DreamDaoProperties properties, PageHelperProperties phProperties) {
+        this.properties = properties;
         PageUtil.setDefaultPageSize(properties.getDefaultPageSize());
         if (Strings.isNullOrEmpty(phProperties.getReasonable())) {
             // makes default page helper reasonable if not set
@@ -52,12 +67,90 @@ public class DreamDaoAutoConfiguration {
      *
      * <p>Supports {@link com.dream.springframework.dao.annotation.QueryCondition}<br>
      *
+     * @param caches    ObjectProvider for paged results cache
+     * @param providers ObjectProvider for organization scope provider
      * @return query condition aspect
      */
     @Bean
     @ConditionalOnClass(Aspect.class)
-    public QueryConditionAspect queryConditionAspect() {
-        return new QueryConditionAspect();
+    public QueryConditionAspect queryConditionAspect(ObjectProvider<PageResultCache> caches,
+                                                     ObjectProvider<OrgScopeProvider> providers) {
+        return new QueryConditionAspect(caches.getIfAvailable(), providers::getIfAvailable,
+                properties.getDefaultQueryTimeout());
+    }
+
+    /**
+     * @return paged results cache of {@link com.dream.springframework.dao.annotation.QueryCondition#cache()} methods
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "dream.dao.result-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public PageResultCache pageResultCache() {
+        DreamDaoProperties.Replica replica = properties.getReplica();
+        return new PageResultCache(properties.getResultCache(), replica.isEnabled() ? replica.getReadYourWritesWindow() : null);
+    }
+
+    /**
+     * @return interceptor recording tables of cached queries
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "dream.dao.result-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TableTagInterceptor tableTagInterceptor() {
+        return new TableTagInterceptor();
+    }
+
+    /**
+     * @param cache paged results cache
+     * @return aspect invalidating cached results of {@link com.dream.springframework.dao.annotation.ModifiesTables} methods
+     */
+    @Bean
+    @ConditionalOnClass(Aspect.class)
+    @ConditionalOnProperty(prefix = "dream.dao.result-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ModifiesTablesAspect modifiesTablesAspect(PageResultCache cache) {
+        return new ModifiesTablesAspect(cache);
+    }
+
+    /**
+     * @return in-JVM entity cache eviction broadcaster
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "dream.dao.entity-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public EntityCacheBroadcaster entityCacheBroadcaster() {
+        return new LocalEntityCacheBroadcaster();
+    }
+
+    /**
+     * @param broadcaster entity cache eviction broadcaster
+     * @return entity caches of {@link com.dream.springframework.dao.annotation.CachedEntity} methods
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "dream.dao.entity-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public EntityCacheManager entityCacheManager(EntityCacheBroadcaster broadcaster) {
+        return new EntityCacheManager(properties.getEntityCache(), broadcaster);
+    }
+
+    /**
+     * @param manager entity cache manager
+     * @return aspect of {@link com.dream.springframework.dao.annotation.CachedEntity} and
+     * {@link com.dream.springframework.dao.annotation.EvictEntity} methods
+     */
+    @Bean
+    @ConditionalOnClass(Aspect.class)
+    @ConditionalOnProperty(prefix = "dream.dao.entity-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public EntityCacheAspect entityCacheAspect(EntityCacheManager manager) {
+        return new EntityCacheAspect(manager);
+    }
+
+    /**
+     * @return interceptor applying query deadlines as statement timeouts and registering statements for cancellation
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public StatementTimeoutInterceptor statementTimeoutInterceptor() {
+        return new StatementTimeoutInterceptor();
     }
 
     /**
@@ -17,6 +17,15 @@
 package com.dream.springframework.dao;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Dream sql dao properties
@@ -31,6 +40,66 @@ public class DreamDaoProperties {
      */
     private int defaultPageSize = 10;
 
+    /**
+     * Default time budget of {@code @QueryCondition} queries whose condition has no timeout, no limit if null
+     */
+    private Duration defaultQueryTimeout;
+
+    /**
+     * Organization scoped row filtering
+     */
+    private OrgScope orgScope = new OrgScope();
+
+    /**
+     * Page total cache of {@link com.dream.springframework.base.model.TotalMode#CACHED} mode
+     */
+    private TotalCache totalCache = new TotalCache();
+
+    /**
+     * Paged results cache of {@link com.dream.springframework.dao.annotation.QueryCondition#cache()} methods
+     */
+    private ResultCache resultCache = new ResultCache();
+
+    /**
+     * Entity cache of {@link com.dream.springframework.dao.annotation.CachedEntity} methods
+     */
+    private EntityCache entityCache = new EntityCache();
+
+    /**
+     * Read replica routing
+     */
+    private Replica replica = new Replica();
+
+    /**
+     * Organization keyed sharding
+     */
+    private Shard shard = new Shard();
+
+    /**
+     * Concurrent count and data queries of paged results
+     */
+    private ParallelCount parallelCount = new ParallelCount();
+
+    /**
+     * Streaming export
+     */
+    private Export export = new Export();
+
+    /**
+     * Bulk write
+     */
+    private Bulk bulk = new Bulk();
+
+    /**
+     * Mapped statement metrics
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * In-process keyword search indexes
+     */
+    private Search search = new Search();
+
     /**
      * @return default page size when request page size is null
      */
@@ -44,4 +113,1324 @@ public class DreamDaoProperties {
     public void setDefaultPageSize(int defaultPageSize) {
         this.defaultPageSize = defaultPageSize;
     }
+
+    /**
+     * @return default time budget of queries whose condition has no timeout
+     */
+    public Duration getDefaultQueryTimeout() {
+        return defaultQueryTimeout;
+    }
+
+    /**
+     * @param defaultQueryTimeout default time budget of queries whose condition has no timeout, no limit if null
+     */
+    public void setDefaultQueryTimeout(Duration defaultQueryTimeout) {
+        this.defaultQueryTimeout = defaultQueryTimeout;
+    }
+
+    /**
+     * @return organization scoped row filtering properties
+     */
+    public OrgScope getOrgScope() {
+        return orgScope;
+    }
+
+    /**
+     * @param orgScope organization scoped row filtering properties
+     */
+    public void setOrgScope(OrgScope orgScope) {
+        this.orgScope = orgScope;
+    }
+
+    /**
+     * @return page total cache properties
+     */
+    public TotalCache getTotalCache() {
+        return totalCache;
+    }
+
+    /**
+     * @param totalCache page total cache properties
+     */
+    public void setTotalCache(TotalCache totalCache) {
+        this.totalCache = totalCache;
+    }
+
+    /**
+     * @return paged results cache properties
+     */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * @param resultCache paged results cache properties
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * @return entity cache properties
+     */
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * @param entityCache entity cache properties
+     */
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * @return read replica routing properties
+     */
+    public Replica getReplica() {
+        return replica;
+    }
+
+    /**
+     * @param replica read replica routing properties
+     */
+    public void setReplica(Replica replica) {
+        this.replica = replica;
+    }
+
+    /**
+     * @return organization keyed sharding properties
+     */
+    public Shard getShard() {
+        return shard;
+    }
+
+    /**
+     * @param shard organization keyed sharding properties
+     */
+    public void setShard(Shard shard) {
+        this.shard = shard;
+    }
+
+    /**
+     * @return concurrent count properties
+     */
+    public ParallelCount getParallelCount() {
+        return parallelCount;
+    }
+
+    /**
+     * @param parallelCount concurrent count properties
+     */
+    public void setParallelCount(ParallelCount parallelCount) {
+        this.parallelCount = parallelCount;
+    }
+
+    /**
+     * @return streaming export properties
+     */
+    public Export getExport() {
+        return export;
+    }
+
+    /**
+     * @param export streaming export properties
+     */
+    public void setExport(Export export) {
+        this.export = export;
+    }
+
+    /**
+     * @return bulk write properties
+     */
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    /**
+     * @param bulk bulk write properties
+     */
+    public void setBulk(Bulk bulk) {
+        this.bulk = bulk;
+    }
+
+    /**
+     * @return mapped statement metrics properties
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics mapped statement metrics properties
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return keyword search indexes properties
+     */
+    public Search getSearch() {
+        return search;
+    }
+
+    /**
+     * @param search keyword search indexes properties
+     */
+    public void setSearch(Search search) {
+        this.search = search;
+    }
+
+    /**
+     * Organization scoped row filtering properties
+     */
+    public static class OrgScope {
+
+        /**
+         * Whether to append organization predicate to {@link com.dream.springframework.dao.annotation.OrgScope} queries
+         */
+        private boolean enabled = true;
+
+        /**
+         * Organization count from which identities are bound as one array parameter ({@code column = ANY(?)}), 0 to always use IN list
+         */
+        private int arrayThreshold = 0;
+
+        /**
+         * SQL type name of array elements
+         */
+        private String arrayType = "varchar";
+
+        /**
+         * Whether to pad IN list to the next power of two, so that databases reuse a few prepared statement plans
+         */
+        private boolean inClausePadding = true;
+
+        /**
+         * @return whether to append organization predicate
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled whether to append organization predicate
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return organization count from which identities are bound as array
+         */
+        public int getArrayThreshold() {
+            return arrayThreshold;
+        }
+
+        /**
+         * @param arrayThreshold organization count from which identities are bound as array, 0 to disable
+         */
+        public void setArrayThreshold(int arrayThreshold) {
+            this.arrayThreshold = arrayThreshold;
+        }
+
+        /**
+         * @return SQL type name of array elements
+         */
+        public String getArrayType() {
+            return arrayType;
+        }
+
+        /**
+         * @param arrayType SQL type name of array elements
+         */
+        public void setArrayType(String arrayType) {
+            this.arrayType = arrayType;
+        }
+
+        /**
+         * @return whether to pad IN list to the next power of two
+         */
+        public boolean isInClausePadding() {
+            return inClausePadding;
+        }
+
+        /**
+         * @param inClausePadding whether to pad IN list to the next power of two
+         */
+        public void setInClausePadding(boolean inClausePadding) {
+            this.inClausePadding = inClausePadding;
+        }
+    }
+
+    /**
+     * Page total cache properties
+     */
+    public static class TotalCache {
+
+        /**
+         * Maximum cached totals
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * Time to live of cached totals
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(1);
+
+        /**
+         * @return maximum cached totals
+         */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        /**
+         * @param maximumSize maximum cached totals
+         */
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        /**
+         * @return time to live of cached totals
+         */
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        /**
+         * @param expireAfterWrite time to live of cached totals
+         */
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+
+    /**
+     * Paged results cache properties
+     */
+    public static class ResultCache {
+
+        /**
+         * Whether to cache results of methods annotated with {@code @QueryCondition(cache = true)}
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum cached pages
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * Time to live of cached pages
+         */
+        private Duration expireAfterWrite = Duration.ofSeconds(30);
+
+        /**
+         * @return whether to cache paged results
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled whether to cache paged results
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return maximum cached pages
+         */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        /**
+         * @param maximumSize maximum cached pages
+         */
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        /**
+         * @return time to live of cached pages
+         */
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        /**
+         * @param expireAfterWrite time to live of cached pages
+         */
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+
+    /**
+     * Entity cache properties, applied to every cache name
+     */
+    public static class EntityCache {
+
+        /**
+         * Whether to cache results of methods annotated with {@code @CachedEntity}
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum cached entities
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * Time to live of cached entities
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        /**
+         * Maximum cached absent keys
+         */
+        private long negativeMaximumSize = 10000;
+
+        /**
+         * Time to live of cached absent keys
+         */
+        private Duration negativeExpireAfterWrite = Duration.ofSeconds(30);
+
+        /**
+         * @return whether to cache entities
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled whether to cache entities
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return maximum cached entities
+         */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        /**
+         * @param maximumSize maximum cached entities
+         */
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        /**
+         * @return time to live of cached entities
+         */
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        /**
+         * @param expireAfterWrite time to live of cached entities
+         */
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        /**
+         * @return maximum cached absent keys
+         */
+        public long getNegativeMaximumSize() {
+            return negativeMaximumSize;
+        }
+
+        /**
+         * @param negativeMaximumSize maximum cached absent keys
+         */
+        public void setNegativeMaximumSize(long negativeMaximumSize) {
+            this.negativeMaximumSize = negativeMaximumSize;
+        }
+
+        /**
+         * @return time to live of cached absent keys
+         */
+        public Duration getNegativeExpireAfterWrite() {
+            return negativeExpireAfterWrite;
+        }
+
+        /**
+         * @param negativeExpireAfterWrite time to live of cached absent keys
+         */
+        public void setNegativeExpireAfterWrite(Duration negativeExpireAfterWrite) {
+            this.negativeExpireAfterWrite = negativeExpireAfterWrite;
+        }
+    }
+
+    /**
+     * Read replica routing properties
+     */
+    public static class Replica {
+
+        /**
+         * Whether to route {@code @QueryCondition} and {@code @ReadOnly} methods to read replicas
+         */
+        private boolean enabled = false;
+
+        /**
+         * Name of the primary data source bean to be routed
+         */
+        private String dataSourceBeanName = "dataSource";
+
+        /**
+         * Replica data sources
+         */
+        private List<ReplicaDataSource> dataSources = new ArrayList<>();
+
+        /**
+         * Time to read from the primary database after writing, for requests of the same stickiness key
+         */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        /**
+         * Maximum tracked stickiness keys
+         */
+        private long maximumStickyKeys = 10000;
+
+        /**
+         * @return whether to route read only methods to read replicas
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled whether to route read only methods to read replicas
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return name of the primary data source bean
+         */
+        public String getDataSourceBeanName() {
+            return dataSourceBeanName;
+        }
+
+        /**
+         * @param dataSourceBeanName name of the primary data source bean
+         */
+        public void setDataSourceBeanName(String dataSourceBeanName) {
+            this.dataSourceBeanName = dataSourceBeanName;
+        }
+
+        /**
+         * @return replica data sources
+         */
+        public List<ReplicaDataSource> getDataSources() {
+            return dataSources;
+        }
+
+        /**
+         * @param dataSources replica data sources
+         */
+        public void setDataSources(List<ReplicaDataSource> dataSources) {
+            this.dataSources = dataSources;
+        }
+
+        /**
+         * @return time to read from the primary database after writing
+         */
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+
+        /**
+         * @param readYourWritesWindow time to read from the primary database after writing
+         */
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+
+        /**
+         * @return maximum tracked stickiness keys
+         */
+        public long getMaximumStickyKeys() {
+            return maximumStickyKeys;
+        }
+
+        /**
+         * @param maximumStickyKeys maximum tracked stickiness keys
+         */
+        public void setMaximumStickyKeys(long maximumStickyKeys) {
+            this.maximumStickyKeys = maximumStickyKeys;
+        }
+    }
+
+    /**
+     * Replica data source properties, unset ones are inherited from {@code spring.datasource}
+     */
+    public static class ReplicaDataSource {
+
+        /**
+         * JDBC url
+         */
+        private String url;
+
+        /**
+         * Login username
+         */
+        private String username;
+
+        /**
+         * Login password
+         */
+        private String password;
+
+        /**
+         * JDBC driver class name
+         */
+        private String driverClassName;
+
+        /**
+         * @return JDBC url
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * @param url JDBC url
+         */
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        /**
+         * @return login username
+         */
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * @param username login username
+         */
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        /**
+         * @return login password
+         */
+        public String getPassword() {
+            return password;
+        }
+
+        /**
+         * @param password login password
+         */
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        /**
+         * @return JDBC driver class name
+         */
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        /**
+         * @param driverClassName JDBC driver class name
+         */
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+    }
+
+    /**
+     * Organization keyed sharding properties
+     */
+    public static class Shard {
+
+        /**
+         * Whether to route {@code @Sharded} methods to the shards owning their organizations
+         */
+        private boolean enabled = false;
+
+        /**
+         * Name of the primary data source bean, which is the shard named {@link #primaryName}
+         */
+        private String dataSourceBeanName = "dataSource";
+
+        /**
+         * Shard name of the primary data source
+         */
+        private String primaryName = "primary";
+
+        /**
+         * Other shard data sources
+         */
+        private List<ShardDataSource> dataSources = new ArrayList<>();
+
+        /**
+         * Virtual nodes of every shard on the consistent hash ring
+         */
+        private int virtualNodes = 160;
+
+        /**
+         * Core thread size of scatter query executor
+         */
+        private int coreSize = 4;
+
+        /**
+         * Max thread size of scatter query executor
+         */
+        private int maxSize = 16;
+
+        /**
+         * Queue capacity of scatter query executor, shards are queried by the calling thread when it is full
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * Locale of the collation of string order columns, e.g. {@code zh_CN}, by whose {@link java.text.Collator} rows ordered by
+         * string columns are merged across shards. Such rows are refused to be merged when it is not set, since Java string order
+         * differs from database collations
+         */
+        private Locale collation;
+
+        /**
+         * @return whether to route sharded methods
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled whether to route sharded methods
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return name of the primary data source bean
+         */
+        public String getDataSourceBeanName() {
+            return dataSourceBeanName;
+        }
+
+        /**
+         * @param dataSourceBeanName name of the primary data source bean
+         */
+        public void setDataSourceBeanName(String dataSourceBeanName) {
+            this.dataSourceBeanName = dataSourceBeanName;
+        }
+
+        /**
+         * @return shard name of the primary data source
+         */
+        public String getPrimaryName() {
+            return primaryName;
+        }
+
+        /**
+         * @param primaryName shard name of the primary data source
+         */
+        public void setPrimaryName(String primaryName) {
+            this.primaryName = primaryName;
+        }
+
+        /**
+         * @return other shard data sources
+         */
+        public List<ShardDataSource> getDataSources() {
+            return dataSources;
+        }
+
+        /**
+         * @param dataSources other shard data sources
+         */
+        public void setDataSources(List<ShardDataSource> dataSources) {
+            this.dataSources = dataSources;
+        }
+
+        /**
+         * @return virtual nodes of every shard
+         */
+        public int getVirtualNodes() {
+            return virtualNodes;
+        }
+
+        /**
+         * @param virtualNodes virtual nodes of every shard
+         */
+        public void setVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+        }
+
+        /**
+         * @return core thread size of scatter query executor
+         */
+        public int getCoreSize() {
+            return coreSize;
+        }
+
+        /**
+         * @param coreSize core thread size of scatter query executor
+         */
+        public void setCoreSize(int coreSize) {
+            this.coreSize = coreSize;
+        }
+
+        /**
+         * @return max thread size of scatter query executor
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        /**
+         * @param maxSize max thread size of scatter query executor
+         */
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * @return queue capacity of scatter query executor
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * @param queueCapacity queue capacity of scatter query executor
+         */
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * @return locale of the collation of string order columns
+         */
+        public Locale getCollation() {
+            return collation;
+        }
+
+        /**
+         * @param collation locale of the collation of string order columns
+         */
+        public void setCollation(Locale collation) {
+            this.collation = collation;
+        }
+    }
+
+    /**
+     * Shard data source properties, unset ones are inherited from {@code spring.datasource}
+     */
+    public static class ShardDataSource extends ReplicaDataSource {
+
+        /**
+         * Shard name, hashed on the consistent hash ring, so it should not change once data is distributed
+         */
+        private String name;
+
+        /**
+         * @return shard name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @param name shard name
+         */
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Concurrent count properties
+     */
+    public static class ParallelCount {
+
+        /**
+         * Whether to run count query concurrently with data query on a separate connection
+         */
+        private boolean enabled = false;
+
+        /**
+         * Core thread size
+         */
+        private int coreSize = 4;
+
+        /**
+         * Max thread size, connection pool should afford it in addition to request threads
+         */
+        private int maxSize = 16;
+
+        /**
+         * Queue capacity, count query runs sequentially when the queue is full
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * @return whether to run count query concurrently
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled whether to run count query concurrently
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return core thread size
+         */
+        public int getCoreSize() {
+            return coreSize;
+        }
+
+        /**
+         * @param coreSize core thread size
+         */
+        public void setCoreSize(int coreSize) {
+            this.coreSize = coreSize;
+        }
+
+        /**
+         * @return max thread size
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        /**
+         * @param maxSize max thread size
+         */
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * @return queue capacity
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * @param queueCapacity queue capacity
+         */
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * Streaming export properties
+     */
+    public static class Export {
+
+        /**
+         * Directory of export files
+         */
+        private String directory = Paths.get(System.getProperty("java.io.tmpdir"), "dream-export").toString();
+
+        /**
+         * Fetch size hint of export cursors
+         */
+        private int fetchSize = 1000;
+
+        /**
+         * Export job thread size
+         */
+        private int jobThreads = 2;
+
+        /**
+         * Export job queue capacity, submission is rejected when the queue is full
+         */
+        private int jobQueueCapacity = 16;
+
+        /**
+         * Max pending or running export jobs per user
+         */
+        private int perUserLimit = 2;
+
+        /**
+         * Max total size of export files
+         */
+        private DataSize diskBudget = DataSize.ofGigabytes(1);
+
+        /**
+         * Time to live of finished export jobs and their files
+         */
+        private Duration ttl = Duration.ofHours(1);
+
+        /**
+         * Interval of expired export jobs cleanup
+         */
+        private Duration cleanupInterval = Duration.ofMinutes(5);
+
+        /**
+         * @return directory of export files
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * @param directory directory of export files
+         */
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * @return fetch size hint of export cursors
+         */
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        /**
+         * @param fetchSize fetch size hint of export cursors
+         */
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        /**
+         * @return export job thread size
+         */
+        public int getJobThreads() {
+            return jobThreads;
+        }
+
+        /**
+         * @param jobThreads export job thread size
+         */
+        public void setJobThreads(int jobThreads) {
+            this.jobThreads = jobThreads;
+        }
+
+        /**
+         * @return export job queue capacity
+         */
+        public int getJobQueueCapacity() {
+            return jobQueueCapacity;
+        }
+
+        /**
+         * @param jobQueueCapacity export job queue capacity
+         */
+        public void setJobQueueCapacity(int jobQueueCapacity) {
+            this.jobQueueCapacity = jobQueueCapacity;
+        }
+
+        /**
+         * @return max pending or running export jobs per user
+         */
+        public int getPerUserLimit() {
+            return perUserLimit;
+        }
+
+        /**
+         * @param perUserLimit max pending or running export jobs per user
+         */
+        public void setPerUserLimit(int perUserLimit) {
+            this.perUserLimit = perUserLimit;
+        }
+
+        /**
+         * @return max total size of export files
+         */
+        public DataSize getDiskBudget() {
+            return diskBudget;
+        }
+
+        /**
+         * @param diskBudget max total size of export files
+         */
+        public void setDiskBudget(DataSize diskBudget) {
+            this.diskBudget = diskBudget;
+        }
+
+        /**
+         * @return time to live of finished export jobs and their files
+         */
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        /**
+         * @param ttl time to live of finished export jobs and their files
+         */
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        /**
+         * @return interval of expired export jobs cleanup
+         */
+        public Duration getCleanupInterval() {
+            return cleanupInterval;
+        }
+
+        /**
+         * @param cleanupInterval interval of expired export jobs cleanup
+         */
+        public void setCleanupInterval(Duration cleanupInterval) {
+            this.cleanupInterval = cleanupInterval;
+        }
+    }
+
+    /**
+     * Bulk write properties
+     */
+    public static class Bulk {
+
+        /**
+         * Items per batch chunk, each chunk is committed separately
+         */
+        private int chunkSize = 500;
+
+        /**
+         * @return items per batch chunk
+         */
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        /**
+         * @param chunkSize items per batch chunk
+         */
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Mapped statement metrics properties
+     */
+    public static class Metrics {
+
+        /**
+         * Whether to record statement metrics when Micrometer is present
+         */
+        private boolean enabled = true;
+
+        /**
+         * Whether to publish percentile histograms of statement timers
+         */
+        private boolean percentileHistogram = false;
+
+        /**
+         * Statements slower than it are logged with their parameter shapes, never logged if null
+         */
+        private Duration slowThreshold = Duration.ofSeconds(1);
+
+        /**
+         * @return whether to record statement metrics
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled whether to record statement metrics
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return whether to publish percentile histograms of statement timers
+         */
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        /**
+         * @param percentileHistogram whether to publish percentile histograms of statement timers
+         */
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+
+        /**
+         * @return threshold of slow statements logging
+         */
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        /**
+         * @param slowThreshold threshold of slow statements logging, never logged if null
+         */
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+    }
+
+    /**
+     * Keyword search indexes properties
+     */
+    public static class Search {
+
+        /**
+         * Whether to enable search indexes, which miss rows not modified by
+         * {@link com.dream.springframework.dao.annotation.ReindexSearch} methods until rebuilt
+         */
+        private boolean enabled = false;
+
+        /**
+         * Max candidate ids of a search, the query filters by scanning if exceeded
+         */
+        private int maxCandidates = 1000;
+
+        /**
+         * Interval of full rebuilds, which catch up modifications not made by
+         * {@link com.dream.springframework.dao.annotation.ReindexSearch} methods, never rebuilt if null
+         */
+        private Duration rebuildInterval = Duration.ofHours(1);
+
+        /**
+         * Indexed tables by index name
+         */
+        private Map<String, SearchTable> indexes = new LinkedHashMap<>();
+
+        /**
+         * @return whether to enable search indexes
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @param enabled whether to enable search indexes
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return max candidate ids of a search
+         */
+        public int getMaxCandidates() {
+            return maxCandidates;
+        }
+
+        /**
+         * @param maxCandidates max candidate ids of a search, the query filters by scanning if exceeded
+         */
+        public void setMaxCandidates(int maxCandidates) {
+            this.maxCandidates = maxCandidates;
+        }
+
+        /**
+         * @return interval of full rebuilds
+         */
+        public Duration getRebuildInterval() {
+            return rebuildInterval;
+        }
+
+        /**
+         * @param rebuildInterval interval of full rebuilds, never rebuilt if null
+         */
+        public void setRebuildInterval(Duration rebuildInterval) {
+            this.rebuildInterval = rebuildInterval;
+        }
+
+        /**
+         * @return indexed tables by index name
+         */
+        public Map<String, SearchTable> getIndexes() {
+            return indexes;
+        }
+
+        /**
+         * @param indexes indexed tables by index name
+         */
+        public void setIndexes(Map<String, SearchTable> indexes) {
+            this.indexes = indexes;
+        }
+    }
+
+    /**
+     * Indexed table of keyword search
+     */
+    public static class SearchTable {
+
+        /**
+         * Table name
+         */
+        private String table;
+
+        /**
+         * Numeric id column
+         */
+        private String idColumn = "id";
+
+        /**
+         * Text columns to index
+         */
+        private List<String> columns = new ArrayList<>();
+
+        /**
+         * @return table name
+         */
+        public String getTable() {
+            return table;
+        }
+
+        /**
+         * @param table table name
+         */
+        public void setTable(String table) {
+            this.table = table;
+        }
+
+        /**
+         * @return numeric id column
+         */
+        public String getIdColumn() {
+            return idColumn;
+        }
+
+        /**
+         * @param idColumn numeric id column
+         */
+        public void setIdColumn(String idColumn) {
+            this.idColumn = idColumn;
+        }
+
+        /**
+         * @return text columns to index
+         */
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        /**
+         * @param columns text columns to index
+         */
+        public void setColumns(List<String> columns) {
+            this.columns = columns;
+        }
+    }
 }
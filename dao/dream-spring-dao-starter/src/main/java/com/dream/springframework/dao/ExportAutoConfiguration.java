@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao;
+
+import com.dream.springframework.base.export.ExportJobManager;
+import com.dream.springframework.dao.export.CursorExporter;
+import com.dream.springframework.dao.export.FetchSizeInterceptor;
+import com.dream.springframework.dao.scope.OrgScopeExportPropagator;
+import com.dream.springframework.dao.scope.OrgScopeProvider;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Paths;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Streaming export and export job auto configuration
+ *
+ * @author DreamJM
+ */
+@Configuration
+@AutoConfigureAfter({MybatisAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class})
+public class ExportAutoConfiguration {
+
+    private static final String EXPORT_JOB_EXECUTOR = "exportJobExecutor";
+
+    private final DreamDaoProperties properties;
+
+    public ExportAutoConfiguration(DreamDaoProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @return interceptor applying fetch size hint of exports
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public FetchSizeInterceptor fetchSizeInterceptor() {
+        return new FetchSizeInterceptor();
+    }
+
+    /**
+     * @param sqlSessionFactory   MyBatis session factory
+     * @param transactionManagers ObjectProvider for transaction manager
+     * @return cursor based streaming exporter
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnSingleCandidate(SqlSessionFactory.class)
+    public CursorExporter cursorExporter(SqlSessionFactory sqlSessionFactory,
+                                         ObjectProvider<PlatformTransactionManager> transactionManagers) {
+        DreamDaoProperties.Export export = properties.getExport();
+        return new CursorExporter(sqlSessionFactory, transactionManagers.getIfUnique(), Paths.get(export.getDirectory()),
+                export.getFetchSize());
+    }
+
+    /**
+     * Bounded executor for export jobs, separated from request threads and the application task executor
+     *
+     * @return export job executor
+     */
+    @Bean(EXPORT_JOB_EXECUTOR)
+    @ConditionalOnMissingBean(name = EXPORT_JOB_EXECUTOR)
+    public Executor exportJobExecutor() {
+        DreamDaoProperties.Export export = properties.getExport();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(export.getJobThreads());
+        executor.setMaxPoolSize(export.getJobThreads());
+        executor.setQueueCapacity(export.getJobQueueCapacity());
+        executor.setThreadNamePrefix("Dream-Export-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * @param beanFactory    bean factory to look up export job executor
+     * @param scopeProviders ObjectProvider for organization scope provider, whose organizations are propagated to export jobs
+     * @return export job manager
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ExportJobManager exportJobManager(BeanFactory beanFactory, ObjectProvider<OrgScopeProvider> scopeProviders) {
+        DreamDaoProperties.Export export = properties.getExport();
+        return new ExportJobManager(beanFactory.getBean(EXPORT_JOB_EXECUTOR, Executor.class), Paths.get(export.getDirectory()),
+                export.getPerUserLimit(), export.getDiskBudget().toBytes(), export.getTtl(), export.getCleanupInterval(),
+                new OrgScopeExportPropagator(scopeProviders::getIfAvailable));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao;
+
+import com.dream.springframework.dao.scope.OrgScopeInterceptor;
+import com.dream.springframework.dao.scope.OrgScopeProvider;
+import com.github.pagehelper.autoconfigure.PageHelperAutoConfiguration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Organization scoped row filtering auto configuration
+ * <p>
+ * {@link OrgScopeInterceptor} is added after {@link PageHelperAutoConfiguration} adds its interceptor, and intentionally not
+ * registered as an interceptor bean, so that it wraps the paging interceptor and both count and paging statements are restricted. It
+ * is also added after {@link PaginationAutoConfiguration}, so that cached totals are keyed by the restricted sql.
+ *
+ * @author DreamJM
+ */
+@Configuration
+@ConditionalOnBean(SqlSessionFactory.class)
+@ConditionalOnProperty(prefix = "dream.dao.org-scope", name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureAfter({MybatisAutoConfiguration.class, PageHelperAutoConfiguration.class, DreamDaoAutoConfiguration.class,
+        PaginationAutoConfiguration.class})
+public class OrgScopeAutoConfiguration {
+
+    private final List<SqlSessionFactory> sqlSessionFactories;
+
+    private final DreamDaoProperties properties;
+
+    private final ObjectProvider<OrgScopeProvider> providers;
+
+    /**
+     * @param sqlSessionFactories MyBatis session factories
+     * @param properties          dao properties
+     * @param providers           ObjectProvider for organization scope provider
+     */
+    public OrgScopeAutoConfiguration(List<SqlSessionFactory> sqlSessionFactories, DreamDaoProperties properties,
+                                     ObjectProvider<OrgScopeProvider> providers) {
+        this.sqlSessionFactories = sqlSessionFactories;
+        this.properties = properties;
+        this.providers = providers;
+    }
+
+    @PostConstruct
+    public void addOrgScopeInterceptor() {
+        OrgScopeInterceptor interceptor = new OrgScopeInterceptor(providers::getIfAvailable, properties.getOrgScope());
+        for (SqlSessionFactory sqlSessionFactory : sqlSessionFactories) {
+            sqlSessionFactory.getConfiguration().addInterceptor(interceptor);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao;
+
+import com.dream.springframework.dao.query.ExplainTotalEstimator;
+import com.dream.springframework.dao.query.KeysetInterceptor;
+import com.dream.springframework.dao.query.PageTotalInterceptor;
+import com.dream.springframework.dao.query.ParallelCountInterceptor;
+import com.dream.springframework.dao.query.TotalEstimator;
+import com.github.pagehelper.autoconfigure.PageHelperAutoConfiguration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Keyset pagination, page total modes and concurrent count auto configuration
+ * <p>
+ * Same as {@link OrgScopeAutoConfiguration}, {@link KeysetInterceptor}, {@link PageTotalInterceptor} and
+ * {@link ParallelCountInterceptor} are added after
+ * {@link PageHelperAutoConfiguration} adds its interceptor so that they wrap the paging interceptor.
+ *
+ * @author DreamJM
+ */
+@Configuration
+@ConditionalOnBean(SqlSessionFactory.class)
+@AutoConfigureAfter({MybatisAutoConfiguration.class, PageHelperAutoConfiguration.class, DreamDaoAutoConfiguration.class})
+public class PaginationAutoConfiguration {
+
+    private static final String PARALLEL_COUNT_EXECUTOR = "parallelCountExecutor";
+
+    private final List<SqlSessionFactory> sqlSessionFactories;
+
+    private final DreamDaoProperties properties;
+
+    private final ObjectProvider<TotalEstimator> estimators;
+
+    private final BeanFactory beanFactory;
+
+    /**
+     * @param sqlSessionFactories MyBatis session factories
+     * @param properties          dao properties
+     * @param estimators          ObjectProvider for total estimator
+     * @param beanFactory         bean factory to look up count executor
+     */
+    public PaginationAutoConfiguration(List<SqlSessionFactory> sqlSessionFactories, DreamDaoProperties properties,
+                                       ObjectProvider<TotalEstimator> estimators, BeanFactory beanFactory) {
+        this.sqlSessionFactories = sqlSessionFactories;
+        this.properties = properties;
+        this.estimators = estimators;
+        this.beanFactory = beanFactory;
+    }
+
+    /**
+     * @return total estimator by query planner
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TotalEstimator totalEstimator() {
+        return new ExplainTotalEstimator();
+    }
+
+    /**
+     * Bounded executor for concurrent count queries, rejects tasks when the queue is full so that counts fall back to sequential ones
+     *
+     * @return bounded executor for count queries
+     */
+    @Bean(PARALLEL_COUNT_EXECUTOR)
+    @ConditionalOnMissingBean(name = PARALLEL_COUNT_EXECUTOR)
+    @ConditionalOnProperty(prefix = "dream.dao.parallel-count", name = "enabled", havingValue = "true")
+    public Executor parallelCountExecutor() {
+        DreamDaoProperties.ParallelCount parallelCount = properties.getParallelCount();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelCount.getCoreSize());
+        executor.setMaxPoolSize(parallelCount.getMaxSize());
+        executor.setQueueCapacity(parallelCount.getQueueCapacity());
+        executor.setThreadNamePrefix("Dream-Count-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Adds interceptors, the later added one wraps the former: total modes, keyset, concurrent count and then PageHelper
+     */
+    @PostConstruct
+    public void addPaginationInterceptors() {
+        KeysetInterceptor keysetInterceptor = new KeysetInterceptor();
+        PageTotalInterceptor totalInterceptor = new PageTotalInterceptor(properties.getTotalCache(), estimators::getIfAvailable);
+        Executor countExecutor = properties.getParallelCount().isEnabled() ? beanFactory.getBean(PARALLEL_COUNT_EXECUTOR, Executor.class)
+                : null;
+        for (SqlSessionFactory sqlSessionFactory : sqlSessionFactories) {
+            if (countExecutor != null) {
+                sqlSessionFactory.getConfiguration().addInterceptor(new ParallelCountInterceptor(sqlSessionFactory, countExecutor));
+            }
+            sqlSessionFactory.getConfiguration().addInterceptor(keysetInterceptor);
+            sqlSessionFactory.getConfiguration().addInterceptor(totalInterceptor);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao;
+
+import com.dream.springframework.dao.routing.ReadYourWritesTracker;
+import com.dream.springframework.dao.routing.ReplicaRoutingAspect;
+import com.dream.springframework.dao.routing.ReplicaRoutingDataSourcePostProcessor;
+import com.dream.springframework.dao.routing.StickinessKeyResolver;
+import com.dream.springframework.dao.routing.WriteTrackingInterceptor;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read replica routing auto configuration
+ * <p>
+ * The primary data source bean is wrapped by {@link com.dream.springframework.dao.routing.ReplicaRoutingDataSource}, which routes
+ * connections of {@link com.dream.springframework.dao.annotation.QueryCondition} and
+ * {@link com.dream.springframework.dao.annotation.ReadOnly} methods to replicas.
+ *
+ * @author DreamJM
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "dream.dao.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingAutoConfiguration {
+
+    /**
+     * @return post processor wrapping the primary data source
+     */
+    @Bean
+    public static ReplicaRoutingDataSourcePostProcessor replicaRoutingDataSourcePostProcessor() {
+        return new ReplicaRoutingDataSourcePostProcessor();
+    }
+
+    /**
+     * @param properties    dao properties
+     * @param keyResolvers ObjectProvider for stickiness key resolver
+     * @return read-your-writes tracker
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReadYourWritesTracker readYourWritesTracker(DreamDaoProperties properties, ObjectProvider<StickinessKeyResolver> keyResolvers) {
+        DreamDaoProperties.Replica replica = properties.getReplica();
+        return new ReadYourWritesTracker(replica.getReadYourWritesWindow(), replica.getMaximumStickyKeys(),
+                () -> keyResolvers.getIfAvailable(() -> StickinessKeyResolver.DEFAULT));
+    }
+
+    /**
+     * @param tracker read-your-writes tracker
+     * @return interceptor marking stickiness on writes
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public WriteTrackingInterceptor writeTrackingInterceptor(ReadYourWritesTracker tracker) {
+        return new WriteTrackingInterceptor(tracker);
+    }
+
+    /**
+     * @return aspect marking read only methods
+     */
+    @Bean
+    @ConditionalOnClass(Aspect.class)
+    public ReplicaRoutingAspect replicaRoutingAspect() {
+        return new ReplicaRoutingAspect();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao;
+
+import com.dream.springframework.dao.search.LocalSearchIndexBroadcaster;
+import com.dream.springframework.dao.search.SearchIndexAspect;
+import com.dream.springframework.dao.search.SearchIndexBroadcaster;
+import com.dream.springframework.dao.search.SearchIndexManager;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Keyword search indexes auto configuration
+ * <p>
+ * Enabled by {@code dream.dao.search.enabled=true}, indexes are configured by {@code dream.dao.search.indexes}. Rows are loaded from
+ * the primary data source bean, so sharded tables are not supported. Modified rows are only reindexed across nodes if a
+ * {@link SearchIndexBroadcaster} bean based on a message bus is provided.
+ *
+ * @author DreamJM
+ */
+@Configuration
+@ConditionalOnSingleCandidate(DataSource.class)
+@ConditionalOnProperty(prefix = "dream.dao.search", name = "enabled", havingValue = "true")
+@AutoConfigureAfter(DataSourceAutoConfiguration.class)
+public class SearchIndexAutoConfiguration {
+
+    /**
+     * @return in-JVM broadcaster of modified rows
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SearchIndexBroadcaster searchIndexBroadcaster() {
+        return new LocalSearchIndexBroadcaster();
+    }
+
+    /**
+     * @param properties  dao properties
+     * @param dataSource  data source to load rows
+     * @param broadcaster broadcaster of modified rows
+     * @return keyword search indexes
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SearchIndexManager searchIndexManager(DreamDaoProperties properties, DataSource dataSource,
+                                                 SearchIndexBroadcaster broadcaster) {
+        return new SearchIndexManager(properties.getSearch(), dataSource, broadcaster);
+    }
+
+    /**
+     * @param manager search index manager
+     * @return aspect reindexing rows modified by {@link com.dream.springframework.dao.annotation.ReindexSearch} methods
+     */
+    @Bean
+    @ConditionalOnClass(Aspect.class)
+    public SearchIndexAspect searchIndexAspect(SearchIndexManager manager) {
+        return new SearchIndexAspect(manager);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao;
+
+import com.dream.springframework.dao.routing.ShardRouter;
+import com.dream.springframework.dao.routing.ShardRoutingDataSourcePostProcessor;
+import com.dream.springframework.dao.routing.ShardScatterInterceptor;
+import com.dream.springframework.dao.routing.ShardingAspect;
+import com.dream.springframework.dao.scope.OrgScopeProvider;
+import com.github.pagehelper.autoconfigure.PageHelperAutoConfiguration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.aspectj.lang.annotation.Aspect;
+import org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.annotation.PostConstruct;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Organization keyed sharding auto configuration
+ * <p>
+ * The primary data source bean is wrapped by {@link com.dream.springframework.dao.routing.ShardRoutingDataSource} together with the
+ * other shards, {@link com.dream.springframework.dao.annotation.Sharded} methods are routed by {@link ShardingAspect}, and selects
+ * routed to multiple shards are scattered by {@link ShardScatterInterceptor}, which is added after {@link PaginationAutoConfiguration}
+ * adds its interceptors so that it wraps all of them.
+ *
+ * @author DreamJM
+ */
+@Configuration
+@ConditionalOnBean(SqlSessionFactory.class)
+@ConditionalOnProperty(prefix = "dream.dao.shard", name = "enabled", havingValue = "true")
+@AutoConfigureAfter({MybatisAutoConfiguration.class, PageHelperAutoConfiguration.class, DreamDaoAutoConfiguration.class,
+        PaginationAutoConfiguration.class})
+public class ShardingAutoConfiguration {
+
+    private static final String SHARD_SCATTER_EXECUTOR = "shardScatterExecutor";
+
+    private final List<SqlSessionFactory> sqlSessionFactories;
+
+    private final DreamDaoProperties properties;
+
+    private final BeanFactory beanFactory;
+
+    /**
+     * @param sqlSessionFactories MyBatis session factories
+     * @param properties          dao properties
+     * @param beanFactory         bean factory to look up scatter executor
+     */
+    public ShardingAutoConfiguration(List<SqlSessionFactory> sqlSessionFactories, DreamDaoProperties properties,
+                                     BeanFactory beanFactory) {
+        this.sqlSessionFactories = sqlSessionFactories;
+        this.properties = properties;
+        this.beanFactory = beanFactory;
+    }
+
+    /**
+     * @return post processor wrapping the primary data source
+     */
+    @Bean
+    public static ShardRoutingDataSourcePostProcessor shardRoutingDataSourcePostProcessor() {
+        return new ShardRoutingDataSourcePostProcessor();
+    }
+
+    /**
+     * @return consistent hashing shard router
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ShardRouter shardRouter() {
+        DreamDaoProperties.Shard shard = properties.getShard();
+        List<String> shards = new ArrayList<>();
+        shards.add(shard.getPrimaryName());
+        shard.getDataSources().forEach(dataSource -> shards.add(dataSource.getName()));
+        return new ShardRouter(shards, shard.getVirtualNodes());
+    }
+
+    /**
+     * @param router    shard router
+     * @param providers ObjectProvider for organization scope provider
+     * @return aspect routing sharded methods
+     */
+    @Bean
+    @ConditionalOnClass(Aspect.class)
+    public ShardingAspect shardingAspect(ShardRouter router, ObjectProvider<OrgScopeProvider> providers) {
+        return new ShardingAspect(router, providers::getIfAvailable);
+    }
+
+    /**
+     * Bounded executor for shard queries, rejects tasks when the queue is full so that shards are queried by the calling thread
+     *
+     * @return bounded executor for shard queries
+     */
+    @Bean(SHARD_SCATTER_EXECUTOR)
+    @ConditionalOnMissingBean(name = SHARD_SCATTER_EXECUTOR)
+    public Executor shardScatterExecutor() {
+        DreamDaoProperties.Shard shard = properties.getShard();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(shard.getCoreSize());
+        executor.setMaxPoolSize(shard.getMaxSize());
+        executor.setQueueCapacity(shard.getQueueCapacity());
+        executor.setThreadNamePrefix("Dream-Shard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @PostConstruct
+    public void addShardScatterInterceptor() {
+        Executor executor = beanFactory.getBean(SHARD_SCATTER_EXECUTOR, Executor.class);
+        Locale collation = properties.getShard().getCollation();
+        Comparator<Object> collator = collation != null ? Collator.getInstance(collation) : null;
+        for (SqlSessionFactory sqlSessionFactory : sqlSessionFactories) {
+            sqlSessionFactory.getConfiguration().addInterceptor(new ShardScatterInterceptor(sqlSessionFactory, executor, collator));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao;
+
+import com.dream.springframework.dao.metrics.StatementMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Mapped statement metrics auto configuration
+ * <p>
+ * Enabled when Micrometer {@link MeterRegistry} is present (e.g. with Spring Boot Actuator), could be disabled by
+ * {@code dream.dao.metrics.enabled=false}. The interceptor is registered as a bean, so that MyBatis auto configuration adds it
+ * before PageHelper's and the other dao interceptors, making it the innermost one that measures each executed statement.
+ *
+ * @author DreamJM
+ * @see StatementMetricsInterceptor
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "dream.dao.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureAfter(name = {"org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration"})
+public class StatementMetricsAutoConfiguration {
+
+    /**
+     * @param registry   meter registry
+     * @param properties dao properties
+     * @return interceptor recording mapped statement metrics
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public StatementMetricsInterceptor statementMetricsInterceptor(MeterRegistry registry, DreamDaoProperties properties) {
+        return new StatementMetricsInterceptor(registry, properties.getMetrics());
+    }
+}
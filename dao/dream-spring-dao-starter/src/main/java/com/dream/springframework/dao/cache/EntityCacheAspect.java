@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.cache;
+
+import com.dream.springframework.dao.annotation.CachedEntity;
+import com.dream.springframework.dao.annotation.EvictEntity;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Entity cache aspect supporting {@link CachedEntity} and {@link EvictEntity}
+ * <p>
+ * Cached entities are bypassed inside non read-only transactions, which may read their own uncommitted modifications. Evictions in a
+ * transaction are published when the transaction completes.
+ *
+ * @author DreamJM
+ */
+@Aspect
+public class EntityCacheAspect {
+
+    private final EntityCacheManager manager;
+
+    /**
+     * @param manager entity cache manager
+     */
+    public EntityCacheAspect(EntityCacheManager manager) {
+        this.manager = manager;
+    }
+
+    @Pointcut("@annotation(cachedEntity)")
+    public void loadEntity(CachedEntity cachedEntity) {
+    }
+
+    @Pointcut("@annotation(evictEntity)")
+    public void modifyEntity(EvictEntity evictEntity) {
+    }
+
+    @SuppressWarnings("unchecked")
+    @Around(value = "loadEntity(cachedEntity)", argNames = "joinPoint,cachedEntity")
+    public Object aroundLoad(ProceedingJoinPoint joinPoint, CachedEntity cachedEntity) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        if (args.length == 0 || args[0] == null || isWritableTransaction()) {
+            return joinPoint.proceed();
+        }
+        boolean optional = ((MethodSignature) joinPoint.getSignature()).getReturnType() == Optional.class;
+        String key = String.valueOf(args[0]);
+        Optional<Object> value = manager.get(cachedEntity.value(), key);
+        if (value == null) {
+            value = manager.load(cachedEntity.value(), key, () -> {
+                Object result = joinPoint.proceed();
+                return optional && result != null ? (Optional<Object>) result : Optional.ofNullable(result);
+            });
+        }
+        return optional ? value : value.orElse(null);
+    }
+
+    @Around(value = "modifyEntity(evictEntity)", argNames = "joinPoint,evictEntity")
+    public Object aroundModify(ProceedingJoinPoint joinPoint, EvictEntity evictEntity) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (args.length > 0 && args[0] != null) {
+                evict(evictEntity.value(), getKeys(args[0], evictEntity.keyProperty()));
+            }
+        }
+    }
+
+    private void evict(String cacheName, List<String> keys) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    keys.forEach(key -> manager.evict(cacheName, key));
+                }
+            });
+        } else {
+            keys.forEach(key -> manager.evict(cacheName, key));
+        }
+    }
+
+    private static List<String> getKeys(Object arg, String keyProperty) {
+        Collection<?> items = arg instanceof Collection ? (Collection<?>) arg
+                : arg.getClass().isArray() ? CollectionUtils.arrayToList(arg) : null;
+        List<String> keys = new ArrayList<>();
+        if (items == null) {
+            addKey(keys, arg, keyProperty);
+        } else {
+            items.forEach(item -> addKey(keys, item, keyProperty));
+        }
+        return keys;
+    }
+
+    private static void addKey(List<String> keys, Object item, String keyProperty) {
+        Object key = item == null || keyProperty.isEmpty() ? item
+                : PropertyAccessorFactory.forBeanPropertyAccess(item).getPropertyValue(keyProperty);
+        if (key != null) {
+            keys.add(String.valueOf(key));
+        }
+    }
+
+    private static boolean isWritableTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.cache;
+
+import com.dream.springframework.dao.DreamDaoProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entity caches of {@link com.dream.springframework.dao.annotation.CachedEntity} methods
+ * <p>
+ * Every cache name has a bounded cache of present entities and a shorter-lived one of absent keys. Evictions are published through
+ * {@link EntityCacheBroadcaster} and applied when received. A loaded entity is only cached if its key was not evicted after the load
+ * started, so that a load racing with a modification does not cache the former state; evictions are remembered for
+ * {@link #EVICTION_RETENTION_SECONDS}, and loads taking longer than that are not cached.
+ *
+ * @author DreamJM
+ */
+public class EntityCacheManager {
+
+    /**
+     * Retention of eviction records
+     */
+    public static final long EVICTION_RETENTION_SECONDS = 60;
+
+    private final DreamDaoProperties.EntityCache properties;
+
+    private final EntityCacheBroadcaster broadcaster;
+
+    private final Map<String, Caches> caches = new ConcurrentHashMap<>();
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * @param properties  entity cache properties
+     * @param broadcaster eviction broadcaster
+     */
+    public EntityCacheManager(DreamDaoProperties.EntityCache properties, EntityCacheBroadcaster broadcaster) {
+        this.properties = properties;
+        this.broadcaster = broadcaster;
+        broadcaster.subscribe(this::evictLocally);
+    }
+
+    /**
+     * @param cacheName cache name
+     * @param key       entity key
+     * @return cached entity, empty for a cached absent key, or null if not cached
+     */
+    public Optional<Object> get(String cacheName, String key) {
+        Caches cache = getCaches(cacheName);
+        Object value = cache.present.getIfPresent(key);
+        if (value != null) {
+            return Optional.of(value);
+        }
+        return cache.absent.getIfPresent(key) != null ? Optional.empty() : null;
+    }
+
+    /**
+     * Loads entity on cache miss and caches the result
+     *
+     * @param cacheName cache name
+     * @param key       entity key
+     * @param loader    entity loading
+     * @return loaded entity, empty if absent
+     * @throws Throwable if loading failed
+     */
+    public Optional<Object> load(String cacheName, String key, Loader loader) throws Throwable {
+        Caches cache = getCaches(cacheName);
+        long start = epoch.get();
+        long startNanos = System.nanoTime();
+        Optional<Object> value = loader.load();
+        Long evicted = cache.evictions.getIfPresent(key);
+        if ((evicted == null || evicted <= start)
+                && System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(EVICTION_RETENTION_SECONDS)) {
+            if (value.isPresent()) {
+                cache.present.put(key, value.get());
+            } else {
+                cache.absent.put(key, Boolean.TRUE);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Evicts entity of all nodes
+     *
+     * @param cacheName cache name
+     * @param key       entity key
+     */
+    public void evict(String cacheName, String key) {
+        broadcaster.publish(cacheName, key);
+    }
+
+    /**
+     * @param cacheName cache name
+     * @return statistics of present entities cache
+     */
+    public CacheStats stats(String cacheName) {
+        return getCaches(cacheName).present.stats();
+    }
+
+    private void evictLocally(String cacheName, String key) {
+        Caches cache = getCaches(cacheName);
+        cache.evictions.put(key, epoch.incrementAndGet());
+        cache.present.invalidate(key);
+        cache.absent.invalidate(key);
+    }
+
+    private Caches getCaches(String cacheName) {
+        return caches.computeIfAbsent(cacheName, name -> new Caches(properties));
+    }
+
+    /**
+     * Entity loading on cache miss
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * @return loaded entity, empty if absent
+         * @throws Throwable if loading failed
+         */
+        Optional<Object> load() throws Throwable;
+    }
+
+    private static class Caches {
+
+        private final Cache<String, Object> present;
+
+        private final Cache<String, Boolean> absent;
+
+        private final Cache<String, Long> evictions;
+
+        private Caches(DreamDaoProperties.EntityCache properties) {
+            this.present = CacheBuilder.newBuilder().maximumSize(properties.getMaximumSize())
+                    .expireAfterWrite(properties.getExpireAfterWrite().toMillis(), TimeUnit.MILLISECONDS).recordStats().build();
+            this.absent = CacheBuilder.newBuilder().maximumSize(properties.getNegativeMaximumSize())
+                    .expireAfterWrite(properties.getNegativeExpireAfterWrite().toMillis(), TimeUnit.MILLISECONDS).build();
+            this.evictions = CacheBuilder.newBuilder().expireAfterWrite(EVICTION_RETENTION_SECONDS, TimeUnit.SECONDS).build();
+        }
+    }
+}
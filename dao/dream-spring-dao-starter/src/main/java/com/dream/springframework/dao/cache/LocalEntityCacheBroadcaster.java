@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * In-JVM entity cache eviction broadcaster, notifies subscribed listeners synchronously
+ *
+ * @author DreamJM
+ */
+public class LocalEntityCacheBroadcaster implements EntityCacheBroadcaster {
+
+    private final List<BiConsumer<String, String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String cacheName, String key) {
+        listeners.forEach(listener -> listener.accept(cacheName, key));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, String> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.cache;
+
+import com.dream.springframework.dao.annotation.ModifiesTables;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidates {@link PageResultCache} entries tagged by tables of {@link ModifiesTables} annotated methods
+ * <p>
+ * Inside a transaction, tables are invalidated when the transaction completes, so that results loaded concurrently from the former
+ * committed state are not served afterwards. Tables are also invalidated when the method fails, since part of the modification may
+ * have been applied.
+ *
+ * @author DreamJM
+ */
+@Aspect
+public class ModifiesTablesAspect {
+
+    private final PageResultCache cache;
+
+    /**
+     * @param cache paged results cache
+     */
+    public ModifiesTablesAspect(PageResultCache cache) {
+        this.cache = cache;
+    }
+
+    @Pointcut("@annotation(modifiesTables)")
+    public void modifyTables(ModifiesTables modifiesTables) {
+    }
+
+    @Around(value = "modifyTables(modifiesTables)", argNames = "joinPoint,modifiesTables")
+    public Object aroundMethod(ProceedingJoinPoint joinPoint, ModifiesTables modifiesTables) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } finally {
+            invalidate(modifiesTables.value());
+        }
+    }
+
+    private void invalidate(String[] tables) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(tables);
+                }
+            });
+        } else {
+            cache.invalidate(tables);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.cache;
+
+import com.dream.springframework.dao.DreamDaoProperties;
+import com.dream.springframework.dao.model.BaseCondition;
+import com.github.pagehelper.Page;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Paged results cache of {@link com.dream.springframework.dao.annotation.QueryCondition} methods
+ * <p>
+ * Entries are keyed by method and a fingerprint of its arguments (all readable properties of conditions, including paging and
+ * compiled order), and tagged by table names. Invalidation is lazy: every table remembers the epoch it was last modified at, and an
+ * entry is only served if none of its tables was modified after the epoch captured before its query started, so results read
+ * concurrently with a modification are never served afterwards.
+ * <p>
+ * With read replicas, a query shortly after a modification may still read the old rows from a lagging replica. Results of tables
+ * modified within the replica lag window before the query started are returned but not cached, so that stale replica reads are not
+ * served for the whole cache TTL.
+ *
+ * @author DreamJM
+ */
+public class PageResultCache {
+
+    /**
+     * Tag of statements whose tables are unknown, invalidated by any modification
+     */
+    public static final String ANY_TABLE = "*";
+
+    private static final int MAX_DEPTH = 8;
+
+    private static final String TIMEOUT_PROPERTY = "timeout";
+
+    private static final ThreadLocal<Set<String>> LOCAL_TABLES = new ThreadLocal<>();
+
+    private final Cache<String, Entry> cache;
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final Map<String, Long> tableEpochs = new ConcurrentHashMap<>();
+
+    /**
+     * Last modified time in milliseconds of each table, only tracked with a replica lag window
+     */
+    private final Map<String, Long> tableModifiedTimes = new ConcurrentHashMap<>();
+
+    private final long replicaLagMillis;
+
+    /**
+     * @param properties result cache properties
+     */
+    public PageResultCache(DreamDaoProperties.ResultCache properties) {
+        this(properties, null);
+    }
+
+    /**
+     * @param properties result cache properties
+     * @param replicaLag replica lag window (e.g. read-your-writes window) after modifications, in which results are not cached, null
+     *                   if queries are not routed to replicas
+     */
+    public PageResultCache(DreamDaoProperties.ResultCache properties, Duration replicaLag) {
+        this.replicaLagMillis = replicaLag == null ? 0 : replicaLag.toMillis();
+        this.cache = CacheBuilder.newBuilder().maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite().toMillis(), TimeUnit.MILLISECONDS).recordStats().build();
+    }
+
+    /**
+     * Normalizes table name: unquoted, lower case and without schema
+     *
+     * @param table table name
+     * @return normalized table name
+     */
+    public static String normalizeTable(String table) {
+        String name = table.substring(table.lastIndexOf('.') + 1).trim();
+        return name.replace("`", "").replace("\"", "").replace("[", "").replace("]", "").toLowerCase();
+    }
+
+    /**
+     * @return whether tables of executed statements are being recorded on current thread
+     */
+    public static boolean isRecording() {
+        return LOCAL_TABLES.get() != null;
+    }
+
+    /**
+     * Records tables touched by statements executed on current thread during a cache miss
+     *
+     * @param tables table names
+     */
+    public static void recordTables(Collection<String> tables) {
+        Set<String> recorded = LOCAL_TABLES.get();
+        if (recorded != null) {
+            tables.forEach(table -> recorded.add(ANY_TABLE.equals(table) ? ANY_TABLE : normalizeTable(table)));
+        }
+    }
+
+    /**
+     * Records tables touched by statements executed on current thread on behalf of a recording thread (e.g. scatter queries of
+     * shards), which should pass them to {@link #recordTables(Collection)} afterwards
+     *
+     * @param tables set collecting touched tables
+     * @param query  query execution
+     * @param <T>    result type
+     * @return query result
+     */
+    public static <T> T recordTo(Set<String> tables, Supplier<T> query) {
+        Set<String> previous = LOCAL_TABLES.get();
+        LOCAL_TABLES.set(tables);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                LOCAL_TABLES.remove();
+            } else {
+                LOCAL_TABLES.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @param method invoked method
+     * @param args   method arguments
+     * @param scope  additional key part (e.g. organization scope), nullable
+     * @return cache key
+     */
+    public String key(Method method, Object[] args, Object scope) {
+        StringBuilder key = new StringBuilder(method.toGenericString());
+        for (Object arg : args) {
+            key.append('|');
+            appendFingerprint(key, arg);
+        }
+        if (scope != null) {
+            key.append("|scope=");
+            appendFingerprint(key, scope);
+        }
+        return key.toString();
+    }
+
+    /**
+     * @param key cache key
+     * @return copy of valid cached page, null if absent or invalidated
+     */
+    public Page<?> get(String key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        for (String table : entry.tables) {
+            if (tableEpochs.getOrDefault(table, 0L) > entry.epoch) {
+                cache.invalidate(key);
+                return null;
+            }
+        }
+        return (Page<?>) entry.page.clone();
+    }
+
+    /**
+     * Executes query on cache miss, records touched tables and caches the result
+     *
+     * @param key    cache key
+     * @param tables declared table tags
+     * @param query  query execution
+     * @return query result
+     * @throws Throwable if query failed
+     */
+    public Page<?> load(String key, String[] tables, Loader query) throws Throwable {
+        long start = epoch.get();
+        long startMillis = System.currentTimeMillis();
+        Set<String> touched = new HashSet<>();
+        Arrays.stream(tables).map(PageResultCache::normalizeTable).forEach(touched::add);
+        Set<String> previous = LOCAL_TABLES.get();
+        LOCAL_TABLES.set(touched);
+        Page<?> page;
+        try {
+            page = query.load();
+        } finally {
+            if (previous == null) {
+                LOCAL_TABLES.remove();
+            } else {
+                previous.addAll(touched);
+                LOCAL_TABLES.set(previous);
+            }
+        }
+        if (page != null && !touched.isEmpty() && !isRecentlyModified(touched, startMillis)) {
+            cache.put(key, new Entry((Page<?>) page.clone(), touched, start));
+        }
+        return page;
+    }
+
+    /**
+     * Marks tables modified, invalidating cached results tagged by them
+     *
+     * @param tables modified table names
+     */
+    public void invalidate(String... tables) {
+        long current = epoch.incrementAndGet();
+        for (String table : tables) {
+            tableEpochs.put(normalizeTable(table), current);
+        }
+        tableEpochs.put(ANY_TABLE, current);
+        if (replicaLagMillis > 0) {
+            long now = System.currentTimeMillis();
+            for (String table : tables) {
+                tableModifiedTimes.put(normalizeTable(table), now);
+            }
+            tableModifiedTimes.put(ANY_TABLE, now);
+        }
+    }
+
+    /**
+     * Evicts all cached results
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return underlying cache
+     */
+    public Cache<?, ?> getCache() {
+        return cache;
+    }
+
+    private boolean isRecentlyModified(Set<String> tables, long startMillis) {
+        if (replicaLagMillis <= 0) {
+            return false;
+        }
+        for (String table : tables) {
+            if (tableModifiedTimes.getOrDefault(table, 0L) > startMillis - replicaLagMillis) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendFingerprint(StringBuilder key, Object value) {
+        appendFingerprint(key, value, 0);
+    }
+
+    private static void appendFingerprint(StringBuilder key, Object value, int depth) {
+        if (value == null || BeanUtils.isSimpleValueType(value.getClass())) {
+            key.append(value);
+        } else if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Query condition nested too deep to be cached: " + value.getClass());
+        } else if (value.getClass().isArray()) {
+            key.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                appendFingerprint(key, Array.get(value, i), depth + 1);
+                key.append(',');
+            }
+            key.append(']');
+        } else if (value instanceof List) {
+            appendFingerprint(key, ((List<?>) value).toArray(), depth);
+        } else if (value instanceof Collection) {
+            // unordered collections are fingerprinted by sorted element fingerprints
+            key.append('{');
+            ((Collection<?>) value).stream().map(item -> fingerprint(item, depth + 1)).sorted()
+                    .forEach(item -> key.append(item).append(','));
+            key.append('}');
+        } else if (value instanceof Map) {
+            key.append('{');
+            ((Map<?, ?>) value).entrySet().stream()
+                    .map(entry -> fingerprint(entry.getKey(), depth + 1) + '=' + fingerprint(entry.getValue(), depth + 1)).sorted()
+                    .forEach(entry -> key.append(entry).append(','));
+            key.append('}');
+        } else {
+            appendProperties(key, value, depth);
+        }
+    }
+
+    private static void appendProperties(StringBuilder key, Object value, int depth) {
+        key.append(value.getClass().getName()).append('{');
+        PropertyDescriptor[] descriptors = BeanUtils.getPropertyDescriptors(value.getClass());
+        Arrays.sort(descriptors, Comparator.comparing(PropertyDescriptor::getName));
+        for (PropertyDescriptor descriptor : descriptors) {
+            Method reader = descriptor.getReadMethod();
+            if (reader == null || reader.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            if (value instanceof BaseCondition && TIMEOUT_PROPERTY.equals(descriptor.getName())) {
+                // time budget does not change results
+                continue;
+            }
+            try {
+                key.append(descriptor.getName()).append('=');
+                appendFingerprint(key, reader.invoke(value), depth + 1);
+                key.append(',');
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to read property " + descriptor.getName() + " of " + value.getClass(), e);
+            }
+        }
+        key.append('}');
+    }
+
+    private static String fingerprint(Object value, int depth) {
+        StringBuilder key = new StringBuilder();
+        appendFingerprint(key, value, depth);
+        return key.toString();
+    }
+
+    /**
+     * Query execution on cache miss
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * @return query result
+         * @throws Throwable if query failed
+         */
+        Page<?> load() throws Throwable;
+    }
+
+    private static class Entry {
+
+        private final Page<?> page;
+
+        private final Set<String> tables;
+
+        private final long epoch;
+
+        private Entry(Page<?> page, Set<String> tables, long epoch) {
+            this.page = page;
+            this.tables = tables;
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MyBatis interceptor recording tables of statements executed while {@link PageResultCache} is loading a result
+ * <p>
+ * Statements are intercepted at preparing, so both count and data statements of a page are recorded. Statements that can not be
+ * parsed are tagged by {@link PageResultCache#ANY_TABLE}.
+ *
+ * @author DreamJM
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class TableTagInterceptor implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableTagInterceptor.class);
+
+    private final Cache<String, List<String>> tables = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (PageResultCache.isRecording()) {
+            String sql = ((StatementHandler) invocation.getTarget()).getBoundSql().getSql();
+            PageResultCache.recordTables(tables.get(sql, () -> parseTables(sql)));
+        }
+        return invocation.proceed();
+    }
+
+    private static List<String> parseTables(String sql) {
+        try {
+            return new TablesNamesFinder().getTableList(CCJSqlParserUtil.parse(sql));
+        } catch (JSQLParserException | RuntimeException e) {
+            logger.debug("Failed to parse tables of sql: {}", sql, e);
+            return Collections.singletonList(PageResultCache.ANY_TABLE);
+        }
+    }
+}
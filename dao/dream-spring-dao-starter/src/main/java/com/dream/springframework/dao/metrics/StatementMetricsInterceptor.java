@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.metrics;
+
+import com.dream.springframework.dao.DreamDaoProperties;
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Array;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * MyBatis interceptor recording Micrometer metrics of mapped statements
+ * <p>
+ * Meters are tagged by statement (mapped statement id) and type (select, count, insert, update or delete):
+ * <ul>
+ * <li>{@value #STATEMENT}: statement latency, additionally tagged by outcome (ok, timeout or error)</li>
+ * <li>{@value #ROWS}: rows returned by selects, affected by writes, or counted by count statements</li>
+ * <li>{@value #PAGE_SIZE} and {@value #PAGE_OFFSET}: paging parameters of paged selects</li>
+ * </ul>
+ * Count statements generated by {@link PageHelper} (mapped statement id suffixed with {@value #COUNT_SUFFIX}) are tagged by their
+ * data statement id, so that a {@code @QueryCondition} query and its count are told apart by type only. Statements slower than the
+ * threshold are logged with their bound parameter shapes (names, types and sizes, never values).
+ * <p>
+ * Registered as a bean so that it is the innermost executor interceptor, which sees count and data queries issued by PageHelper
+ * separately while the local page is still applied.
+ *
+ * @author DreamJM
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class StatementMetricsInterceptor implements Interceptor {
+
+    public static final String STATEMENT = "dream.dao.statement";
+
+    public static final String ROWS = "dream.dao.statement.rows";
+
+    public static final String PAGE_SIZE = "dream.dao.statement.page.size";
+
+    public static final String PAGE_OFFSET = "dream.dao.statement.page.offset";
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementMetricsInterceptor.class);
+
+    private static final String COUNT_SUFFIX = "_COUNT";
+
+    private static final String COUNT_TYPE = "count";
+
+    // Index of foreach item names, e.g. '__frch_id_12'
+    private static final Pattern ITEM_INDEX = Pattern.compile("_\\d+(?=\\.|$)");
+
+    private final MeterRegistry registry;
+
+    private final boolean percentileHistogram;
+
+    private final long slowThresholdNanos;
+
+    /**
+     * @param registry   meter registry
+     * @param properties metrics properties
+     */
+    public StatementMetricsInterceptor(MeterRegistry registry, DreamDaoProperties.Metrics properties) {
+        this.registry = registry;
+        this.percentileHistogram = properties.isPercentileHistogram();
+        Duration slowThreshold = properties.getSlowThreshold();
+        this.slowThresholdNanos = slowThreshold == null ? Long.MAX_VALUE : slowThreshold.toNanos();
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        String id = ms.getId();
+        boolean count = id.endsWith(COUNT_SUFFIX);
+        String statement = count ? id.substring(0, id.length() - COUNT_SUFFIX.length()) : id;
+        String type = count ? COUNT_TYPE : ms.getSqlCommandType().name().toLowerCase(Locale.ROOT);
+        Page<?> page = !count && ms.getSqlCommandType() == SqlCommandType.SELECT ? PageHelper.getLocalPage() : null;
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            record(statement, type, elapsed, result, error, page, args);
+            if (elapsed >= slowThresholdNanos) {
+                logSlow(ms, type, elapsed, result, page, args);
+            }
+        }
+    }
+
+    private void record(String statement, String type, long elapsed, Object result, Throwable error, Page<?> page, Object[] args) {
+        Timer.builder(STATEMENT).tag("statement", statement).tag("type", type).tag("outcome", outcome(error))
+                .publishPercentileHistogram(percentileHistogram).register(registry).record(elapsed, TimeUnit.NANOSECONDS);
+        long rows = rows(type, result);
+        if (rows >= 0) {
+            summary(ROWS, statement, type).record(rows);
+        }
+        if (page != null && page.getPageSize() > 0) {
+            summary(PAGE_SIZE, statement, type).record(page.getPageSize());
+            summary(PAGE_OFFSET, statement, type).record(page.getStartRow());
+        } else if (args.length > 2 && args[2] != RowBounds.DEFAULT) {
+            RowBounds rowBounds = (RowBounds) args[2];
+            summary(PAGE_SIZE, statement, type).record(rowBounds.getLimit());
+            summary(PAGE_OFFSET, statement, type).record(rowBounds.getOffset());
+        }
+    }
+
+    private DistributionSummary summary(String name, String statement, String type) {
+        return DistributionSummary.builder(name).tag("statement", statement).tag("type", type).register(registry);
+    }
+
+    private static void logSlow(MappedStatement ms, String type, long elapsed, Object result, Page<?> page, Object[] args) {
+        String paging = page == null || page.getPageSize() <= 0 ? "none"
+                : String.format("pageNum=%d, pageSize=%d", page.getPageNum(), page.getPageSize());
+        String parameters;
+        try {
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(args[1]);
+            parameters = parameterShapes(ms, boundSql);
+        } catch (RuntimeException e) {
+            parameters = "unavailable";
+        }
+        logger.warn("Slow {} statement {} took {} ms, rows {}, paging [{}], parameters {}", type, ms.getId(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), rows(type, result), paging, parameters);
+    }
+
+    /**
+     * Describes bound parameters as 'name:Type', with lengths of strings and sizes of collections, consecutive foreach items of the same
+     * shape are collapsed, e.g. {@code [keyword:String(5), __frch_id_*:Long x120]}
+     */
+    private static String parameterShapes(MappedStatement ms, BoundSql boundSql) {
+        Object parameter = boundSql.getParameterObject();
+        TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
+        MetaObject metaObject = null;
+        StringJoiner shapes = new StringJoiner(", ", "[", "]");
+        String last = null;
+        int repeat = 0;
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameter == null) {
+                value = null;
+            } else if (typeHandlerRegistry.hasTypeHandler(parameter.getClass())) {
+                value = parameter;
+            } else {
+                if (metaObject == null) {
+                    metaObject = ms.getConfiguration().newMetaObject(parameter);
+                }
+                value = metaObject.getValue(property);
+            }
+            String shape = ITEM_INDEX.matcher(property).replaceAll("_*") + ":" + shapeOf(value);
+            if (shape.equals(last)) {
+                repeat++;
+                continue;
+            }
+            if (last != null) {
+                shapes.add(repeat > 1 ? last + " x" + repeat : last);
+            }
+            last = shape;
+            repeat = 1;
+        }
+        if (last != null) {
+            shapes.add(repeat > 1 ? last + " x" + repeat : last);
+        }
+        return shapes.toString();
+    }
+
+    private static String shapeOf(Object value) {
+        if (value == null) {
+            return "null";
+        } else if (value instanceof CharSequence) {
+            return "String(" + ((CharSequence) value).length() + ")";
+        } else if (value instanceof Collection) {
+            return value.getClass().getSimpleName() + "[" + ((Collection<?>) value).size() + "]";
+        } else if (value instanceof Map) {
+            return value.getClass().getSimpleName() + "[" + ((Map<?, ?>) value).size() + "]";
+        } else if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private static long rows(String type, Object result) {
+        if (result instanceof List) {
+            List<?> list = (List<?>) result;
+            if (COUNT_TYPE.equals(type)) {
+                return !list.isEmpty() && list.get(0) instanceof Number ? ((Number) list.get(0)).longValue() : -1;
+            }
+            return list.size();
+        }
+        return result instanceof Number ? ((Number) result).longValue() : -1;
+    }
+
+    private static String outcome(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof SQLTimeoutException) {
+                return "timeout";
+            }
+        }
+        return error == null ? "ok" : "error";
+    }
+}
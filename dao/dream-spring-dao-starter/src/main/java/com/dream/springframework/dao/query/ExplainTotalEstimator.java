@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Estimates total count by the row estimate of query planner
+ * <p>
+ * Supports PostgreSQL ({@code EXPLAIN (FORMAT JSON)}, 'Plan Rows' of the top plan node) and MySQL / MariaDB ({@code EXPLAIN}, 'rows'
+ * multiplied by 'filtered' of the first table). Other databases are not supported and fall back to exact count.
+ *
+ * @author DreamJM
+ */
+public class ExplainTotalEstimator implements TotalEstimator {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    @Override
+    public Long estimate(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql) throws SQLException {
+        Connection connection = executor.getTransaction().getConnection();
+        String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ENGLISH);
+        boolean postgres = product.contains("postgresql");
+        if (!postgres && !product.contains("mysql") && !product.contains("mariadb")) {
+            return null;
+        }
+        String sql = (postgres ? "EXPLAIN (FORMAT JSON) " : "EXPLAIN ") + boundSql.getSql();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            new DefaultParameterHandler(ms, parameter, boundSql).setParameters(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                if (postgres) {
+                    Matcher matcher = PLAN_ROWS.matcher(rs.getString(1));
+                    return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+                }
+                long rows = rs.getLong("rows");
+                double filtered = rs.getDouble("filtered");
+                return rs.wasNull() ? rows : Math.round(rows * filtered / 100);
+            }
+        }
+    }
+}
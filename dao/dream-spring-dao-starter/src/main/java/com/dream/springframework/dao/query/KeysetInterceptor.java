@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import com.dream.springframework.dao.model.Keyset;
+import com.dream.springframework.dao.model.Order;
+import com.dream.springframework.dao.model.OrderColumn;
+import com.dream.springframework.dao.util.PageUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.sf.jsqlparser.JSQLParserException;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * MyBatis interceptor appending keyset predicate of {@link PageUtil#startKeyset(String, Integer, List)} to the next select
+ * <p>
+ * Seeks after the cursor values by {@code (k1, k2) > (?, ?)} when all order columns share the same direction and NULL values sort
+ * first, otherwise by the expanded form {@code k1 > ? OR (k1 = ? AND k2 < ?)}. NULL values are placed where the database sorts them
+ * (see {@link NullOrdering}), e.g. a column sorting NULL last is sought by {@code (k1 > ? OR k1 IS NULL)}, and a NULL cursor value by
+ * {@code k1 IS NULL} or {@code k1 IS NOT NULL}. Like organization scope, it must wrap {@link com.github.pagehelper.PageInterceptor},
+ * which then appends order and limit.
+ *
+ * @author DreamJM
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})})
+public class KeysetInterceptor implements Interceptor {
+
+    private static final String PARAM_PREFIX = "__keyset_";
+
+    private static final int TEMPLATE_CACHE_SIZE = 1024;
+
+    private final Cache<String, PredicateSql> templates = CacheBuilder.newBuilder().maximumSize(TEMPLATE_CACHE_SIZE).build();
+
+    private volatile NullOrdering nullOrdering;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        Keyset keyset = PageUtil.getLocalKeyset();
+        if (keyset == null || ms.getSqlCommandType() != SqlCommandType.SELECT) {
+            return invocation.proceed();
+        }
+        // only the first select after starting keyset is paginated, same as PageHelper
+        PageUtil.clearKeyset();
+        if (keyset.getValues() == null) {
+            return invocation.proceed();
+        }
+        Object parameter = args[1];
+        RowBounds rowBounds = (RowBounds) args[2];
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+        PredicateSql template = templates.getIfPresent(boundSql.getSql());
+        if (template == null) {
+            try {
+                template = PredicateSql.parse(boundSql.getSql(), false);
+            } catch (JSQLParserException | IllegalArgumentException e) {
+                throw new PersistenceException("Failed to apply keyset pagination to " + ms.getId(), e);
+            }
+            templates.put(boundSql.getSql(), template);
+        }
+        Configuration configuration = ms.getConfiguration();
+        Executor executor = (Executor) invocation.getTarget();
+        NullOrdering nulls = getNullOrdering(executor);
+        BoundSql seeking = template.bind(ms, boundSql, (index, sql, mappings, additionalParameters) ->
+                appendPredicate(sql, keyset, nulls, mappings, additionalParameters, configuration));
+        CacheKey cacheKey = executor.createCacheKey(ms, parameter, rowBounds, seeking);
+        return executor.query(ms, parameter, rowBounds, (ResultHandler<?>) args[3], cacheKey, seeking);
+    }
+
+    private NullOrdering getNullOrdering(Executor executor) throws SQLException {
+        if (nullOrdering == null) {
+            nullOrdering = NullOrdering.of(executor);
+        }
+        return nullOrdering;
+    }
+
+    private static void appendPredicate(StringBuilder sql, Keyset keyset, NullOrdering nulls, List<ParameterMapping> mappings,
+                                        Map<String, Object> additionalParameters, Configuration configuration) {
+        List<OrderColumn> columns = keyset.getColumns();
+        Object[] values = keyset.getValues();
+        for (int i = 0; i < values.length; i++) {
+            additionalParameters.put(PARAM_PREFIX + i, values[i]);
+        }
+        boolean uniform = columns.stream().allMatch(column -> isDesc(column) == isDesc(columns.get(0)))
+                && nulls.isFirst(isDesc(columns.get(0))) && Arrays.stream(values).allMatch(Objects::nonNull);
+        if (uniform) {
+            String operator = isDesc(columns.get(0)) ? " < " : " > ";
+            if (columns.size() == 1) {
+                sql.append(columns.get(0).getOrderBy()).append(operator);
+                appendParam(sql, 0, values, mappings, configuration);
+                return;
+            }
+            sql.append('(');
+            for (int i = 0; i < columns.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append(columns.get(i).getOrderBy());
+            }
+            sql.append(')').append(operator).append('(');
+            for (int i = 0; i < columns.size(); i++) {
+                sql.append(i == 0 ? "" : ", ");
+                appendParam(sql, i, values, mappings, configuration);
+            }
+            sql.append(')');
+            return;
+        }
+        sql.append('(');
+        boolean first = true;
+        for (int i = 0; i < columns.size(); i++) {
+            OrderColumn column = columns.get(i);
+            boolean nullsFirst = nulls.isFirst(isDesc(column));
+            if (values[i] == null && !nullsFirst) {
+                // nothing sorts after NULL in this column
+                continue;
+            }
+            sql.append(first ? "(" : " OR (");
+            first = false;
+            for (int j = 0; j < i; j++) {
+                if (values[j] == null) {
+                    sql.append(columns.get(j).getOrderBy()).append(" IS NULL AND ");
+                } else {
+                    sql.append(columns.get(j).getOrderBy()).append(" = ");
+                    appendParam(sql, j, values, mappings, configuration);
+                    sql.append(" AND ");
+                }
+            }
+            if (values[i] == null) {
+                sql.append(column.getOrderBy()).append(" IS NOT NULL");
+            } else if (nullsFirst) {
+                sql.append(column.getOrderBy()).append(isDesc(column) ? " < " : " > ");
+                appendParam(sql, i, values, mappings, configuration);
+            } else {
+                sql.append('(').append(column.getOrderBy()).append(isDesc(column) ? " < " : " > ");
+                appendParam(sql, i, values, mappings, configuration);
+                sql.append(" OR ").append(column.getOrderBy()).append(" IS NULL)");
+            }
+            sql.append(')');
+        }
+        if (first) {
+            // the cursor is already at the end
+            sql.append("1 = 0");
+        }
+        sql.append(')');
+    }
+
+    private static void appendParam(StringBuilder sql, int index, Object[] values, List<ParameterMapping> mappings,
+                                    Configuration configuration) {
+        sql.append('?');
+        mappings.add(new ParameterMapping.Builder(configuration, PARAM_PREFIX + index, values[index].getClass()).build());
+    }
+
+    private static boolean isDesc(OrderColumn column) {
+        return column.getOrder() != null && column.getOrder() == Order.ORDER_DESC;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import org.apache.ibatis.executor.Executor;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * Where the database sorts NULL values, reported by {@link DatabaseMetaData}
+ *
+ * @author DreamJM
+ */
+public enum NullOrdering {
+
+    /**
+     * NULL is lower than any value, first in ascending and last in descending order, e.g. MySQL, H2 and SQL Server
+     */
+    LOW,
+
+    /**
+     * NULL is higher than any value, last in ascending and first in descending order, e.g. PostgreSQL and Oracle
+     */
+    HIGH,
+
+    /**
+     * NULL is first regardless of the order direction
+     */
+    START,
+
+    /**
+     * NULL is last regardless of the order direction
+     */
+    END;
+
+    /**
+     * @param desc whether in descending order
+     * @return whether NULL values are sorted before the others
+     */
+    public boolean isFirst(boolean desc) {
+        return this == START || (this == LOW && !desc) || (this == HIGH && desc);
+    }
+
+    /**
+     * @param metaData database metadata
+     * @return NULL ordering of the database
+     * @throws SQLException if failed to read metadata
+     */
+    public static NullOrdering of(DatabaseMetaData metaData) throws SQLException {
+        if (metaData.nullsAreSortedAtStart()) {
+            return START;
+        } else if (metaData.nullsAreSortedAtEnd()) {
+            return END;
+        }
+        return metaData.nullsAreSortedHigh() ? HIGH : LOW;
+    }
+
+    /**
+     * @param executor MyBatis executor, whose connection is obtained if not yet
+     * @return NULL ordering of the database of the executor
+     * @throws SQLException if failed to read metadata
+     */
+    public static NullOrdering of(Executor executor) throws SQLException {
+        return of(executor.getTransaction().getConnection().getMetaData());
+    }
+}
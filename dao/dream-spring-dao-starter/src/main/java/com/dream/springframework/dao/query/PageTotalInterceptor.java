@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import com.dream.springframework.base.model.TotalMode;
+import com.dream.springframework.dao.DreamDaoProperties;
+import com.dream.springframework.dao.model.DreamPage;
+import com.dream.springframework.dao.util.PageUtil;
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * MyBatis interceptor producing page total by {@link TotalMode#CACHED} or {@link TotalMode#ESTIMATED} mode
+ * <p>
+ * Cached totals are keyed by the MyBatis cache key of the unpaged statement (statement id, sql and parameter values), so identical
+ * conditions share the total until TTL expires. When a total is available, count query of {@link com.github.pagehelper.PageInterceptor}
+ * is turned off, so this interceptor must wrap it. Otherwise exact count is used and reported.
+ *
+ * @author DreamJM
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})})
+public class PageTotalInterceptor implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageTotalInterceptor.class);
+
+    private final Cache<CacheKey, Long> totals;
+
+    private final Supplier<TotalEstimator> estimatorSupplier;
+
+    /**
+     * @param properties        total cache properties
+     * @param estimatorSupplier supplier of total estimator
+     */
+    public PageTotalInterceptor(DreamDaoProperties.TotalCache properties, Supplier<TotalEstimator> estimatorSupplier) {
+        this.totals = CacheBuilder.newBuilder().maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite().toMillis(), TimeUnit.MILLISECONDS).build();
+        this.estimatorSupplier = estimatorSupplier;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        TotalMode totalMode = PageUtil.getLocalTotalMode();
+        if (totalMode == null || ms.getSqlCommandType() != SqlCommandType.SELECT) {
+            return invocation.proceed();
+        }
+        PageUtil.clearTotalMode();
+        Page<?> localPage = PageHelper.getLocalPage();
+        if (localPage == null || !localPage.isCount()) {
+            return invocation.proceed();
+        }
+        Object parameter = args[1];
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+        Executor executor = (Executor) invocation.getTarget();
+        if (totalMode == TotalMode.CACHED) {
+            CacheKey key = executor.createCacheKey(ms, parameter, RowBounds.DEFAULT, boundSql);
+            Long total = totals.getIfPresent(key);
+            if (total == null) {
+                Object result = invocation.proceed();
+                if (result instanceof Page) {
+                    totals.put(key, ((Page<?>) result).getTotal());
+                }
+                return result;
+            }
+            localPage.setCount(false);
+            return toDreamPage(invocation.proceed(), total, TotalMode.CACHED);
+        }
+        Long estimate = estimate(executor, ms, parameter, boundSql);
+        if (estimate == null) {
+            return invocation.proceed();
+        }
+        localPage.setCount(false);
+        return toDreamPage(invocation.proceed(), estimate, TotalMode.ESTIMATED);
+    }
+
+    private Long estimate(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql) {
+        TotalEstimator estimator = estimatorSupplier.get();
+        if (estimator == null) {
+            return null;
+        }
+        try {
+            return estimator.estimate(executor, ms, parameter, boundSql);
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Failed to estimate total of {}, exact count is used", ms.getId(), e);
+            return null;
+        }
+    }
+
+    private static Object toDreamPage(Object result, long total, TotalMode totalMode) {
+        if (!(result instanceof Page)) {
+            return result;
+        }
+        Page<?> page = (Page<?>) result;
+        DreamPage<Object> dreamPage = new DreamPage<>(page.getPageNum(), page.getPageSize(), totalMode);
+        dreamPage.addAll(page);
+        long fetched = page.getStartRow() + page.size();
+        if (page.isEmpty()) {
+            dreamPage.setTotal(Math.min(total, page.getStartRow()));
+            dreamPage.setHasNext(false);
+        } else if (page.size() < page.getPageSize()) {
+            // last page, total is known exactly
+            dreamPage.setTotal(fetched);
+            dreamPage.setHasNext(false);
+        } else {
+            dreamPage.setTotal(Math.max(total, fetched));
+            dreamPage.setHasNext(totalMode == TotalMode.ESTIMATED || fetched < total);
+        }
+        return dreamPage;
+    }
+}
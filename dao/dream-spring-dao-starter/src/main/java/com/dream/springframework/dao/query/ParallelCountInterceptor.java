@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import com.dream.springframework.dao.routing.ReplicaRoutingContext;
+import com.dream.springframework.dao.routing.ShardRoutingContext;
+import com.dream.springframework.dao.util.DbQueryUtils;
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * MyBatis interceptor running count query of {@link com.github.pagehelper.PageInterceptor} concurrently with the data query
+ * <p>
+ * The count query runs on a bounded executor with its own session (and connection), request attributes are carried over so that
+ * request scoped interceptors (e.g. organization scope) apply the same way, so are routing, deadline and cancellation scope. The
+ * count is done sequentially as before when a transaction is active (a separate connection would not see its changes) or the
+ * executor is saturated.
+ * <p>
+ * As the count is not known before the data query, PageHelper 'reasonable' does not correct page numbers beyond the last page.
+ *
+ * @author DreamJM
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})})
+public class ParallelCountInterceptor implements Interceptor {
+
+    private static final boolean WEB_PRESENT = ClassUtils.isPresent("org.springframework.web.context.request.RequestContextHolder",
+            ParallelCountInterceptor.class.getClassLoader());
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final java.util.concurrent.Executor countExecutor;
+
+    /**
+     * @param sqlSessionFactory session factory to open count sessions
+     * @param countExecutor     bounded executor for count queries
+     */
+    public ParallelCountInterceptor(SqlSessionFactory sqlSessionFactory, java.util.concurrent.Executor countExecutor) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.countExecutor = countExecutor;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Page<?> page = PageHelper.getLocalPage();
+        // count only pages (page size below 1) are issued by count sessions themselves
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT || page == null || !page.isCount() || page.getPageSize() <= 0
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        Object parameter = invocation.getArgs()[1];
+        CountState state = new CountState(ms.getId(), parameter);
+        CompletableFuture<Long> count;
+        try {
+            count = CompletableFuture.supplyAsync(() -> count(state), countExecutor);
+        } catch (RejectedExecutionException e) {
+            return invocation.proceed();
+        }
+        page.setCount(false);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            count.cancel(false);
+            throw e;
+        }
+        long total;
+        try {
+            total = count.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+        if (result instanceof Page) {
+            ((Page<?>) result).setTotal(total);
+        }
+        return result;
+    }
+
+    private long count(CountState state) {
+        if (!WEB_PRESENT) {
+            return doCount(state);
+        }
+        RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes((RequestAttributes) state.attributes);
+        try {
+            return doCount(state);
+        } finally {
+            RequestContextHolder.setRequestAttributes(previous);
+        }
+    }
+
+    private long doCount(CountState state) {
+        // count query follows routing, deadline and cancellation of the data query
+        boolean previousReadOnly = ReplicaRoutingContext.setReadOnly(state.readOnly);
+        List<String> previousShards = ShardRoutingContext.setShards(state.shards);
+        Long previousDeadline = DbQueryUtils.setLocalDeadline(state.deadline);
+        QueryCancellation previousCancellation = QueryCancellation.bind(state.cancellation);
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            return PageHelper.count(() -> session.selectList(state.statementId, state.parameter));
+        } finally {
+            QueryCancellation.bind(previousCancellation);
+            DbQueryUtils.setLocalDeadline(previousDeadline);
+            ShardRoutingContext.setShards(previousShards);
+            ReplicaRoutingContext.setReadOnly(previousReadOnly);
+        }
+    }
+
+    /**
+     * State of the data query thread carried over to the count query
+     */
+    private static class CountState {
+
+        private final String statementId;
+
+        private final Object parameter;
+
+        private final Object attributes;
+
+        private final boolean readOnly;
+
+        private final List<String> shards;
+
+        private final Long deadline;
+
+        private final QueryCancellation cancellation;
+
+        private CountState(String statementId, Object parameter) {
+            this.statementId = statementId;
+            this.parameter = parameter;
+            this.attributes = WEB_PRESENT ? RequestContextHolder.getRequestAttributes() : null;
+            this.readOnly = ReplicaRoutingContext.isReadOnly();
+            this.shards = ShardRoutingContext.getShards();
+            this.deadline = DbQueryUtils.getLocalDeadline();
+            this.cancellation = QueryCancellation.current();
+        }
+    }
+}
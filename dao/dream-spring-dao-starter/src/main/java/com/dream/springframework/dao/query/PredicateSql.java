@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.SystemMetaObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Select statement template with a predicate marker ANDed into where clause
+ * <p>
+ * The statement is parsed once, markers are located in the printed sql together with count of original placeholders before each
+ * marker, so that predicates and their parameter mappings can be spliced in for every execution without parsing again.
+ *
+ * @author DreamJM
+ */
+public final class PredicateSql {
+
+    private static final String MARKER = "__dream_predicate__";
+
+    private final String[] parts;
+
+    /**
+     * Count of original placeholders before each marker
+     */
+    private final int[] paramsBefore;
+
+    private final int paramCount;
+
+    private PredicateSql(String[] parts, int[] paramsBefore, int paramCount) {
+        this.parts = parts;
+        this.paramsBefore = paramsBefore;
+        this.paramCount = paramCount;
+    }
+
+    /**
+     * Parses select statement and marks its where clause
+     *
+     * @param sql           select statement
+     * @param unionBranches whether to mark every branch of UNION, otherwise UNION is not supported
+     * @return predicate sql template
+     * @throws JSQLParserException      if failed to parse sql
+     * @throws IllegalArgumentException if the statement is not supported
+     */
+    public static PredicateSql parse(String sql, boolean unionBranches) throws JSQLParserException {
+        Statement statement = CCJSqlParserUtil.parse(sql);
+        if (!(statement instanceof Select)) {
+            throw new IllegalArgumentException("Not a select statement");
+        }
+        int markers = mark(((Select) statement).getSelectBody(), unionBranches);
+        String text = statement.toString();
+        List<String> parts = new ArrayList<>();
+        List<Integer> paramsBefore = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        int params = 0;
+        char quote = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                // escaped quote '' simply closes and reopens the literal
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '?') {
+                params++;
+            } else if (text.startsWith(MARKER, i)) {
+                parts.add(part.toString());
+                paramsBefore.add(params);
+                part.setLength(0);
+                i += MARKER.length() - 1;
+                continue;
+            }
+            part.append(c);
+        }
+        parts.add(part.toString());
+        if (paramsBefore.size() != markers) {
+            throw new IllegalArgumentException("Predicate marker not found");
+        }
+        return new PredicateSql(parts.toArray(new String[0]), paramsBefore.stream().mapToInt(Integer::intValue).toArray(), params);
+    }
+
+    private static int mark(SelectBody body, boolean unionBranches) {
+        if (body instanceof PlainSelect) {
+            PlainSelect select = (PlainSelect) body;
+            Expression marker = new Column(MARKER);
+            select.setWhere(select.getWhere() == null ? marker : new AndExpression(new Parenthesis(select.getWhere()), marker));
+            return 1;
+        }
+        if (unionBranches && body instanceof SetOperationList) {
+            int count = 0;
+            for (SelectBody branch : ((SetOperationList) body).getSelects()) {
+                count += mark(branch, true);
+            }
+            return count;
+        }
+        throw new IllegalArgumentException("Unsupported select " + body.getClass().getSimpleName());
+    }
+
+    /**
+     * Builds bound sql with predicates written at markers
+     *
+     * @param ms       mapped statement
+     * @param boundSql original bound sql the template parsed from
+     * @param writer   predicate writer
+     * @return bound sql with predicates
+     */
+    public BoundSql bind(MappedStatement ms, BoundSql boundSql, PredicateWriter writer) {
+        List<ParameterMapping> original = boundSql.getParameterMappings();
+        if (paramCount != original.size()) {
+            throw new PersistenceException("Failed to append predicate to " + ms.getId() + ": " + paramCount
+                    + " placeholders found for " + original.size() + " parameters");
+        }
+        StringBuilder sql = new StringBuilder(parts[0]);
+        List<ParameterMapping> mappings = new ArrayList<>(original.size() + 8);
+        Map<String, Object> additionalParameters = new HashMap<>(additionalParameters(boundSql));
+        int consumed = 0;
+        for (int i = 0; i < paramsBefore.length; i++) {
+            mappings.addAll(original.subList(consumed, paramsBefore[i]));
+            consumed = paramsBefore[i];
+            writer.write(i, sql, mappings, additionalParameters);
+            sql.append(parts[i + 1]);
+        }
+        mappings.addAll(original.subList(consumed, original.size()));
+        BoundSql result = new BoundSql(ms.getConfiguration(), sql.toString(), mappings, boundSql.getParameterObject());
+        additionalParameters(result).putAll(additionalParameters);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> additionalParameters(BoundSql boundSql) {
+        return (Map<String, Object>) SystemMetaObject.forObject(boundSql).getValue("additionalParameters");
+    }
+
+    /**
+     * Copies mapped statement with fixed bound sql, e.g. for {@code Executor#queryCursor} which builds bound sql by itself
+     *
+     * @param ms       mapped statement
+     * @param boundSql bound sql
+     * @return mapped statement always providing the bound sql
+     */
+    public static MappedStatement withBoundSql(MappedStatement ms, BoundSql boundSql) {
+        MappedStatement.Builder builder = new MappedStatement.Builder(ms.getConfiguration(), ms.getId(), parameter -> boundSql,
+                ms.getSqlCommandType())
+                .resource(ms.getResource()).fetchSize(ms.getFetchSize()).timeout(ms.getTimeout())
+                .statementType(ms.getStatementType()).resultSetType(ms.getResultSetType()).parameterMap(ms.getParameterMap())
+                .resultMaps(ms.getResultMaps()).resultOrdered(ms.isResultOrdered()).cache(ms.getCache())
+                .flushCacheRequired(ms.isFlushCacheRequired()).useCache(ms.isUseCache()).databaseId(ms.getDatabaseId())
+                .lang(ms.getLang()).keyGenerator(ms.getKeyGenerator());
+        if (ms.getKeyProperties() != null) {
+            builder.keyProperty(String.join(",", ms.getKeyProperties()));
+        }
+        if (ms.getResultSets() != null) {
+            builder.resultSets(String.join(",", ms.getResultSets()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes predicate sql and its parameters at a marker
+     */
+    @FunctionalInterface
+    public interface PredicateWriter {
+
+        /**
+         * @param index                marker index
+         * @param sql                  sql to append predicate to
+         * @param mappings             parameter mappings to append predicate parameters to
+         * @param additionalParameters additional parameters to put predicate parameter values to
+         */
+        void write(int index, StringBuilder sql, List<ParameterMapping> mappings, Map<String, Object> additionalParameters);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cancellation scope of the statements executed on behalf of a request (or any other unit of work)
+ * <p>
+ * Statements executing on threads bound to the scope are registered by {@link StatementTimeoutInterceptor}. Once cancelled, executing
+ * statements are cancelled by the driver and later statements fail before execution.
+ *
+ * @author DreamJM
+ */
+public class QueryCancellation {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCancellation.class);
+
+    private static final ThreadLocal<QueryCancellation> LOCAL_CANCELLATION = new ThreadLocal<>();
+
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cancelled;
+
+    /**
+     * @return cancellation scope bound to current thread, null if none
+     */
+    public static QueryCancellation current() {
+        return LOCAL_CANCELLATION.get();
+    }
+
+    /**
+     * @param cancellation cancellation scope to bind to current thread, null to unbind
+     * @return previous scope, to be restored afterwards
+     */
+    public static QueryCancellation bind(QueryCancellation cancellation) {
+        QueryCancellation previous = LOCAL_CANCELLATION.get();
+        if (cancellation == null) {
+            LOCAL_CANCELLATION.remove();
+        } else {
+            LOCAL_CANCELLATION.set(cancellation);
+        }
+        return previous;
+    }
+
+    /**
+     * @return whether the scope has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels executing statements of the scope, and fails the later ones
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException | RuntimeException e) {
+                logger.debug("Failed to cancel statement", e);
+            }
+        }
+    }
+
+    void register(Statement statement) throws SQLException {
+        statements.add(statement);
+        if (cancelled) {
+            // cancelled concurrently before registered
+            statements.remove(statement);
+            throw cancelledException();
+        }
+    }
+
+    void unregister(Statement statement) {
+        statements.remove(statement);
+    }
+
+    static SQLException cancelledException() {
+        return new SQLException("Statement cancelled as its request has been abandoned");
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.Callable;
+
+/**
+ * Handler interceptor binding a {@link QueryCancellation} scope to every request
+ * <p>
+ * Statements of asynchronous requests are cancelled when the async request times out or fails, e.g. the container detects that the
+ * client has disconnected. {@link Callable} handlers are bound to the scope on their async threads, while code completing a
+ * {@link DeferredResult} may bind the scope of {@link #getCancellation(ServletRequest)} itself. Synchronous requests are not signaled
+ * by the servlet container when the client disconnects, and are bounded by query timeouts instead.
+ *
+ * @author DreamJM
+ */
+public class QueryCancellationInterceptor extends HandlerInterceptorAdapter {
+
+    private static final String CANCELLATION_ATTRIBUTE = QueryCancellationInterceptor.class.getName() + ".CANCELLATION";
+
+    private static final Object ASYNC_INTERCEPTOR_KEY = QueryCancellationInterceptor.class.getName();
+
+    /**
+     * @param request current request
+     * @return cancellation scope of the request, null if not intercepted
+     */
+    public static QueryCancellation getCancellation(ServletRequest request) {
+        return (QueryCancellation) request.getAttribute(CANCELLATION_ATTRIBUTE);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCancellation cancellation = getCancellation(request);
+        if (cancellation == null) {
+            cancellation = new QueryCancellation();
+            request.setAttribute(CANCELLATION_ATTRIBUTE, cancellation);
+            WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+            asyncManager.registerCallableInterceptor(ASYNC_INTERCEPTOR_KEY, new CallableCancellation(cancellation));
+            asyncManager.registerDeferredResultInterceptor(ASYNC_INTERCEPTOR_KEY, new DeferredResultCancellation(cancellation));
+        }
+        QueryCancellation.bind(cancellation);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCancellation.bind(null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryCancellation.bind(null);
+    }
+
+    private static class CallableCancellation implements CallableProcessingInterceptor {
+
+        private final QueryCancellation cancellation;
+
+        private CallableCancellation(QueryCancellation cancellation) {
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            QueryCancellation.bind(cancellation);
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            QueryCancellation.bind(null);
+        }
+
+        @Override
+        public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+            cancellation.cancel();
+            return RESULT_NONE;
+        }
+
+        @Override
+        public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+            cancellation.cancel();
+            return RESULT_NONE;
+        }
+    }
+
+    private static class DeferredResultCancellation implements DeferredResultProcessingInterceptor {
+
+        private final QueryCancellation cancellation;
+
+        private DeferredResultCancellation(QueryCancellation cancellation) {
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        public <T> boolean handleTimeout(NativeWebRequest request, DeferredResult<T> deferredResult) {
+            cancellation.cancel();
+            return true;
+        }
+
+        @Override
+        public <T> boolean handleError(NativeWebRequest request, DeferredResult<T> deferredResult, Throwable t) {
+            cancellation.cancel();
+            return true;
+        }
+    }
+}
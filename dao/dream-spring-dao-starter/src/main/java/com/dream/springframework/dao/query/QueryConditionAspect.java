@@ -17,16 +17,29 @@
 package com.dream.springframework.dao.query;
 
 import com.dream.springframework.dao.annotation.QueryCondition;
+import com.dream.springframework.dao.cache.PageResultCache;
 import com.dream.springframework.dao.model.BaseCondition;
+import com.dream.springframework.dao.scope.OrgScopeProvider;
 import com.dream.springframework.dao.util.DbQueryUtils;
 import com.github.pagehelper.Page;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 /**
  * Query condition aspect to apply paging or ordering parameters using {@link com.github.pagehelper.PageHelper}
+ * <p>
+ * Results of {@link QueryCondition#cache()} methods are served from {@link PageResultCache} if present. Cache keys contain visible
+ * organizations of {@link OrgScopeProvider}, and the cache is bypassed inside non read-only transactions, which may read their own
+ * uncommitted modifications.
  *
  * @author DreamJM
  * @see QueryCondition
@@ -34,6 +47,35 @@ import org.aspectj.lang.annotation.Pointcut;
 @Aspect
 public class QueryConditionAspect {
 
+    private final PageResultCache cache;
+
+    private final Supplier<OrgScopeProvider> scopeProvider;
+
+    private final Duration defaultTimeout;
+
+    public QueryConditionAspect() {
+        this(null, () -> null);
+    }
+
+    /**
+     * @param cache         paged results cache, nullable
+     * @param scopeProvider organization scope provider supplier
+     */
+    public QueryConditionAspect(PageResultCache cache, Supplier<OrgScopeProvider> scopeProvider) {
+        this(cache, scopeProvider, null);
+    }
+
+    /**
+     * @param cache          paged results cache, nullable
+     * @param scopeProvider  organization scope provider supplier
+     * @param defaultTimeout time budget of queries whose condition has no timeout, null for no limit
+     */
+    public QueryConditionAspect(PageResultCache cache, Supplier<OrgScopeProvider> scopeProvider, Duration defaultTimeout) {
+        this.cache = cache;
+        this.scopeProvider = scopeProvider;
+        this.defaultTimeout = defaultTimeout;
+    }
+
     @Pointcut("@annotation(queryCondition)")
     public void applyQueryCondition(QueryCondition queryCondition) {
     }
@@ -47,10 +89,34 @@ public class QueryConditionAspect {
                 break;
             }
         }
-        if (condition != null) {
-            return DbQueryUtils.applyQueryConditionThrowable(condition, appliedCondition -> (Page<?>) joinPoint.proceed());
+        if (condition == null) {
+            return joinPoint.proceed();
+        }
+        BaseCondition query = condition;
+        if (cache == null || !queryCondition.cache() || isWritableTransaction()) {
+            return applyQueryCondition(joinPoint, query);
+        }
+        String key = cache.key(((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getArgs(), getScope());
+        Page<?> page = cache.get(key);
+        if (page != null) {
+            return page;
         }
-        return joinPoint.proceed();
+        return cache.load(key, queryCondition.tables(), () -> applyQueryCondition(joinPoint, query));
+    }
+
+    private Page<?> applyQueryCondition(ProceedingJoinPoint joinPoint, BaseCondition condition) throws Throwable {
+        return DbQueryUtils.applyQueryConditionEx(condition, defaultTimeout, appliedCondition -> (Page<?>) joinPoint.proceed());
+    }
+
+    private Object getScope() {
+        OrgScopeProvider provider = scopeProvider.get();
+        Collection<String> orgIds = provider == null ? null : provider.getOrgIds();
+        return orgIds == null ? null : new TreeSet<>(orgIds);
+    }
+
+    private static boolean isWritableTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
     }
 
 }
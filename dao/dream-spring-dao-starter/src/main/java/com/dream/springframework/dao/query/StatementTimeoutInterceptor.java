@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import com.dream.springframework.dao.util.DbQueryUtils;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis interceptor applying query deadline of {@link DbQueryUtils} as statement timeout, and registering executing statements to
+ * {@link QueryCancellation} of current thread
+ * <p>
+ * Timeouts are in seconds rounded up, and never extend the statement's own (or transaction's) timeout. Statements are failed before
+ * execution if the deadline has passed or the cancellation scope has been cancelled. Cursor statements are not registered, as they
+ * are still in use after the intercepted call.
+ *
+ * @author DreamJM
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}),
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = Statement.class)})
+public class StatementTimeoutInterceptor implements Interceptor {
+
+    private static final String PREPARE = "prepare";
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        QueryCancellation cancellation = QueryCancellation.current();
+        if (cancellation != null && cancellation.isCancelled()) {
+            throw QueryCancellation.cancelledException();
+        }
+        if (PREPARE.equals(invocation.getMethod().getName())) {
+            return prepare(invocation);
+        }
+        if (cancellation == null) {
+            return invocation.proceed();
+        }
+        Statement statement = (Statement) invocation.getArgs()[0];
+        cancellation.register(statement);
+        try {
+            return invocation.proceed();
+        } finally {
+            cancellation.unregister(statement);
+        }
+    }
+
+    private static Object prepare(Invocation invocation) throws Throwable {
+        Long deadline = DbQueryUtils.getLocalDeadline();
+        Object result = invocation.proceed();
+        if (deadline == null || !(result instanceof Statement)) {
+            return result;
+        }
+        Statement statement = (Statement) result;
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            statement.close();
+            throw new SQLTimeoutException("Query deadline exceeded before execution");
+        }
+        int seconds = (int) Math.min(Integer.MAX_VALUE, (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        int current = statement.getQueryTimeout();
+        if (current == 0 || seconds < current) {
+            statement.setQueryTimeout(seconds);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.query;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+
+import java.sql.SQLException;
+
+/**
+ * Estimates total count of a select statement for {@link com.dream.springframework.base.model.TotalMode#ESTIMATED} paging
+ *
+ * @author DreamJM
+ */
+public interface TotalEstimator {
+
+    /**
+     * @param executor  executor of current session, statements should use its connection
+     * @param ms        mapped statement
+     * @param parameter parameter object
+     * @param boundSql  bound sql before paging
+     * @return estimated total count, or null if not supported so that exact count is used
+     * @throws SQLException if failed to estimate
+     */
+    Long estimate(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql) throws SQLException;
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes tracker, the rest of a request after it writes, and requests of the same stickiness key within the window, read
+ * from the primary database
+ *
+ * @author DreamJM
+ */
+public class ReadYourWritesTracker {
+
+    private static final boolean WEB_PRESENT = ClassUtils.isPresent("org.springframework.web.context.request.RequestContextHolder",
+            ReadYourWritesTracker.class.getClassLoader());
+
+    private static final String WRITTEN_ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".WRITTEN";
+
+    private final Cache<String, Boolean> writtenKeys;
+
+    private final Supplier<StickinessKeyResolver> keyResolver;
+
+    /**
+     * @param window      stickiness window after writing
+     * @param maximumKeys maximum tracked stickiness keys
+     * @param keyResolver stickiness key resolver supplier
+     */
+    public ReadYourWritesTracker(Duration window, long maximumKeys, Supplier<StickinessKeyResolver> keyResolver) {
+        this.writtenKeys = CacheBuilder.newBuilder().maximumSize(maximumKeys).expireAfterWrite(window.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.keyResolver = keyResolver;
+    }
+
+    /**
+     * Marks current request written
+     */
+    public void markWritten() {
+        ServletRequestAttributes attributes = getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        attributes.setAttribute(WRITTEN_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        String key = keyResolver.get().resolve(attributes.getRequest());
+        if (key != null) {
+            writtenKeys.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return whether current request should read from the primary database
+     */
+    public boolean isSticky() {
+        ServletRequestAttributes attributes = getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        if (attributes.getAttribute(WRITTEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        String key = keyResolver.get().resolve(attributes.getRequest());
+        return key != null && writtenKeys.getIfPresent(key) != null;
+    }
+
+    private static ServletRequestAttributes getRequestAttributes() {
+        if (!WEB_PRESENT) {
+            return null;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? (ServletRequestAttributes) attributes : null;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marks {@link com.dream.springframework.dao.annotation.QueryCondition} and {@link com.dream.springframework.dao.annotation.ReadOnly}
+ * methods read only for {@link ReplicaRoutingDataSource}, unless they run in a transaction
+ *
+ * @author DreamJM
+ */
+@Aspect
+public class ReplicaRoutingAspect {
+
+    @Pointcut("@annotation(com.dream.springframework.dao.annotation.QueryCondition)"
+            + " || @annotation(com.dream.springframework.dao.annotation.ReadOnly)"
+            + " || @within(com.dream.springframework.dao.annotation.ReadOnly)")
+    public void readOnlyMethod() {
+    }
+
+    @Around("readOnlyMethod()")
+    public Object aroundMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ReplicaRoutingContext.isReadOnly() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        ReplicaRoutingContext.setReadOnly(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingContext.setReadOnly(false);
+        }
+    }
+}
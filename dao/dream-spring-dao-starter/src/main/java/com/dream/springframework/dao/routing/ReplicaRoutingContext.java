@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+/**
+ * Thread bound replica routing state
+ *
+ * @author DreamJM
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> LOCAL_READ_ONLY = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * @return whether connections obtained by current thread may be routed to read replicas
+     */
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(LOCAL_READ_ONLY.get());
+    }
+
+    /**
+     * @param readOnly whether connections obtained by current thread may be routed to read replicas
+     * @return previous state, to be restored afterwards
+     */
+    public static boolean setReadOnly(boolean readOnly) {
+        boolean previous = isReadOnly();
+        if (readOnly) {
+            LOCAL_READ_ONLY.set(Boolean.TRUE);
+        } else {
+            LOCAL_READ_ONLY.remove();
+        }
+        return previous;
+    }
+}
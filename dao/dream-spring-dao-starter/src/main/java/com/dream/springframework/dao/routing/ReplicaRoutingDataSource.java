@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source routing read only connections to replicas
+ * <p>
+ * Connections obtained in {@link ReplicaRoutingContext#isReadOnly() read only} contexts without read-your-writes stickiness are taken
+ * from the replica with the least outstanding connections, ties are broken round robin. Any other connection, and read only ones
+ * when the chosen replica fails, are taken from the primary data source. Transactions should not be started inside read only
+ * contexts, since their connections would be routed to replicas.
+ *
+ * @author DreamJM
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final ReadYourWritesTracker tracker;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary  primary data source
+     * @param replicas replica data sources
+     * @param tracker  read-your-writes tracker
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWritesTracker tracker) {
+        super(primary);
+        replicas.forEach(replica -> this.replicas.add(new Replica(replica)));
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = chooseReplica();
+        if (replica == null) {
+            return super.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            logger.warn("Failed to get connection of replica, falls back to primary", e);
+            return super.getConnection();
+        }
+    }
+
+    /**
+     * @return outstanding connections of every replica
+     */
+    public int[] getOutstandings() {
+        return replicas.stream().mapToInt(replica -> replica.outstanding.get()).toArray();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+        DataSource primary = getTargetDataSource();
+        if (primary instanceof AutoCloseable) {
+            ((AutoCloseable) primary).close();
+        }
+    }
+
+    private Replica chooseReplica() {
+        if (replicas.isEmpty() || !ReplicaRoutingContext.isReadOnly() || tracker.isSticky()) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        Replica chosen = null;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (chosen == null || replica.outstanding.get() < chosen.outstanding.get()) {
+                chosen = replica;
+            }
+        }
+        return chosen;
+    }
+
+    private static class Replica {
+
+        private final DataSource dataSource;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private Connection getConnection() throws SQLException {
+            outstanding.incrementAndGet();
+            Connection connection;
+            try {
+                connection = dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                outstanding.decrementAndGet();
+                throw e;
+            }
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                            return proxy == args[0];
+                        }
+                        if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if ("close".equals(method.getName()) && method.getParameterCount() == 0 && closed.compareAndSet(false, true)) {
+                            outstanding.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import com.dream.springframework.dao.DreamDaoProperties;
+import com.google.common.base.MoreObjects;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps the primary data source bean with {@link ReplicaRoutingDataSource}, so that MyBatis sessions and transaction managers
+ * created by other auto configurations use the routing data source
+ * <p>
+ * It is ordered before {@link ShardRoutingDataSourcePostProcessor}, so that replicas are only routed to by the primary shard.
+ *
+ * @author DreamJM
+ */
+public class ReplicaRoutingDataSourcePostProcessor implements BeanPostProcessor, BeanFactoryAware, EnvironmentAware, Ordered {
+
+    private static final String DATASOURCE_PREFIX = "spring.datasource.";
+
+    private BeanFactory beanFactory;
+
+    private Environment environment;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof DataSource) || bean instanceof ReplicaRoutingDataSource) {
+            return bean;
+        }
+        DreamDaoProperties.Replica properties = Binder.get(environment).bind("dream.dao.replica", DreamDaoProperties.Replica.class)
+                .orElseGet(DreamDaoProperties.Replica::new);
+        if (!properties.getDataSourceBeanName().equals(beanName)) {
+            return bean;
+        }
+        List<DataSource> replicas = properties.getDataSources().stream().map(replica -> createDataSource(replica, environment))
+                .collect(Collectors.toList());
+        return new ReplicaRoutingDataSource((DataSource) bean, replicas, beanFactory.getBean(ReadYourWritesTracker.class));
+    }
+
+    /**
+     * @param properties  data source properties
+     * @param environment environment to inherit unset properties from {@code spring.datasource}
+     * @return created data source
+     */
+    static DataSource createDataSource(DreamDaoProperties.ReplicaDataSource properties, Environment environment) {
+        return DataSourceBuilder.create(ReplicaRoutingDataSourcePostProcessor.class.getClassLoader()).url(properties.getUrl())
+                .username(MoreObjects.firstNonNull(properties.getUsername(), environment.getProperty(DATASOURCE_PREFIX + "username", "")))
+                .password(MoreObjects.firstNonNull(properties.getPassword(), environment.getProperty(DATASOURCE_PREFIX + "password", "")))
+                .driverClassName(properties.getDriverClassName() != null ? properties.getDriverClassName()
+                        : environment.getProperty(DATASOURCE_PREFIX + "driver-class-name")).build();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Routes organizations to their owning shards by consistent hashing
+ * <p>
+ * Every shard is placed on the hash ring as a number of virtual nodes, an organization is owned by the first node clockwise from
+ * its hash, so adding a shard only moves organizations of the ring segments it takes over.
+ *
+ * @author DreamJM
+ */
+public class ShardRouter {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final List<String> shards;
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * @param shards       shard names, the first one is the primary shard
+     * @param virtualNodes virtual nodes of every shard
+     */
+    public ShardRouter(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("At least one shard and one virtual node are required");
+        }
+        if (new LinkedHashSet<>(shards).size() != shards.size()) {
+            throw new IllegalArgumentException("Duplicate shard names: " + shards);
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(shard + '#' + i), shard);
+            }
+        }
+    }
+
+    /**
+     * @return all shard names, the first one is the primary shard
+     */
+    public List<String> getShards() {
+        return shards;
+    }
+
+    /**
+     * @return primary shard name
+     */
+    public String getPrimary() {
+        return shards.get(0);
+    }
+
+    /**
+     * @param orgId organization identity
+     * @return owning shard name
+     */
+    public String route(String orgId) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(orgId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @param orgIds organization identities
+     * @return distinct owning shard names, in the order of {@link #getShards()}
+     */
+    public List<String> route(Collection<String> orgIds) {
+        Set<String> owning = new LinkedHashSet<>();
+        for (String orgId : orgIds) {
+            owning.add(route(orgId));
+            if (owning.size() == shards.size()) {
+                return shards;
+            }
+        }
+        List<String> result = new ArrayList<>(owning.size());
+        for (String shard : shards) {
+            if (owning.contains(shard)) {
+                result.add(shard);
+            }
+        }
+        return result;
+    }
+
+    private static long hash(String value) {
+        return HASH.hashString(value, StandardCharsets.UTF_8).asLong();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import java.util.List;
+
+/**
+ * Thread bound shard routing state
+ *
+ * @author DreamJM
+ */
+public final class ShardRoutingContext {
+
+    private static final ThreadLocal<List<String>> LOCAL_SHARDS = new ThreadLocal<>();
+
+    private ShardRoutingContext() {
+    }
+
+    /**
+     * @return shards of current thread, statements are routed to the only one or scattered to all of them, null if not routed
+     */
+    public static List<String> getShards() {
+        return LOCAL_SHARDS.get();
+    }
+
+    /**
+     * @param shards shards of current thread, null to clear
+     * @return previous shards, to be restored afterwards
+     */
+    public static List<String> setShards(List<String> shards) {
+        List<String> previous = LOCAL_SHARDS.get();
+        if (shards == null) {
+            LOCAL_SHARDS.remove();
+        } else {
+            LOCAL_SHARDS.set(shards);
+        }
+        return previous;
+    }
+
+    /**
+     * @return the only shard of current thread, null if not routed or scattered to multiple shards
+     */
+    static String getShard() {
+        List<String> shards = LOCAL_SHARDS.get();
+        return shards != null && shards.size() == 1 ? shards.get(0) : null;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import com.dream.springframework.dao.DreamDaoProperties;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Wraps the primary data source bean with {@link ShardRoutingDataSource}, so that MyBatis sessions and transaction managers
+ * created by other auto configurations use the routing data source
+ * <p>
+ * It is ordered after {@link ReplicaRoutingDataSourcePostProcessor}, so that the primary shard is the replica routing data source
+ * if replica routing is enabled as well.
+ *
+ * @author DreamJM
+ */
+public class ShardRoutingDataSourcePostProcessor implements BeanPostProcessor, EnvironmentAware, Ordered {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof DataSource) || bean instanceof ShardRoutingDataSource) {
+            return bean;
+        }
+        DreamDaoProperties.Shard properties = Binder.get(environment).bind("dream.dao.shard", DreamDaoProperties.Shard.class)
+                .orElseGet(DreamDaoProperties.Shard::new);
+        if (!properties.getDataSourceBeanName().equals(beanName)) {
+            return bean;
+        }
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put(properties.getPrimaryName(), (DataSource) bean);
+        for (DreamDaoProperties.ShardDataSource shard : properties.getDataSources()) {
+            if (shard.getName() == null || shards.containsKey(shard.getName())) {
+                throw new IllegalStateException("Shard data source requires a unique name, but found " + shard.getName());
+            }
+            shards.put(shard.getName(), ReplicaRoutingDataSourcePostProcessor.createDataSource(shard, environment));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+}
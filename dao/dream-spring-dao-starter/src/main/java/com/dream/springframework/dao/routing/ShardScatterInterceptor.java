@@ -0,0 +1,457 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import com.dream.springframework.base.model.TotalMode;
+import com.dream.springframework.dao.cache.PageResultCache;
+import com.dream.springframework.dao.model.BaseCondition;
+import com.dream.springframework.dao.model.DreamPage;
+import com.dream.springframework.dao.model.Keyset;
+import com.dream.springframework.dao.model.Order;
+import com.dream.springframework.dao.model.OrderColumn;
+import com.dream.springframework.dao.query.NullOrdering;
+import com.dream.springframework.dao.query.QueryCancellation;
+import com.dream.springframework.dao.util.DbQueryUtils;
+import com.dream.springframework.dao.util.PageUtil;
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+import com.google.common.base.Strings;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * MyBatis interceptor scattering select statements to all shards of {@link ShardRoutingContext} and gathering their results
+ * <p>
+ * Every shard runs the statement concurrently on a bounded executor with its own session, paged by the first
+ * {@code offset + pageSize} rows (or one more than page size of keyset pagination), and the sorted rows are k-way merged by the
+ * resolved order columns of the {@link BaseCondition} parameter, so that the global page is correct without reading whole tables.
+ * Totals are the sum of shard totals. Shards are queried by the calling thread when the executor is saturated. Order column values
+ * must be comparable, and nulls are merged where the database sorts them (see {@link NullOrdering}). Since Java string order differs
+ * from database collations, rows ordered by string columns are only merged by a configured collator, and refused otherwise.
+ * <p>
+ * Statements other than selects, and cursor queries, can not be executed across shards. Same as other pagination interceptors, it
+ * is added after {@link com.github.pagehelper.PageInterceptor} to take over the paging started on the calling thread.
+ *
+ * @author DreamJM
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class ShardScatterInterceptor implements Interceptor {
+
+    private static final boolean WEB_PRESENT = ClassUtils.isPresent("org.springframework.web.context.request.RequestContextHolder",
+            ShardScatterInterceptor.class.getClassLoader());
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final java.util.concurrent.Executor scatterExecutor;
+
+    private final Comparator<Object> collator;
+
+    private volatile NullOrdering nullOrdering;
+
+    /**
+     * @param sqlSessionFactory session factory to open shard sessions
+     * @param scatterExecutor   bounded executor for shard queries
+     * @param collator          comparator of string order column values in the database collation, nullable to refuse merging them
+     */
+    public ShardScatterInterceptor(SqlSessionFactory sqlSessionFactory, java.util.concurrent.Executor scatterExecutor,
+                                   Comparator<Object> collator) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.scatterExecutor = scatterExecutor;
+        this.collator = collator;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        List<String> shards = ShardRoutingContext.getShards();
+        if (shards == null || shards.size() < 2) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT || args.length == 3) {
+            throw new PersistenceException("Statement " + ms.getId() + " can not be executed across shards " + shards
+                    + ", route it to a single organization");
+        }
+        Scatter scatter = new Scatter(ms.getId(), args[1], (RowBounds) args[2]);
+        List<CompletableFuture<List<?>>> futures = new ArrayList<>(shards.size());
+        for (String shard : shards) {
+            CompletableFuture<List<?>> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> query(shard, scatter), scatterExecutor);
+            } catch (RejectedExecutionException e) {
+                future = CompletableFuture.completedFuture(query(shard, scatter));
+            }
+            futures.add(future);
+        }
+        List<List<?>> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<List<?>> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw e.getCause();
+        } finally {
+            if (scatter.tables != null) {
+                synchronized (scatter.tables) {
+                    scatter.tables.forEach(PageResultCache::recordTables);
+                }
+            }
+        }
+        return gather(scatter, results);
+    }
+
+    private List<?> query(String shard, Scatter scatter) {
+        RequestAttributes previousAttributes = WEB_PRESENT ? RequestContextHolder.getRequestAttributes() : null;
+        if (WEB_PRESENT) {
+            RequestContextHolder.setRequestAttributes((RequestAttributes) scatter.attributes);
+        }
+        boolean previousReadOnly = ReplicaRoutingContext.setReadOnly(scatter.readOnly);
+        List<String> previousShards = ShardRoutingContext.setShards(Collections.singletonList(shard));
+        Long previousDeadline = DbQueryUtils.setLocalDeadline(scatter.deadline);
+        QueryCancellation previousCancellation = QueryCancellation.bind(scatter.cancellation);
+        try {
+            if (scatter.tables == null) {
+                return select(scatter);
+            }
+            Set<String> tables = new HashSet<>();
+            try {
+                return PageResultCache.recordTo(tables, () -> select(scatter));
+            } finally {
+                synchronized (scatter.tables) {
+                    scatter.tables.add(tables);
+                }
+            }
+        } finally {
+            QueryCancellation.bind(previousCancellation);
+            DbQueryUtils.setLocalDeadline(previousDeadline);
+            ShardRoutingContext.setShards(previousShards);
+            ReplicaRoutingContext.setReadOnly(previousReadOnly);
+            if (WEB_PRESENT) {
+                RequestContextHolder.setRequestAttributes(previousAttributes);
+            }
+        }
+    }
+
+    private List<?> select(Scatter scatter) {
+        Page<?> page = scatter.page;
+        try {
+            if (scatter.keyset != null) {
+                PageUtil.startKeyset(scatter.keyset);
+            } else if (scatter.isPaged()) {
+                if (page.isCount()) {
+                    PageUtil.startPage(1, scatter.fetchSize(), scatter.totalMode);
+                } else {
+                    PageHelper.offsetPage(0, scatter.fetchSize(), false);
+                }
+            }
+            if (page != null && !Strings.isNullOrEmpty(page.getOrderBy())) {
+                PageHelper.orderBy(page.getOrderBy());
+            }
+            RowBounds rowBounds = page == null && scatter.rowBounds != RowBounds.DEFAULT ? new RowBounds(0, scatter.fetchSize())
+                    : RowBounds.DEFAULT;
+            try (SqlSession session = sqlSessionFactory.openSession()) {
+                if (nullOrdering == null) {
+                    nullOrdering = NullOrdering.of(session.getConnection().getMetaData());
+                }
+                return session.selectList(scatter.statementId, scatter.parameter, rowBounds);
+            } catch (SQLException e) {
+                throw new PersistenceException("Failed to read NULL ordering of shard database", e);
+            }
+        } finally {
+            PageHelper.clearPage();
+            PageUtil.clearKeyset();
+            PageUtil.clearTotalMode();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object gather(Scatter scatter, List<List<?>> results) {
+        List<Object> rows = merge(results, scatter.getOrderColumns(), scatter.offset, scatter.limit + 1);
+        boolean hasMore = rows.size() > scatter.limit;
+        if (hasMore) {
+            rows = rows.subList(0, (int) scatter.limit);
+        }
+        Page<?> localPage = scatter.page;
+        if (localPage == null) {
+            return rows instanceof ArrayList ? rows : new ArrayList<>(rows);
+        }
+        TotalMode totalMode = null;
+        long total = 0;
+        for (List<?> result : results) {
+            if (result instanceof DreamPage) {
+                totalMode = ((DreamPage<?>) result).getTotalMode();
+            }
+            total += result instanceof Page ? ((Page<?>) result).getTotal() : result.size();
+        }
+        Page<Object> page;
+        if (totalMode != null) {
+            DreamPage<Object> dreamPage = new DreamPage<>(localPage.getPageNum(), localPage.getPageSize(), totalMode);
+            dreamPage.setHasNext(hasMore || scatter.offset + rows.size() < total);
+            page = dreamPage;
+        } else {
+            page = (Page<Object>) localPage.clone();
+        }
+        page.addAll(rows);
+        if (localPage.isCount()) {
+            page.setTotal(total);
+        } else {
+            page.setTotal(scatter.isPaged() ? -1 : rows.size());
+        }
+        return page;
+    }
+
+    private List<Object> merge(List<List<?>> results, List<OrderColumn> columns, long offset, long limit) {
+        List<Object> rows = new ArrayList<>();
+        if (columns == null) {
+            // unordered rows are concatenated in shard order
+            long skipped = 0;
+            for (List<?> result : results) {
+                for (Object row : result) {
+                    if (skipped++ >= offset && rows.size() < limit) {
+                        rows.add(row);
+                    }
+                }
+            }
+            return rows;
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            if (!results.get(i).isEmpty()) {
+                heads.add(new Head(results.get(i), i, columns));
+            }
+        }
+        long skipped = 0;
+        while (!heads.isEmpty() && rows.size() < limit) {
+            Head head = heads.poll();
+            if (skipped++ >= offset) {
+                rows.add(head.row());
+            }
+            if (head.next()) {
+                heads.add(head);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * State of the calling thread carried over to shard queries
+     */
+    private static class Scatter {
+
+        private final String statementId;
+
+        private final Object parameter;
+
+        private final RowBounds rowBounds;
+
+        private final Page<?> page;
+
+        private final Keyset keyset;
+
+        private final TotalMode totalMode;
+
+        private final Object attributes;
+
+        private final boolean readOnly;
+
+        private final Long deadline;
+
+        private final QueryCancellation cancellation;
+
+        private final List<Set<String>> tables;
+
+        private final long offset;
+
+        private final long limit;
+
+        private Scatter(String statementId, Object parameter, RowBounds rowBounds) {
+            this.statementId = statementId;
+            this.parameter = parameter;
+            this.rowBounds = rowBounds;
+            this.page = PageHelper.getLocalPage();
+            this.keyset = PageUtil.getLocalKeyset();
+            this.totalMode = PageUtil.getLocalTotalMode();
+            // paging of the calling thread is consumed by this select, same as PageHelper does
+            PageHelper.clearPage();
+            PageUtil.clearKeyset();
+            PageUtil.clearTotalMode();
+            this.attributes = WEB_PRESENT ? RequestContextHolder.getRequestAttributes() : null;
+            this.readOnly = ReplicaRoutingContext.isReadOnly();
+            this.deadline = DbQueryUtils.getLocalDeadline();
+            this.cancellation = QueryCancellation.current();
+            this.tables = PageResultCache.isRecording() ? new ArrayList<>() : null;
+            if (keyset != null) {
+                this.offset = 0;
+                this.limit = keyset.getPageSize() + 1;
+            } else if (isPaged()) {
+                this.offset = page.getStartRow();
+                this.limit = page.getPageSize();
+            } else if (page == null && rowBounds != RowBounds.DEFAULT) {
+                this.offset = rowBounds.getOffset();
+                this.limit = rowBounds.getLimit();
+            } else {
+                this.offset = 0;
+                this.limit = RowBounds.NO_ROW_LIMIT;
+            }
+        }
+
+        private boolean isPaged() {
+            return page != null && page.getPageSize() > 0;
+        }
+
+        private int fetchSize() {
+            return (int) Math.min(offset + limit, RowBounds.NO_ROW_LIMIT);
+        }
+
+        private List<OrderColumn> getOrderColumns() {
+            if (keyset != null) {
+                return keyset.getColumns();
+            }
+            BaseCondition condition = findCondition(parameter);
+            if (condition != null && condition.getOrderColumns() != null && !condition.getOrderColumns().isEmpty()) {
+                return condition.getOrderColumns();
+            }
+            if (page != null && !Strings.isNullOrEmpty(page.getOrderBy())) {
+                throw new PersistenceException("Ordered statement " + statementId
+                        + " can not be merged across shards without order columns resolved by BaseQueryBuilder");
+            }
+            return null;
+        }
+
+        private static BaseCondition findCondition(Object parameter) {
+            if (parameter instanceof BaseCondition) {
+                return (BaseCondition) parameter;
+            }
+            if (parameter instanceof Map) {
+                for (Object value : ((Map<?, ?>) parameter).values()) {
+                    if (value instanceof BaseCondition) {
+                        return (BaseCondition) value;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Head row of the sorted rows of a shard
+     */
+    private class Head implements Comparable<Head> {
+
+        private final List<?> rows;
+
+        private final int shard;
+
+        private final List<OrderColumn> columns;
+
+        private int index;
+
+        private Object[] values;
+
+        private Head(List<?> rows, int shard, List<OrderColumn> columns) {
+            this.rows = rows;
+            this.shard = shard;
+            this.columns = columns;
+            this.values = values(rows.get(0));
+        }
+
+        private Object row() {
+            return rows.get(index);
+        }
+
+        private boolean next() {
+            if (++index >= rows.size()) {
+                return false;
+            }
+            values = values(rows.get(index));
+            return true;
+        }
+
+        private Object[] values(Object row) {
+            MetaObject metaObject = SystemMetaObject.forObject(row);
+            Object[] values = new Object[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = metaObject.getValue(columns.get(i).getProperty());
+                if (values[i] instanceof CharSequence && collator == null) {
+                    throw new PersistenceException("String order column " + columns.get(i).getProperty()
+                            + " can not be merged across shards without collation, set dream.dao.shard.collation");
+                }
+            }
+            return values;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compareTo(Head other) {
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                Object otherValue = other.values[i];
+                boolean desc = columns.get(i).getOrder() != null && columns.get(i).getOrder() == Order.ORDER_DESC;
+                if (value == null || otherValue == null) {
+                    if (value != otherValue) {
+                        // nulls are placed where the shards sorted them, regardless of the direction
+                        return (value == null) == nullOrdering.isFirst(desc) ? -1 : 1;
+                    }
+                    continue;
+                }
+                int result = value instanceof CharSequence ? collator.compare(value.toString(), otherValue.toString())
+                        : ((Comparable<Object>) value).compareTo(otherValue);
+                if (result != 0) {
+                    return desc ? -result : result;
+                }
+            }
+            return Integer.compare(shard, other.shard);
+        }
+    }
+}
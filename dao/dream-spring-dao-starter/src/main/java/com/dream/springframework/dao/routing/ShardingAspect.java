@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import com.dream.springframework.dao.annotation.ShardKey;
+import com.dream.springframework.dao.scope.OrgScopeProvider;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Routes {@link com.dream.springframework.dao.annotation.Sharded} methods to the shards owning their organizations
+ * <p>
+ * Organizations are taken from {@link ShardKey} parameters, or {@link OrgScopeProvider} if none, and all shards are used if the
+ * provider does not restrict organizations (e.g. in background tasks). Nested sharded methods keep the routing of the outermost one.
+ * The aspect is ordered first, so that transactions of the same method begin on the routed shard.
+ *
+ * @author DreamJM
+ */
+@Aspect
+public class ShardingAspect implements Ordered {
+
+    private final ShardRouter router;
+
+    private final Supplier<OrgScopeProvider> scopeProvider;
+
+    /**
+     * @param router        shard router
+     * @param scopeProvider organization scope provider supplier
+     */
+    public ShardingAspect(ShardRouter router, Supplier<OrgScopeProvider> scopeProvider) {
+        this.router = router;
+        this.scopeProvider = scopeProvider;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Pointcut("@annotation(com.dream.springframework.dao.annotation.Sharded)"
+            + " || @within(com.dream.springframework.dao.annotation.Sharded)")
+    public void shardedMethod() {
+    }
+
+    @Around("shardedMethod()")
+    public Object aroundMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ShardRoutingContext.getShards() != null) {
+            return joinPoint.proceed();
+        }
+        List<String> shards = route(joinPoint);
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !shards.equals(Collections.singletonList(router.getPrimary()))) {
+            throw new IllegalStateException("Sharded method " + joinPoint.getSignature().toShortString()
+                    + " called in a transaction begun on the primary shard, route the transactional method instead");
+        }
+        ShardRoutingContext.setShards(shards);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardRoutingContext.setShards(null);
+        }
+    }
+
+    private List<String> route(ProceedingJoinPoint joinPoint) {
+        Collection<String> orgIds = getShardKeys(joinPoint);
+        if (orgIds == null) {
+            OrgScopeProvider provider = scopeProvider.get();
+            orgIds = provider == null ? null : provider.getOrgIds();
+        }
+        if (orgIds == null) {
+            return router.getShards();
+        }
+        // no visible organizations, the primary shard serves the (empty) result
+        return orgIds.isEmpty() ? Collections.singletonList(router.getPrimary()) : router.route(orgIds);
+    }
+
+    private static Collection<String> getShardKeys(ProceedingJoinPoint joinPoint) {
+        Annotation[][] annotations = ((MethodSignature) joinPoint.getSignature()).getMethod().getParameterAnnotations();
+        Object[] args = joinPoint.getArgs();
+        List<String> orgIds = null;
+        for (int i = 0; i < annotations.length; i++) {
+            if (args[i] == null || !isShardKey(annotations[i])) {
+                continue;
+            }
+            if (orgIds == null) {
+                orgIds = new ArrayList<>();
+            }
+            if (args[i] instanceof Collection) {
+                for (Object orgId : (Collection<?>) args[i]) {
+                    orgIds.add(String.valueOf(orgId));
+                }
+            } else {
+                orgIds.add(String.valueOf(args[i]));
+            }
+        }
+        return orgIds;
+    }
+
+    private static boolean isShardKey(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof ShardKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
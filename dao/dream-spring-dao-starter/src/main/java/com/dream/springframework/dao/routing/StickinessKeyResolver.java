@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.routing;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the key of read-your-writes stickiness, requests of the same key read from the primary database for a while after
+ * writing
+ *
+ * @author DreamJM
+ */
+@FunctionalInterface
+public interface StickinessKeyResolver {
+
+    /**
+     * Default resolver using the authenticated user, the existing session or the client address in order
+     */
+    StickinessKeyResolver DEFAULT = request -> {
+        if (request.getRemoteUser() != null) {
+            return "user:" + request.getRemoteUser();
+        }
+        if (request.getSession(false) != null) {
+            return "session:" + request.getSession(false).getId();
+        }
+        return "address:" + request.getRemoteAddr();
+    };
+
+    /**
+     * @param request current request
+     * @return stickiness key, or null for request scoped stickiness only
+     */
+    String resolve(HttpServletRequest request);
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.scope;
+
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.ForbiddenException;
+import com.dream.springframework.base.export.ExportContextPropagator;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.function.Supplier;
+
+/**
+ * Propagates visible organizations of the submitting request to export jobs through {@link OrgScopeContext}
+ * <p>
+ * Export jobs run outside of web requests, where {@link OrgScopeProvider} would not restrict queries. Organizations are resolved when
+ * the job is submitted and bound to the job thread while it runs. Submitting fails if the submitting thread is not restricted either,
+ * instead of exporting rows of all organizations. Nothing is propagated if there is no {@link OrgScopeProvider}.
+ *
+ * @author DreamJM
+ */
+public class OrgScopeExportPropagator implements ExportContextPropagator {
+
+    private final Supplier<OrgScopeProvider> providerSupplier;
+
+    /**
+     * @param providerSupplier supplier of organization scope provider, may supply null
+     */
+    public OrgScopeExportPropagator(Supplier<OrgScopeProvider> providerSupplier) {
+        this.providerSupplier = providerSupplier;
+    }
+
+    @Override
+    public Runnable propagate(Runnable job) throws ForbiddenException {
+        OrgScopeProvider provider = providerSupplier.get();
+        if (provider == null) {
+            return job;
+        }
+        Collection<String> orgIds = provider.getOrgIds();
+        if (orgIds == null) {
+            throw new ForbiddenException(BaseErrorCode.ORG_ACCESS_FORBIDDEN);
+        }
+        // copied since the job outlives the request
+        Collection<String> captured = Collections.unmodifiableSet(new LinkedHashSet<>(orgIds));
+        return () -> {
+            Collection<String> previous = OrgScopeContext.setOrgIds(captured);
+            try {
+                job.run();
+            } finally {
+                OrgScopeContext.setOrgIds(previous);
+            }
+        };
+    }
+}
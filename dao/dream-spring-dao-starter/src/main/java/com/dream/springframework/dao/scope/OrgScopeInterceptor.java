@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.scope;
+
+import com.dream.springframework.dao.DreamDaoProperties;
+import com.dream.springframework.dao.annotation.OrgScope;
+import com.dream.springframework.dao.query.PredicateSql;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.sf.jsqlparser.JSQLParserException;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * MyBatis interceptor appending organization predicate to {@link OrgScope} select statements
+ * <p>
+ * The statement is parsed once per (sql, column) and cached as a {@link PredicateSql} template marking the where clause of every
+ * select (including every branch of UNION), so filtering is done by the database with indexes instead of in memory. Organization identities
+ * are bound as IN list parameters padded to the next power of two, or as a single array parameter ({@code column = ANY(?)}) for
+ * large sets. No organizations results in {@code 1 = 0}.
+ * <p>
+ * The interceptor must be the outermost one, i.e. added after {@link com.github.pagehelper.PageInterceptor}, so that count and
+ * paging statements are built from the restricted sql.
+ *
+ * @author DreamJM
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class})})
+public class OrgScopeInterceptor implements Interceptor {
+
+    private static final String PARAM_PREFIX = "__orgScope_";
+
+    private static final int TEMPLATE_CACHE_SIZE = 1024;
+
+    private final Supplier<OrgScopeProvider> providerSupplier;
+
+    private final DreamDaoProperties.OrgScope properties;
+
+    private final OrgIdArrayTypeHandler arrayTypeHandler;
+
+    private final Map<String, Optional<OrgScope>> mapperScopes = new ConcurrentHashMap<>();
+
+    private final Cache<String, PredicateSql> templates = CacheBuilder.newBuilder().maximumSize(TEMPLATE_CACHE_SIZE).build();
+
+    /**
+     * @param providerSupplier supplier of organization scope provider
+     * @param properties       organization scope properties
+     */
+    public OrgScopeInterceptor(Supplier<OrgScopeProvider> providerSupplier, DreamDaoProperties.OrgScope properties) {
+        this.providerSupplier = providerSupplier;
+        this.properties = properties;
+        this.arrayTypeHandler = new OrgIdArrayTypeHandler(properties.getArrayType());
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        Object parameter = args[1];
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT) {
+            return invocation.proceed();
+        }
+        OrgScope scope = findScope(ms, parameter);
+        if (scope == null) {
+            return invocation.proceed();
+        }
+        OrgScopeProvider provider = providerSupplier.get();
+        if (provider == null) {
+            throw new IllegalStateException("@OrgScope used by " + ms.getId() + ", but no OrgScopeProvider been found");
+        }
+        Collection<String> orgIds = provider.getOrgIds();
+        if (orgIds == null) {
+            return invocation.proceed();
+        }
+        Executor executor = (Executor) invocation.getTarget();
+        RowBounds rowBounds = (RowBounds) args[2];
+        if (args.length == 3) {
+            BoundSql scoped = restrict(ms, ms.getBoundSql(parameter), scope.value(), orgIds);
+            return executor.queryCursor(PredicateSql.withBoundSql(ms, scoped), parameter, rowBounds);
+        }
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+        BoundSql scoped = restrict(ms, boundSql, scope.value(), orgIds);
+        CacheKey cacheKey = executor.createCacheKey(ms, parameter, rowBounds, scoped);
+        return executor.query(ms, parameter, rowBounds, (ResultHandler<?>) args[3], cacheKey, scoped);
+    }
+
+    private OrgScope findScope(MappedStatement ms, Object parameter) {
+        OrgScope scope = mapperScopes.computeIfAbsent(ms.getId(), OrgScopeInterceptor::findMapperScope).orElse(null);
+        if (scope != null || parameter == null) {
+            return scope;
+        }
+        scope = parameter.getClass().getAnnotation(OrgScope.class);
+        if (scope == null && parameter instanceof Map) {
+            for (Object value : ((Map<?, ?>) parameter).values()) {
+                if (value != null && (scope = value.getClass().getAnnotation(OrgScope.class)) != null) {
+                    break;
+                }
+            }
+        }
+        return scope;
+    }
+
+    private static Optional<OrgScope> findMapperScope(String statementId) {
+        int index = statementId.lastIndexOf('.');
+        if (index <= 0) {
+            return Optional.empty();
+        }
+        Class<?> mapperClass;
+        try {
+            mapperClass = Resources.classForName(statementId.substring(0, index));
+        } catch (ClassNotFoundException e) {
+            // xml namespace without mapper interface
+            return Optional.empty();
+        }
+        String methodName = statementId.substring(index + 1);
+        for (Method method : mapperClass.getMethods()) {
+            if (method.getName().equals(methodName) && method.isAnnotationPresent(OrgScope.class)) {
+                return Optional.of(method.getAnnotation(OrgScope.class));
+            }
+        }
+        return Optional.ofNullable(mapperClass.getAnnotation(OrgScope.class));
+    }
+
+    private BoundSql restrict(MappedStatement ms, BoundSql boundSql, String column, Collection<String> orgIds) {
+        String key = column + ':' + boundSql.getSql();
+        PredicateSql template = templates.getIfPresent(key);
+        if (template == null) {
+            try {
+                template = PredicateSql.parse(boundSql.getSql(), true);
+            } catch (JSQLParserException | IllegalArgumentException e) {
+                throw new PersistenceException("Failed to apply organization scope to " + ms.getId(), e);
+            }
+            templates.put(key, template);
+        }
+        Configuration configuration = ms.getConfiguration();
+        List<String> values = new ArrayList<>(new LinkedHashSet<>(orgIds));
+        return template.bind(ms, boundSql, (index, sql, mappings, additionalParameters) ->
+                appendPredicate(sql, column, values, PARAM_PREFIX + index, mappings, additionalParameters, configuration));
+    }
+
+    private void appendPredicate(StringBuilder sql, String column, List<String> values, String name, List<ParameterMapping> mappings,
+                                 Map<String, Object> additionalParameters, Configuration configuration) {
+        int size = values.size();
+        if (size == 0) {
+            sql.append("1 = 0");
+            return;
+        }
+        if (properties.getArrayThreshold() > 0 && size >= properties.getArrayThreshold()) {
+            sql.append(column).append(" = ANY(?)");
+            mappings.add(new ParameterMapping.Builder(configuration, name, arrayTypeHandler).build());
+            additionalParameters.put(name, values);
+            return;
+        }
+        int padded = properties.isInClausePadding() && size > 1 ? Integer.highestOneBit(size - 1) << 1 : size;
+        sql.append(column).append(" IN (");
+        for (int i = 0; i < padded; i++) {
+            String itemName = name + '_' + i;
+            sql.append(i == 0 ? "?" : ", ?");
+            mappings.add(new ParameterMapping.Builder(configuration, itemName, String.class).build());
+            // padding repeats the last identity, which does not change the result
+            additionalParameters.put(itemName, values.get(Math.min(i, size - 1)));
+        }
+        sql.append(')');
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.search;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * In-JVM search index broadcaster, notifies subscribed listeners synchronously
+ *
+ * @author DreamJM
+ */
+public class LocalSearchIndexBroadcaster implements SearchIndexBroadcaster {
+
+    private final List<BiConsumer<String, List<Long>>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String name, List<Long> ids) {
+        listeners.forEach(listener -> listener.accept(name, ids));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, List<Long>> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.search;
+
+import com.dream.springframework.dao.annotation.ReindexSearch;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Search index aspect supporting {@link ReindexSearch}
+ * <p>
+ * Modified rows are reindexed after the transaction commits, so that the reloaded rows are committed ones. Nothing is reindexed if the
+ * transaction rolls back.
+ *
+ * @author DreamJM
+ */
+@Aspect
+public class SearchIndexAspect {
+
+    private final SearchIndexManager manager;
+
+    /**
+     * @param manager search index manager
+     */
+    public SearchIndexAspect(SearchIndexManager manager) {
+        this.manager = manager;
+    }
+
+    @Pointcut("@annotation(reindexSearch)")
+    public void modifyRows(ReindexSearch reindexSearch) {
+    }
+
+    @Around(value = "modifyRows(reindexSearch)", argNames = "joinPoint,reindexSearch")
+    public Object aroundModify(ProceedingJoinPoint joinPoint, ReindexSearch reindexSearch) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (args.length > 0 && args[0] != null) {
+                reindex(reindexSearch.value(), getIds(args[0], reindexSearch.keyProperty()));
+            }
+        }
+    }
+
+    private void reindex(String name, List<Long> ids) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    manager.reindex(name, ids);
+                }
+            });
+        } else {
+            manager.reindex(name, ids);
+        }
+    }
+
+    private static List<Long> getIds(Object arg, String keyProperty) {
+        Collection<?> items = arg instanceof Collection ? (Collection<?>) arg
+                : arg.getClass().isArray() ? CollectionUtils.arrayToList(arg) : null;
+        List<Long> ids = new ArrayList<>();
+        if (items == null) {
+            addId(ids, arg, keyProperty);
+        } else {
+            items.forEach(item -> addId(ids, item, keyProperty));
+        }
+        return ids;
+    }
+
+    private static void addId(List<Long> ids, Object item, String keyProperty) {
+        Object key = item == null || keyProperty.isEmpty() ? item
+                : PropertyAccessorFactory.forBeanPropertyAccess(item).getPropertyValue(keyProperty);
+        if (key instanceof Number) {
+            ids.add(((Number) key).longValue());
+        } else if (key != null) {
+            ids.add(Long.valueOf(key.toString()));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.search;
+
+import com.dream.springframework.dao.DreamDaoProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword search indexes configured by {@link DreamDaoProperties.Search}
+ * <p>
+ * Indexes are built in background after startup and rebuilt periodically, searches of an index not built yet return null so that
+ * queries fall back to scanning. When reindexing modified rows fails, the index stops answering until it is rebuilt.
+ * <p>
+ * Candidates are only as fresh as the index: rows modified by {@link com.dream.springframework.dao.annotation.ReindexSearch} methods
+ * are reindexed after commit on every node through {@link SearchIndexBroadcaster}, while rows modified any other way (e.g. mappers
+ * without the annotation, bulk writes of other methods or other applications) are missed by searches until the next rebuild, so
+ * queries filtering by candidates silently miss them meanwhile. Indexes are therefore opt-in by {@code dream.dao.search.enabled},
+ * and should only be configured for tables written through annotated methods, or whose searches tolerate that staleness.
+ *
+ * @author DreamJM
+ */
+public class SearchIndexManager implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexManager.class);
+
+    private final Map<String, SearchIndex> indexes = new HashMap<>();
+
+    private final ScheduledExecutorService builder;
+
+    private final SearchIndexBroadcaster broadcaster;
+
+    /**
+     * @param properties  search indexes properties
+     * @param dataSource  data source to load rows
+     * @param broadcaster broadcaster of modified rows
+     */
+    public SearchIndexManager(DreamDaoProperties.Search properties, DataSource dataSource, SearchIndexBroadcaster broadcaster) {
+        properties.getIndexes().forEach((name, table) -> indexes.put(name, new SearchIndex(name, table.getTable(),
+                table.getIdColumn(), table.getColumns(), properties.getMaxCandidates(), dataSource)));
+        this.broadcaster = broadcaster;
+        this.builder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Dream-Search-Index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Duration interval = properties.getRebuildInterval();
+        for (SearchIndex index : indexes.values()) {
+            if (interval == null) {
+                builder.execute(() -> rebuild(index));
+            } else {
+                builder.scheduleWithFixedDelay(() -> rebuild(index), 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        broadcaster.subscribe(this::reindexLocally);
+    }
+
+    /**
+     * @param name index name
+     * @return search index, null if not configured
+     */
+    public SearchIndex get(String name) {
+        return indexes.get(name);
+    }
+
+    /**
+     * Searches candidate ids of the keyword, to be set as {@link com.dream.springframework.dao.model.BaseCondition#setSearchIds}
+     *
+     * @param name    index name
+     * @param keyword keyword of {@code LIKE '%keyword%'}
+     * @return sorted candidate ids, null if the index is not configured or could not answer
+     */
+    public List<Long> search(String name, String keyword) {
+        SearchIndex index = indexes.get(name);
+        return index == null ? null : index.search(keyword);
+    }
+
+    /**
+     * Reloads modified rows into the index of every node
+     *
+     * @param name index name
+     * @param ids  modified row ids
+     */
+    public void reindex(String name, Collection<Long> ids) {
+        if (indexes.containsKey(name) && !ids.isEmpty()) {
+            broadcaster.publish(name, new ArrayList<>(ids));
+        }
+    }
+
+    @Override
+    public void close() {
+        builder.shutdownNow();
+    }
+
+    private void reindexLocally(String name, List<Long> ids) {
+        SearchIndex index = indexes.get(name);
+        if (index == null || ids.isEmpty()) {
+            return;
+        }
+        try {
+            index.reindex(ids);
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Failed to reindex {} rows of search index {}, rebuilding", ids.size(), name, e);
+            index.invalidate();
+            builder.execute(() -> rebuild(index));
+        }
+    }
+
+    private static void rebuild(SearchIndex index) {
+        long start = System.currentTimeMillis();
+        try {
+            index.rebuild();
+            logger.info("Search index {} built with {} rows in {} ms", index.getName(), index.size(),
+                    System.currentTimeMillis() - start);
+        } catch (SQLException | RuntimeException e) {
+            logger.error("Failed to build search index {}", index.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Caches the result of a single key loading method, e.g. {@code Optional<Entity> load(long id)}, by its first argument
+ * <p>
+ * Absent results ({@code null} or empty {@link java.util.Optional}) are cached as negatives. Cached entities are shared between
+ * callers and must not be modified. Entries are invalidated by methods annotated with {@link EvictEntity} of the same cache name.
+ *
+ * @author DreamJM
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CachedEntity {
+
+    /**
+     * @return cache name, e.g. entity table name
+     */
+    String value();
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Evicts {@link CachedEntity} entries of the keys modified by the method after it returns, or after the transaction completes if it
+ * runs in a transaction
+ * <p>
+ * Keys are read from the first argument, from each element if it is a collection or an array, and from the {@link #keyProperty()} of
+ * them if specified, e.g. {@code @EvictEntity(value = "demo", keyProperty = "id")} on {@code update(DemoEntity entity)}.
+ *
+ * @author DreamJM
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface EvictEntity {
+
+    /**
+     * @return cache name
+     */
+    String value();
+
+    /**
+     * @return property of the argument holding the key, empty if the argument is the key
+     */
+    String keyProperty() default "";
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Restricts query rows to organizations visible to current user
+ * <p>
+ * Annotated on mapper method, mapper interface or query parameter class (e.g. {@link com.dream.springframework.dao.model.BaseCondition}
+ * subclass), predicate {@code column IN (...)} of organization identities provided by
+ * {@link com.dream.springframework.dao.scope.OrgScopeProvider} is appended to the where clause of the select statement.
+ *
+ * @author DreamJM
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface OrgScope {
+
+    /**
+     * @return organization column, qualified by table alias if the query joins tables, e.g. 't.org_id'
+     */
+    String value() default "org_id";
+
+}
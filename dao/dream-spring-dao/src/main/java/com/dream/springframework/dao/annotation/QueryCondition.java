@@ -21,7 +21,8 @@ import java.lang.annotation.*;
 /**
  * Applies query condition
  * <p>
- * Uses {@link com.github.pagehelper.PageHelper} to apply paging and ordering parameters
+ * Uses {@link com.github.pagehelper.PageHelper} to apply paging and ordering parameters. Paged results can be cached, entries are
+ * tagged by the tables the query touches and invalidated by methods annotated with {@link ModifiesTables}.
  *
  * @author DreamJM
  */
@@ -30,4 +31,13 @@ import java.lang.annotation.*;
 @Target(ElementType.METHOD)
 public @interface QueryCondition {
 
+    /**
+     * @return whether to cache paged results
+     */
+    boolean cache() default false;
+
+    /**
+     * @return additional table tags of cached results, tables found in executed statements are always tagged
+     */
+    String[] tables() default {};
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Reindexes rows of the keys modified by the method in the search index after it returns, or after the transaction commits if it
+ * runs in a transaction
+ * <p>
+ * Keys are read the same way as {@link EvictEntity}, e.g. {@code @ReindexSearch(value = "demo", keyProperty = "id")} on
+ * {@code insert(DemoEntity entity)}. Rows are reloaded by key, so the same annotation serves inserts, updates and deletes.
+ *
+ * @author DreamJM
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReindexSearch {
+
+    /**
+     * @return search index name
+     */
+    String value();
+
+    /**
+     * @return property of the argument holding the key, empty if the argument is the key
+     */
+    String keyProperty() default "";
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks methods, or all methods of a bean, whose data is partitioned by organization across shards
+ * <p>
+ * Organizations of {@link ShardKey} parameters, or those visible to current user by
+ * {@link com.dream.springframework.dao.scope.OrgScopeProvider} otherwise, decide the shards. A single shard routes all statements of
+ * the method to it, while multiple shards make select statements scatter to all of them and gather the sorted results. Transactions
+ * are bound to one shard, so annotate the transactional method itself (or an outer one) rather than methods called inside it.
+ *
+ * @author DreamJM
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Sharded {
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.bulk;
+
+/**
+ * Write action of a single item on the mapper
+ * <p>
+ * In batch mode an item is expected to issue exactly one write statement, so that affected rows can be mapped back to items.
+ *
+ * @param <M> mapper type
+ * @param <T> item type
+ * @author DreamJM
+ */
+@FunctionalInterface
+public interface BulkAction<M, T> {
+
+    /**
+     * @param mapper mapper bound to the bulk session
+     * @param item   item to be written
+     * @throws Exception if failed, {@link com.dream.springframework.base.exception.RequestException} is mapped to its error code
+     */
+    void execute(M mapper, T item) throws Exception;
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.bulk;
+
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.RequestException;
+import com.dream.springframework.base.exception.RuntimeRequestException;
+import com.dream.springframework.base.model.ErrorItem;
+import com.dream.springframework.base.util.MessageUtils;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bulk writer running items through MyBatis {@link ExecutorType#BATCH} sessions chunk by chunk
+ * <p>
+ * Each chunk is sent as JDBC batches and committed in its own transaction (joins the caller's transaction if there is one). When a
+ * chunk fails, it is rolled back to the savepoint taken before it and replayed item by item, each inside its own savepoint, so that
+ * the precise failed items are reported while the others are still written. Errors are in the same form as
+ * {@link com.dream.springframework.base.util.BatchExecuteUtil#executeBatch}.
+ *
+ * @author DreamJM
+ */
+public class BulkWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkWriter.class);
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    /**
+     * @param sqlSessionFactory  session factory to open batch sessions
+     * @param transactionManager transaction manager of chunk transactions
+     * @param chunkSize          items per chunk
+     */
+    public BulkWriter(SqlSessionFactory sqlSessionFactory, PlatformTransactionManager transactionManager, int chunkSize) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Writes items in chunks
+     *
+     * @param mapperType mapper interface
+     * @param items      items to be written
+     * @param action     write action of an item
+     * @param <M>        mapper type
+     * @param <T>        item type
+     * @return errors of failed items in item order
+     */
+    public <M, T> List<ErrorItem> execute(Class<M> mapperType, List<T> items, BulkAction<M, T> action) {
+        return execute(mapperType, items, action, null);
+    }
+
+    /**
+     * Writes items in chunks, items affecting no rows (e.g. deleting a missing record) are reported as errors
+     *
+     * @param mapperType      mapper interface
+     * @param items           items to be written
+     * @param action          write action of an item
+     * @param notAffectedCode error code of items affecting no rows, null to skip the check
+     * @param <M>             mapper type
+     * @param <T>             item type
+     * @return errors of failed items in item order
+     */
+    public <M, T> List<ErrorItem> execute(Class<M> mapperType, List<T> items, BulkAction<M, T> action, Integer notAffectedCode) {
+        if (items == null || items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ErrorItem> errors = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<T> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+            errors.addAll(transactionTemplate.execute(status -> executeChunk(status, mapperType, chunk, action, notAffectedCode)));
+        }
+        return errors;
+    }
+
+    /**
+     * @return items per chunk
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private <M, T> List<ErrorItem> executeChunk(TransactionStatus status, Class<M> mapperType, List<T> chunk, BulkAction<M, T> action,
+                                                Integer notAffectedCode) {
+        Object savepoint = status.createSavepoint();
+        try {
+            List<ErrorItem> errors = new ArrayList<>();
+            int[] counts = write(mapperType, chunk, action);
+            if (notAffectedCode != null && counts != null) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (counts[i] == 0) {
+                        errors.add(errorItem(chunk.get(i), notAffectedCode));
+                    }
+                }
+            } else if (notAffectedCode != null) {
+                // affected rows cannot be mapped to items, checks them one by one
+                status.rollbackToSavepoint(savepoint);
+                return executeEach(status, mapperType, chunk, action, notAffectedCode);
+            }
+            status.releaseSavepoint(savepoint);
+            return errors;
+        } catch (Exception e) {
+            logger.debug("Bulk chunk failed, falls back to item by item execution", e);
+            status.rollbackToSavepoint(savepoint);
+            return executeEach(status, mapperType, chunk, action, notAffectedCode);
+        }
+    }
+
+    private <M, T> List<ErrorItem> executeEach(TransactionStatus status, Class<M> mapperType, List<T> chunk, BulkAction<M, T> action,
+                                               Integer notAffectedCode) {
+        List<ErrorItem> errors = new ArrayList<>();
+        for (T item : chunk) {
+            Object savepoint = status.createSavepoint();
+            try {
+                int[] counts = write(mapperType, Collections.singletonList(item), action);
+                if (notAffectedCode != null && counts != null && counts[0] == 0) {
+                    errors.add(errorItem(item, notAffectedCode));
+                }
+                status.releaseSavepoint(savepoint);
+            } catch (RequestException e) {
+                status.rollbackToSavepoint(savepoint);
+                errors.add(new ErrorItem(String.valueOf(item), e.getCode(), e.getMessage()));
+            } catch (RuntimeRequestException e) {
+                status.rollbackToSavepoint(savepoint);
+                RequestException cause = (RequestException) e.getCause();
+                errors.add(new ErrorItem(String.valueOf(item), cause.getCode(), cause.getMessage()));
+            } catch (Exception e) {
+                status.rollbackToSavepoint(savepoint);
+                errors.add(errorItem(item, BaseErrorCode.SYS_ERROR));
+                logger.error("Bulk execution error!", e);
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * @return affected rows of each item, null if statements can not be mapped to items
+     */
+    private <M, T> int[] write(Class<M> mapperType, List<T> items, BulkAction<M, T> action) throws Exception {
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            M mapper = session.getMapper(mapperType);
+            for (T item : items) {
+                action.execute(mapper, item);
+            }
+            List<BatchResult> results = session.flushStatements();
+            int[] counts = new int[items.size()];
+            int index = 0;
+            for (BatchResult result : results) {
+                for (int count : result.getUpdateCounts()) {
+                    if (index >= counts.length) {
+                        return null;
+                    }
+                    // drivers may not report counts of batched statements
+                    counts[index++] = count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                }
+            }
+            return index == counts.length ? counts : null;
+        }
+    }
+
+    private static ErrorItem errorItem(Object item, int code) {
+        return new ErrorItem(String.valueOf(item), code, MessageUtils.getError(code));
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.cache;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Broadcasts evictions of {@link com.dream.springframework.dao.annotation.CachedEntity} entries, so that caches of all nodes stay
+ * coherent
+ * <p>
+ * The default implementation only notifies listeners in current JVM. Multi-node deployments may provide one based on a message bus,
+ * e.g. Redis pub/sub, which must notify the listeners of every node including the publishing one.
+ *
+ * @author DreamJM
+ */
+public interface EntityCacheBroadcaster {
+
+    /**
+     * Publishes an eviction
+     *
+     * @param cacheName cache name
+     * @param key       evicted key
+     */
+    void publish(String cacheName, String key);
+
+    /**
+     * Subscribes evictions
+     *
+     * @param listener listener receiving cache name and evicted key
+     */
+    void subscribe(BiConsumer<String, String> listener);
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.export;
+
+import com.dream.springframework.base.export.ExportColumn;
+import com.dream.springframework.base.export.ExportFormat;
+import com.dream.springframework.base.export.ExportProgress;
+import com.dream.springframework.base.export.ExportUtils;
+import com.dream.springframework.base.model.ExportResult;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streaming exporter reading rows through MyBatis {@link Cursor}s
+ * <p>
+ * Each export opens its own {@link SqlSession}, inside a read-only transaction when a transaction manager is given (PostgreSQL only
+ * streams with fetch size when auto commit is off). Statements without their own fetch size get the exporter's fetch size as a hint,
+ * applied by the fetch size interceptor of the starter. MySQL Connector/J streams only with {@link Integer#MIN_VALUE} as fetch size
+ * or 'useCursorFetch=true' in the url.
+ *
+ * @author DreamJM
+ */
+public class CursorExporter {
+
+    private static final ThreadLocal<Integer> LOCAL_FETCH_SIZE = new ThreadLocal<>();
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path directory;
+
+    private final int fetchSize;
+
+    /**
+     * @param sqlSessionFactory  session factory to open export sessions
+     * @param transactionManager transaction manager for read-only export transactions, nullable
+     * @param directory          directory of export files
+     * @param fetchSize          fetch size hint
+     */
+    public CursorExporter(SqlSessionFactory sqlSessionFactory, PlatformTransactionManager transactionManager, Path directory,
+                          int fetchSize) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        if (transactionManager != null) {
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setReadOnly(true);
+        } else {
+            this.transactionTemplate = null;
+        }
+        this.directory = directory;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @return fetch size hint of the cursor being opened by current thread, null if not exporting
+     */
+    public static Integer getLocalFetchSize() {
+        return LOCAL_FETCH_SIZE.get();
+    }
+
+    /**
+     * Exports rows of the mapper cursor query
+     *
+     * @param mapperType mapper interface
+     * @param query      opens cursor on the mapper, e.g. {@code mapper -> mapper.queryCursor(condition)}
+     * @param columns    column definitions
+     * @param format     file format
+     * @param <M>        mapper type
+     * @param <T>        row type
+     * @return export result with file path relative to the export directory
+     * @throws IOException if failed to write the file
+     */
+    public <M, T> ExportResult export(Class<M> mapperType, Function<M, Cursor<T>> query, List<ExportColumn<T>> columns,
+                                      ExportFormat format) throws IOException {
+        return export(mapperType, query, columns, format, ExportProgress.NONE);
+    }
+
+    /**
+     * Exports rows of the mapper cursor query and reports progress, e.g. as an {@link com.dream.springframework.base.export.ExportTask}
+     *
+     * @param mapperType mapper interface
+     * @param query      opens cursor on the mapper, e.g. {@code mapper -> mapper.queryCursor(condition)}
+     * @param columns    column definitions
+     * @param format     file format
+     * @param progress   progress listener
+     * @param <M>        mapper type
+     * @param <T>        row type
+     * @return export result with file path relative to the export directory
+     * @throws IOException if failed to write the file
+     */
+    public <M, T> ExportResult export(Class<M> mapperType, Function<M, Cursor<T>> query, List<ExportColumn<T>> columns,
+                                      ExportFormat format, ExportProgress progress) throws IOException {
+        if (transactionTemplate == null) {
+            return doExport(mapperType, query, columns, format, progress);
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return doExport(mapperType, query, columns, format, progress);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return directory of export files
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private <M, T> ExportResult doExport(Class<M> mapperType, Function<M, Cursor<T>> query, List<ExportColumn<T>> columns,
+                                         ExportFormat format, ExportProgress progress) throws IOException {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            Cursor<T> cursor;
+            LOCAL_FETCH_SIZE.set(fetchSize);
+            try {
+                cursor = query.apply(session.getMapper(mapperType));
+            } finally {
+                LOCAL_FETCH_SIZE.remove();
+            }
+            try (Cursor<T> rows = cursor) {
+                return ExportUtils.export(rows.iterator(), columns, format, directory, progress);
+            }
+        }
+    }
+}
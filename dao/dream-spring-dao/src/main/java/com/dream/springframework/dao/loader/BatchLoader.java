@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.loader;
+
+import com.google.common.collect.Lists;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Batches single key loads into bulk loads, e.g. {@code WHERE id IN (...)} queries
+ * <p>
+ * Keys passed to {@link #load(Object)} are collected until {@link #dispatch()} is called, or until any returned future is waited
+ * for, then loaded by chunks through the bulk loading function. Repeated keys share the same future, and loaded results are
+ * memoized for the lifetime of the loader, which is the current request when obtained by {@link #forRequest(String, Supplier)}.
+ * <pre>{@code
+ * List<CompletableFuture<DemoEntity>> futures = ids.stream().map(repository::loadAsync).collect(Collectors.toList());
+ * List<DemoEntity> entities = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+ * }</pre>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author DreamJM
+ */
+public class BatchLoader<K, V> {
+
+    private static final boolean WEB_PRESENT = ClassUtils.isPresent("org.springframework.web.context.request.RequestContextHolder",
+            BatchLoader.class.getClassLoader());
+
+    private static final String ATTRIBUTE_PREFIX = BatchLoader.class.getName() + ".";
+
+    private final Function<Collection<K>, ? extends Collection<V>> bulkLoader;
+
+    private final Function<V, K> keyFunction;
+
+    private final int chunkSize;
+
+    private final Map<K, CompletableFuture<V>> futures = new HashMap<>();
+
+    private List<K> pending = new ArrayList<>();
+
+    /**
+     * @param bulkLoader  bulk loading function, e.g. mapper method querying by {@code WHERE id IN (...)}, absent keys are omitted from
+     *                    its result
+     * @param keyFunction key of loaded value
+     * @param chunkSize   max keys per bulk load
+     */
+    public BatchLoader(Function<Collection<K>, ? extends Collection<V>> bulkLoader, Function<V, K> keyFunction, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive");
+        }
+        this.bulkLoader = bulkLoader;
+        this.keyFunction = keyFunction;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Gets the loader bound to current request, a new loader is created for every call outside requests
+     *
+     * @param name    loader name, unique per bulk loading function
+     * @param factory loader factory
+     * @param <K>     key type
+     * @param <V>     value type
+     * @return request scoped loader
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> BatchLoader<K, V> forRequest(String name, Supplier<BatchLoader<K, V>> factory) {
+        RequestAttributes attributes = WEB_PRESENT ? RequestContextHolder.getRequestAttributes() : null;
+        if (attributes == null) {
+            return factory.get();
+        }
+        String attribute = ATTRIBUTE_PREFIX + name;
+        // session mutex would create a session, the attributes are shared by threads of the same request
+        synchronized (attributes) {
+            BatchLoader<K, V> loader = (BatchLoader<K, V>) attributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+            if (loader == null) {
+                loader = factory.get();
+                attributes.setAttribute(attribute, loader, RequestAttributes.SCOPE_REQUEST);
+            }
+            return loader;
+        }
+    }
+
+    /**
+     * Schedules loading of a key
+     *
+     * @param key key to load
+     * @return future of loaded value, completed with null if absent
+     */
+    public synchronized CompletableFuture<V> load(K key) {
+        return futures.computeIfAbsent(key, k -> {
+            pending.add(k);
+            return new DispatchingFuture();
+        });
+    }
+
+    /**
+     * Schedules loading of keys
+     *
+     * @param keys keys to load
+     * @return future of loaded values in order of keys, null for absent ones
+     */
+    public CompletableFuture<List<V>> loadMany(Collection<K> keys) {
+        List<CompletableFuture<V>> loads = keys.stream().map(this::load).collect(Collectors.toList());
+        CompletableFuture<List<V>> result = CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]))
+                .thenApply(v -> loads.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+        dispatch();
+        return result;
+    }
+
+    /**
+     * Loads all scheduled keys
+     */
+    public void dispatch() {
+        List<K> keys;
+        Map<K, CompletableFuture<V>> loading = new HashMap<>();
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            keys = pending;
+            pending = new ArrayList<>();
+            keys.forEach(key -> loading.put(key, futures.get(key)));
+        }
+        List<List<K>> chunks = Lists.partition(keys, chunkSize);
+        for (int i = 0; i < chunks.size(); i++) {
+            List<K> chunk = chunks.get(i);
+            try {
+                Map<K, V> values = new HashMap<>();
+                for (V value : bulkLoader.apply(chunk)) {
+                    values.put(keyFunction.apply(value), value);
+                }
+                chunk.forEach(key -> loading.get(key).complete(values.get(key)));
+            } catch (RuntimeException e) {
+                fail(chunk, loading, e);
+            } catch (Throwable e) {
+                // errors (e.g. OutOfMemoryError) abort dispatching, but never leave waiting callers blocked
+                fail(keys.subList(i * chunkSize, keys.size()), loading, e);
+                throw e;
+            }
+        }
+    }
+
+    private void fail(List<K> keys, Map<K, CompletableFuture<V>> loading, Throwable e) {
+        synchronized (this) {
+            // failed keys can be loaded again
+            keys.forEach(futures::remove);
+        }
+        keys.forEach(key -> loading.get(key).completeExceptionally(e));
+    }
+
+    /**
+     * Clears memoized value of a key, e.g. after it is modified
+     *
+     * @param key key to clear
+     */
+    public synchronized void clear(K key) {
+        CompletableFuture<V> future = futures.get(key);
+        if (future != null && future.isDone()) {
+            futures.remove(key);
+        }
+    }
+
+    /**
+     * Clears all memoized values
+     */
+    public synchronized void clearAll() {
+        futures.values().removeIf(CompletableFuture::isDone);
+    }
+
+    /**
+     * Future dispatching scheduled keys before waiting
+     */
+    private class DispatchingFuture extends CompletableFuture<V> {
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            dispatchIfIncomplete();
+            return super.get();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            dispatchIfIncomplete();
+            return super.get(timeout, unit);
+        }
+
+        @Override
+        public V join() {
+            dispatchIfIncomplete();
+            return super.join();
+        }
+
+        private void dispatchIfIncomplete() {
+            if (!isDone()) {
+                dispatch();
+            }
+        }
+    }
+}
@@ -16,6 +16,12 @@
 
 package com.dream.springframework.dao.model;
 
+import com.dream.springframework.base.model.TotalMode;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Base Query Condition for sql
  *
@@ -38,6 +44,36 @@ public class BaseCondition {
      */
     private String order;
 
+    /**
+     * How to produce total count of the page, {@link TotalMode#EXACT} if null
+     */
+    private TotalMode totalMode;
+
+    /**
+     * Whether to paginate by keyset (cursor) instead of page number
+     */
+    private boolean keyset;
+
+    /**
+     * Cursor returned by previous keyset page, null for first page
+     */
+    private String cursor;
+
+    /**
+     * Resolved order columns of {@link #order}
+     */
+    private List<OrderColumn> orderColumns;
+
+    /**
+     * Time budget of the query, applied as statement timeout, default timeout of dao properties if null
+     */
+    private Duration timeout;
+
+    /**
+     * Candidate ids answered by {@link com.dream.springframework.dao.search.SearchIndex}, not filtered by ids if null
+     */
+    private Collection<Long> searchIds;
+
     /**
      * @return page number for pagination
      */
@@ -81,11 +117,95 @@ public class BaseCondition {
     }
 
     /**
-     * Skips the query action if satisfies some condition.
+     * @return how to produce total count of the page, {@link TotalMode#EXACT} if null
+     */
+    public TotalMode getTotalMode() {
+        return totalMode;
+    }
+
+    /**
+     * @param totalMode how to produce total count of the page
+     */
+    public void setTotalMode(TotalMode totalMode) {
+        this.totalMode = totalMode;
+    }
+
+    /**
+     * @return whether to paginate by keyset (cursor) instead of page number
+     */
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    /**
+     * @param keyset whether to paginate by keyset (cursor) instead of page number
+     */
+    public void setKeyset(boolean keyset) {
+        this.keyset = keyset;
+    }
+
+    /**
+     * @return cursor returned by previous keyset page
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @param cursor cursor returned by previous keyset page, null for first page
+     */
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return resolved order columns, keyset pagination seeks by their values
+     */
+    public List<OrderColumn> getOrderColumns() {
+        return orderColumns;
+    }
+
+    /**
+     * @param orderColumns resolved order columns
+     */
+    void setOrderColumns(List<OrderColumn> orderColumns) {
+        this.orderColumns = orderColumns;
+    }
+
+    /**
+     * @return time budget of the query, default timeout if null
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @param timeout time budget of the query, applied as statement timeout
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return candidate ids answered by search index, not filtered by ids if null
+     */
+    public Collection<Long> getSearchIds() {
+        return searchIds;
+    }
+
+    /**
+     * @param searchIds candidate ids answered by search index, not filtered by ids if null
+     */
+    public void setSearchIds(Collection<Long> searchIds) {
+        this.searchIds = searchIds;
+    }
+
+    /**
+     * Skips the query action if satisfies some condition, by default when the search index answers no candidate.
      *
      * @return true to skip query action
      */
     public boolean skipQuery() {
-        return false;
+        return searchIds != null && searchIds.isEmpty();
     }
 }
@@ -16,7 +16,11 @@
 
 package com.dream.springframework.dao.model;
 
+import com.dream.springframework.base.model.TotalMode;
+
+import java.time.Duration;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Base query type builder
@@ -50,6 +54,47 @@ public class BaseQueryBuilder<T extends BaseCondition> {
         query.setPageSize(pageSize);
     }
 
+    /**
+     * Page information with specified total count mode
+     *
+     * @param pageNum   page number to set
+     * @param pageSize  page size to set
+     * @param totalMode how to produce total count, e.g. {@link TotalMode#NONE} to skip count query of large tables
+     */
+    protected void setPage(Integer pageNum, Integer pageSize, TotalMode totalMode) {
+        setPage(pageNum, pageSize);
+        query.setTotalMode(totalMode);
+    }
+
+    /**
+     * Keyset pagination information
+     * <p>
+     * Pages are positioned by the order column values of the last item of previous page instead of an offset, so that every page costs
+     * the same. Order columns must be unique together, so the {@link #getUniqueKey() unique key} is appended to them when built, and
+     * the default order is applied if none is resolved. Order columns may contain NULL values.
+     *
+     * @param cursor   cursor returned by previous page, null for first page
+     * @param pageSize page size to set
+     */
+    protected void setCursor(String cursor, Integer pageSize) {
+        query.setKeyset(true);
+        query.setCursor(cursor);
+        query.setPageNum(null);
+        query.setPageSize(pageSize);
+    }
+
+    /**
+     * Time budget of the query
+     * <p>
+     * Statements of the query are cancelled by the database once the budget is exhausted, so that queries abandoned by clients do not
+     * hold connections. Timeouts are applied in seconds, rounded up.
+     *
+     * @param timeout time budget of the query
+     */
+    protected void setTimeout(Duration timeout) {
+        query.setTimeout(timeout);
+    }
+
     /**
      * Convert single order information to order sql string and set the result to query object
      *
@@ -84,12 +129,11 @@ public class BaseQueryBuilder<T extends BaseCondition> {
                 return;
             }
         }
-        query.setOrder(targetOrders.stream().filter(targetOrder -> orderColumnMap.containsKey(targetOrder.getOrderBy()))
+        setOrderColumns(targetOrders.stream().filter(targetOrder -> orderColumnMap.containsKey(targetOrder.getOrderBy()))
                 .flatMap(targetOrder -> Arrays.stream(orderColumnMap.get(targetOrder.getOrderBy())).filter(Objects::nonNull)
                         .map(column -> new OrderColumn(column, targetOrder.getOrder()))).sorted(
                         (o1, o2) -> o1.isAppend() ^ o2.isAppend() ? (o1.isAppend() ? 1 : -1) : 0).distinct()
-                .map(orderColumn -> orderColumn.getOrderBy() + (orderColumn
-                        .getOrder() == Order.ORDER_DESC ? SQL_ORDER_DESC : SQL_ORDER_ASC)).reduce((s1, s2) -> s1 + "," + s2).orElse(null));
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -106,12 +150,42 @@ public class BaseQueryBuilder<T extends BaseCondition> {
         return null;
     }
 
+    /**
+     * @return unique non-null column (e.g. primary key) appended to order columns of keyset pagination as tiebreaker, so that rows
+     * with duplicate order values are neither skipped nor repeated between pages, null if order columns are already unique
+     */
+    protected String getUniqueKey() {
+        return null;
+    }
+
     /**
      * Builds query condition object
      *
      * @return query condition object
      */
     public T build() {
+        if (query.isKeyset()) {
+            if (query.getOrderColumns() == null || query.getOrderColumns().isEmpty()) {
+                buildOrders(null);
+            }
+            String uniqueKey = getUniqueKey();
+            List<OrderColumn> orderColumns = new ArrayList<>();
+            if (query.getOrderColumns() != null) {
+                orderColumns.addAll(query.getOrderColumns());
+            }
+            if (uniqueKey != null && orderColumns.stream().noneMatch(column -> column.getOrderBy().equals(uniqueKey))) {
+                // same direction as the last column, so that the columns could still be sought as a row value
+                Integer order = orderColumns.isEmpty() ? null : orderColumns.get(orderColumns.size() - 1).getOrder();
+                orderColumns.add(new OrderColumn(uniqueKey, order == null ? Order.ORDER_ASC : order, true));
+                setOrderColumns(orderColumns);
+            }
+        }
         return query;
     }
+
+    private void setOrderColumns(List<OrderColumn> orderColumns) {
+        query.setOrderColumns(orderColumns);
+        query.setOrder(orderColumns.stream().map(orderColumn -> orderColumn.getOrderBy() + (orderColumn
+                .getOrder() == Order.ORDER_DESC ? SQL_ORDER_DESC : SQL_ORDER_ASC)).reduce((s1, s2) -> s1 + "," + s2).orElse(null));
+    }
 }
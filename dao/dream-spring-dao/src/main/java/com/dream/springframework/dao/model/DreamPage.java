@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.model;
+
+import com.dream.springframework.base.model.TotalMode;
+import com.github.pagehelper.Page;
+
+/**
+ * Page whose total is not (or not necessarily) produced by a count query
+ *
+ * @param <E> item type
+ * @author DreamJM
+ */
+public class DreamPage<E> extends Page<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * How the total is produced
+     */
+    private final TotalMode totalMode;
+
+    /**
+     * Whether next page exists
+     */
+    private boolean hasNext;
+
+    /**
+     * @param pageNum   page number
+     * @param pageSize  page size
+     * @param totalMode how the total is produced
+     */
+    public DreamPage(int pageNum, int pageSize, TotalMode totalMode) {
+        super(pageNum, pageSize, false);
+        this.totalMode = totalMode;
+    }
+
+    /**
+     * @return how the total is produced
+     */
+    public TotalMode getTotalMode() {
+        return totalMode;
+    }
+
+    /**
+     * @return whether next page exists
+     */
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    /**
+     * @param hasNext whether next page exists
+     */
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.model;
+
+import java.util.List;
+
+/**
+ * Keyset pagination of current query
+ *
+ * @author DreamJM
+ */
+public class Keyset {
+
+    private final List<OrderColumn> columns;
+
+    private final Object[] values;
+
+    private final int pageSize;
+
+    /**
+     * @param columns  resolved order columns
+     * @param values   order column values of the last item of previous page, null for first page
+     * @param pageSize page size
+     */
+    public Keyset(List<OrderColumn> columns, Object[] values, int pageSize) {
+        this.columns = columns;
+        this.values = values;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return resolved order columns
+     */
+    public List<OrderColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return order column values of the last item of previous page, null for first page
+     */
+    public Object[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.model;
+
+import com.dream.springframework.base.model.TotalMode;
+
+/**
+ * Page of keyset pagination
+ *
+ * @param <E> item type
+ * @author DreamJM
+ */
+public class KeysetPage<E> extends DreamPage<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Cursor of next page, null if no more items
+     */
+    private String nextCursor;
+
+    public KeysetPage(int pageSize) {
+        super(1, pageSize, TotalMode.NONE);
+    }
+
+    /**
+     * @return cursor of next page, null if no more items
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @param nextCursor cursor of next page
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+        setHasNext(nextCursor != null);
+    }
+}
@@ -50,6 +50,13 @@ public class OrderColumn {
      */
     private boolean append;
 
+    /**
+     * Property of query result item holding the value of this column, used by keyset pagination
+     * <p>
+     * If null, derived from the column name, e.g. 't.create_time' to 'createTime'
+     */
+    private String property;
+
     /**
      * @param orderBy sql order field
      */
@@ -90,9 +97,25 @@ public class OrderColumn {
         this.append = append;
     }
 
+    /**
+     * @param orderBy  sql order field
+     * @param order    {@link Order#ORDER_ASC 0}: Ascending Order,
+     *                 {@link Order#ORDER_DESC 1}: Descending Order
+     *                 {@code null}: the order specified by the original request {@link Order#getOrder() order} will be used for ordering
+     * @param append   If true, this order column will be put behind
+     * @param property property of query result item holding the value of this column
+     */
+    public OrderColumn(String orderBy, Integer order, boolean append, String property) {
+        this.orderBy = orderBy;
+        this.order = order;
+        this.append = append;
+        this.property = property;
+    }
+
     OrderColumn(OrderColumn column, int order) {
         this.orderBy = column.getOrderBy();
         this.append = column.isAppend();
+        this.property = column.property;
         this.order = column.getOrder();
         if (this.order == null) {
             this.order = order;
@@ -129,6 +152,29 @@ public class OrderColumn {
         return append;
     }
 
+    /**
+     * Property of query result item holding the value of this column, used by keyset pagination
+     *
+     * @return specified property, or the one derived from the column name, e.g. 't.create_time' to 'createTime'
+     */
+    public String getProperty() {
+        if (property != null) {
+            return property;
+        }
+        String column = orderBy.substring(orderBy.lastIndexOf('.') + 1).replace("`", "").replace("\"", "");
+        StringBuilder builder = new StringBuilder(column.length());
+        boolean upper = false;
+        for (char c : column.toCharArray()) {
+            if (c == '_') {
+                upper = builder.length() > 0;
+            } else {
+                builder.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return builder.toString();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
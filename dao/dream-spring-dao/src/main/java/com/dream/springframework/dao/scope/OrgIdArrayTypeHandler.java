@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.scope;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.*;
+import java.util.Collection;
+
+/**
+ * Binds organization identities as a single SQL array parameter, e.g. for {@code org_id = ANY(?)}
+ *
+ * @author DreamJM
+ */
+public class OrgIdArrayTypeHandler extends BaseTypeHandler<Collection<String>> {
+
+    private final String arrayType;
+
+    /**
+     * @param arrayType SQL type name of array elements, e.g. 'varchar'
+     */
+    public OrgIdArrayTypeHandler(String arrayType) {
+        this.arrayType = arrayType;
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, Collection<String> parameter, JdbcType jdbcType) throws SQLException {
+        ps.setArray(i, ps.getConnection().createArrayOf(arrayType, parameter.toArray()));
+    }
+
+    @Override
+    public Collection<String> getNullableResult(ResultSet rs, String columnName) {
+        throw new UnsupportedOperationException("Organization array is parameter only");
+    }
+
+    @Override
+    public Collection<String> getNullableResult(ResultSet rs, int columnIndex) {
+        throw new UnsupportedOperationException("Organization array is parameter only");
+    }
+
+    @Override
+    public Collection<String> getNullableResult(CallableStatement cs, int columnIndex) {
+        throw new UnsupportedOperationException("Organization array is parameter only");
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.scope;
+
+import java.util.Collection;
+
+/**
+ * Thread bound organization scope, overriding the one resolved by {@link OrgScopeProvider}
+ * <p>
+ * Used to run background work, e.g. export jobs, within the scope captured from the submitting request.
+ *
+ * @author DreamJM
+ */
+public final class OrgScopeContext {
+
+    private static final ThreadLocal<Collection<String>> LOCAL_ORG_IDS = new ThreadLocal<>();
+
+    private OrgScopeContext() {
+    }
+
+    /**
+     * @return visible organization identities bound to current thread, null if not bound
+     */
+    public static Collection<String> getOrgIds() {
+        return LOCAL_ORG_IDS.get();
+    }
+
+    /**
+     * @param orgIds visible organization identities of current thread, null to clear
+     * @return previous organization identities, to be restored afterwards
+     */
+    public static Collection<String> setOrgIds(Collection<String> orgIds) {
+        Collection<String> previous = LOCAL_ORG_IDS.get();
+        if (orgIds == null) {
+            LOCAL_ORG_IDS.remove();
+        } else {
+            LOCAL_ORG_IDS.set(orgIds);
+        }
+        return previous;
+    }
+}
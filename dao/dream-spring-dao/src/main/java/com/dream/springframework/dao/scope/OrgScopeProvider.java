@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.scope;
+
+import java.util.Collection;
+
+/**
+ * Provides organization identities visible to current user for {@link com.dream.springframework.dao.annotation.OrgScope} queries
+ * <p>
+ * Implementations should return the organizations bound by {@link OrgScopeContext} first, if any.
+ *
+ * @author DreamJM
+ */
+public interface OrgScopeProvider {
+
+    /**
+     * @return visible organization identities (empty for no rows), or null if the query should not be restricted, e.g. in background
+     * tasks
+     */
+    Collection<String> getOrgIds();
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted ids compressed as variable length deltas
+ * <p>
+ * Appending an id greater than the last one only writes its delta, which is the common case of ascending scans and auto increment
+ * keys. Other modifications re-encode the whole list. Not thread safe.
+ *
+ * @author DreamJM
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+
+    private int length;
+
+    private int count;
+
+    private long last = -1;
+
+    /**
+     * @param id non-negative id to add, ignored if present
+     */
+    void add(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Negative id is not indexable: " + id);
+        }
+        if (id > last) {
+            writeDelta(count == 0 ? id : id - last);
+            last = id;
+            count++;
+            return;
+        }
+        long[] ids = toArray();
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return;
+        }
+        int insertion = -index - 1;
+        long[] added = new long[ids.length + 1];
+        System.arraycopy(ids, 0, added, 0, insertion);
+        added[insertion] = id;
+        System.arraycopy(ids, insertion, added, insertion + 1, ids.length - insertion);
+        encode(added);
+    }
+
+    /**
+     * @param id id to remove
+     * @return true if removed
+     */
+    boolean remove(long id) {
+        if (id < 0 || id > last) {
+            return false;
+        }
+        long[] ids = toArray();
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return false;
+        }
+        long[] removed = new long[ids.length - 1];
+        System.arraycopy(ids, 0, removed, 0, index);
+        System.arraycopy(ids, index + 1, removed, index, ids.length - index - 1);
+        encode(removed);
+        return true;
+    }
+
+    /**
+     * @return count of ids
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * @return whether there is no id
+     */
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return sorted ids
+     */
+    long[] toArray() {
+        long[] ids = new long[count];
+        int position = 0;
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value = i == 0 ? delta : value + delta;
+            ids[i] = value;
+        }
+        return ids;
+    }
+
+    /**
+     * Intersects with sorted ids, decoding the list only once
+     *
+     * @param sorted sorted ids
+     * @return sorted ids present in both
+     */
+    long[] retain(long[] sorted) {
+        long[] retained = new long[Math.min(sorted.length, count)];
+        int size = 0;
+        int position = 0;
+        long value = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < sorted.length; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value = i == 0 ? delta : value + delta;
+            while (j < sorted.length && sorted[j] < value) {
+                j++;
+            }
+            if (j < sorted.length && sorted[j] == value) {
+                retained[size++] = value;
+                j++;
+            }
+        }
+        return size == retained.length ? retained : Arrays.copyOf(retained, size);
+    }
+
+    private void encode(long[] ids) {
+        bytes = new byte[Math.max(INITIAL_CAPACITY, ids.length * 2)];
+        length = 0;
+        count = 0;
+        last = -1;
+        for (long id : ids) {
+            writeDelta(count == 0 ? id : id - last);
+            last = id;
+            count++;
+        }
+    }
+
+    private void writeDelta(long delta) {
+        // at most 10 bytes of 7 bits
+        if (length + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 10));
+        }
+        while ((delta & ~0x7FL) != 0) {
+            bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[length++] = (byte) delta;
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.search;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-process trigram inverted index of text columns, answering {@code LIKE '%keyword%'} filters with candidate ids
+ * <p>
+ * Values are lower-cased and split into trigrams of code points, each trigram maps to a {@link PostingList} of the row ids containing
+ * it. Candidates of a keyword are ids containing all of its trigrams in any indexed column, which is a superset of the matched rows,
+ * so the query should still apply its {@code LIKE} filter on them, e.g. {@code id IN (candidates) AND name LIKE ...}.
+ * <p>
+ * {@link #search(String)} returns null when the index could not answer: before it is built, for keywords shorter than a trigram or
+ * containing {@code LIKE} wildcards, and when there are more candidates than the limit, in which case the query should filter by
+ * scanning as before. Ids must be non-negative numbers. Columns compared by accent-insensitive collations may miss candidates.
+ * <p>
+ * Reindexing is serialized per index from loading rows to applying them, so that rows loaded earlier never overwrite the ones
+ * loaded by a later reindex of the same ids.
+ *
+ * @author DreamJM
+ */
+public class SearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final int CODE_POINT_BITS = 21;
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final int RELOAD_BATCH_SIZE = 500;
+
+    private final String name;
+
+    private final String idColumn;
+
+    private final int columnCount;
+
+    private final int maxCandidates;
+
+    private final DataSource dataSource;
+
+    private final String selectSql;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Lock reindexLock = new ReentrantLock();
+
+    private Postings postings = new Postings();
+
+    private boolean ready;
+
+    /**
+     * Ids reindexed while rebuilding, reloaded after the rebuilt postings are swapped in
+     */
+    private Set<Long> pendingIds;
+
+    /**
+     * @param name          index name
+     * @param table         table name
+     * @param idColumn      numeric id column
+     * @param columns       text columns to index
+     * @param maxCandidates max candidate ids of a search, null is returned instead if exceeded
+     * @param dataSource    data source to load rows
+     */
+    public SearchIndex(String name, String table, String idColumn, List<String> columns, int maxCandidates, DataSource dataSource) {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("No column to index of search index " + name);
+        }
+        this.name = name;
+        this.idColumn = idColumn;
+        this.columnCount = columns.size();
+        this.maxCandidates = maxCandidates;
+        this.dataSource = dataSource;
+        this.selectSql = "SELECT " + idColumn + "," + String.join(",", columns) + " FROM " + table;
+    }
+
+    /**
+     * @return index name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return whether the index has been built
+     */
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return count of indexed rows
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postings.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stops answering searches until the next rebuild, e.g. when failed to reindex modified rows
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index by scanning the table, searches are served by the previous postings meanwhile
+     *
+     * @throws SQLException if failed to scan
+     */
+    public void rebuild() throws SQLException {
+        lock.writeLock().lock();
+        try {
+            pendingIds = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Postings rebuilt = new Postings();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.setFetchSize(FETCH_SIZE);
+            // ascending ids are appended to posting lists without re-encoding
+            try (ResultSet rs = statement.executeQuery(selectSql + " ORDER BY " + idColumn)) {
+                while (rs.next()) {
+                    rebuilt.add(rs.getLong(1), grams(rs));
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingIds = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        Set<Long> pending;
+        lock.writeLock().lock();
+        try {
+            postings = rebuilt;
+            ready = true;
+            pending = pendingIds;
+            pendingIds = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!pending.isEmpty()) {
+            reindex(pending);
+        }
+    }
+
+    /**
+     * Reloads rows of the ids, removes the ones no longer exist
+     *
+     * @param ids row ids
+     * @throws SQLException if failed to load
+     */
+    public void reindex(Collection<Long> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        reindexLock.lock();
+        try {
+            reload(idList);
+        } finally {
+            reindexLock.unlock();
+        }
+    }
+
+    /**
+     * Searches candidate ids of rows whose indexed columns may contain the keyword
+     *
+     * @param keyword keyword of {@code LIKE '%keyword%'}
+     * @return sorted candidate ids, null if the index could not answer
+     */
+    public List<Long> search(String keyword) {
+        if (keyword == null || keyword.indexOf('%') >= 0 || keyword.indexOf('_') >= 0) {
+            return null;
+        }
+        Set<Long> keywordGrams = new HashSet<>();
+        addGrams(keyword, keywordGrams);
+        if (keywordGrams.isEmpty()) {
+            return null;
+        }
+        long[] candidates;
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            List<PostingList> lists = new ArrayList<>(keywordGrams.size());
+            for (Long gram : keywordGrams) {
+                PostingList list = postings.lists.get(gram);
+                if (list == null) {
+                    return Collections.emptyList();
+                }
+                lists.add(list);
+            }
+            // intersects from the rarest trigram
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            candidates = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+                candidates = lists.get(i).retain(candidates);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (candidates.length > maxCandidates) {
+            return null;
+        }
+        return Arrays.stream(candidates).boxed().collect(Collectors.toList());
+    }
+
+    private void reload(List<Long> idList) throws SQLException {
+        Map<Long, long[]> documents = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (int from = 0; from < idList.size(); from += RELOAD_BATCH_SIZE) {
+                List<Long> batch = idList.subList(from, Math.min(from + RELOAD_BATCH_SIZE, idList.size()));
+                String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+                try (PreparedStatement statement = connection.prepareStatement(
+                        selectSql + " WHERE " + idColumn + " IN (" + placeholders + ")")) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        statement.setLong(i + 1, batch.get(i));
+                    }
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            documents.put(rs.getLong(1), grams(rs));
+                        }
+                    }
+                }
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            for (Long id : idList) {
+                postings.remove(id);
+                long[] grams = documents.get(id);
+                if (grams != null) {
+                    postings.add(id, grams);
+                }
+            }
+            if (pendingIds != null) {
+                pendingIds.addAll(idList);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] grams(ResultSet rs) throws SQLException {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i < columnCount; i++) {
+            addGrams(rs.getString(i + 2), grams);
+        }
+        long[] sorted = new long[grams.size()];
+        int i = 0;
+        for (Long gram : grams) {
+            sorted[i++] = gram;
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static void addGrams(String text, Set<Long> grams) {
+        if (text == null) {
+            return;
+        }
+        int[] codePoints = text.toLowerCase(Locale.ROOT).codePoints().toArray();
+        for (int i = 0; i + GRAM_LENGTH <= codePoints.length; i++) {
+            grams.add(((long) codePoints[i] << (CODE_POINT_BITS * 2)) | ((long) codePoints[i + 1] << CODE_POINT_BITS)
+                    | codePoints[i + 2]);
+        }
+    }
+
+    private static class Postings {
+
+        private final Map<Long, PostingList> lists = new HashMap<>();
+
+        /**
+         * Trigrams of each row, to remove its postings when reindexed
+         */
+        private final Map<Long, long[]> documents = new HashMap<>();
+
+        private void add(long id, long[] grams) {
+            documents.put(id, grams);
+            for (long gram : grams) {
+                lists.computeIfAbsent(gram, key -> new PostingList()).add(id);
+            }
+        }
+
+        private void remove(long id) {
+            long[] grams = documents.remove(id);
+            if (grams == null) {
+                return;
+            }
+            for (long gram : grams) {
+                PostingList list = lists.get(gram);
+                if (list != null && list.remove(id) && list.isEmpty()) {
+                    lists.remove(gram);
+                }
+            }
+        }
+    }
+}
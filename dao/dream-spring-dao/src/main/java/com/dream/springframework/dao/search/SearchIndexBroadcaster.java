@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.search;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Broadcasts ids of rows modified by {@link com.dream.springframework.dao.annotation.ReindexSearch} methods, so that search indexes
+ * of all nodes reindex them
+ * <p>
+ * The default implementation only notifies listeners in current JVM. Multi-node deployments may provide one based on a message bus,
+ * e.g. Redis pub/sub, which must notify the listeners of every node including the publishing one.
+ *
+ * @author DreamJM
+ */
+public interface SearchIndexBroadcaster {
+
+    /**
+     * Publishes modified rows
+     *
+     * @param name index name
+     * @param ids  modified row ids
+     */
+    void publish(String name, List<Long> ids);
+
+    /**
+     * Subscribes modified rows
+     *
+     * @param listener listener receiving index name and modified row ids
+     */
+    void subscribe(BiConsumer<String, List<Long>> listener);
+}
@@ -16,23 +16,52 @@
 
 package com.dream.springframework.dao.util;
 
+import com.dream.springframework.base.model.TotalMode;
 import com.dream.springframework.base.util.ExFunction;
 import com.dream.springframework.dao.model.BaseCondition;
+import com.dream.springframework.dao.model.Keyset;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
 import com.google.common.base.Strings;
 
+import java.time.Duration;
 import java.util.function.Function;
 
 /**
  * Database Utilities
  * <p>
- * Includes paging and ordering function
+ * Includes paging (by page number or keyset), ordering and deadline function. The deadline of the query is kept on current thread
+ * and applied as statement timeout by the statement timeout interceptor of dao starter.
  *
  * @author DreamJM
  */
 public class DbQueryUtils {
 
+    private static final ThreadLocal<Long> LOCAL_DEADLINE = new ThreadLocal<>();
+
+    /**
+     * @return deadline ({@link System#nanoTime()} based) of the query running on current thread, null if not limited
+     */
+    public static Long getLocalDeadline() {
+        return LOCAL_DEADLINE.get();
+    }
+
+    /**
+     * Sets deadline of current thread, e.g. the one carried over from the query thread
+     *
+     * @param deadline deadline ({@link System#nanoTime()} based), null to clear
+     * @return previous deadline, to be restored afterwards
+     */
+    public static Long setLocalDeadline(Long deadline) {
+        Long previous = LOCAL_DEADLINE.get();
+        if (deadline == null) {
+            LOCAL_DEADLINE.remove();
+        } else {
+            LOCAL_DEADLINE.set(deadline);
+        }
+        return previous;
+    }
+
     /**
      * Apply query condition to query function
      *
@@ -47,11 +76,16 @@ public class DbQueryUtils {
             return new Page<>();
         }
         boolean needClear = applyCondition(condition);
+        Keyset keyset = PageUtil.getLocalKeyset();
+        Long previousDeadline = startDeadline(condition, null);
         try {
-            return queryFunc.apply(condition);
+            return afterQuery(condition, keyset, queryFunc.apply(condition));
         } finally {
+            setLocalDeadline(previousDeadline);
             if (needClear) {
                 PageHelper.clearPage();
+                PageUtil.clearKeyset();
+                PageUtil.clearTotalMode();
             }
         }
     }
@@ -70,15 +104,38 @@ public class DbQueryUtils {
     public static <T extends BaseCondition, R, E extends Throwable> Page<R> applyQueryConditionEx(T condition,
                                                                                                   ExFunction<T, Page<R>, E> queryFunc)
             throws E {
+        return applyQueryConditionEx(condition, null, queryFunc);
+    }
+
+    /**
+     * Apply query condition to query function with specified exception
+     *
+     * @param condition      Query Condition(paging and ordering)
+     * @param defaultTimeout time budget if the condition has no timeout, null for no limit
+     * @param queryFunc      Query function
+     * @param <T>            Query condition type
+     * @param <R>            Result Item type
+     * @param <E>            Specified exception when handling
+     * @return Page of result
+     * @throws E Exception when handling
+     */
+    public static <T extends BaseCondition, R, E extends Throwable> Page<R> applyQueryConditionEx(T condition, Duration defaultTimeout,
+                                                                                                  ExFunction<T, Page<R>, E> queryFunc)
+            throws E {
         if (condition.skipQuery()) {
             return new Page<>();
         }
         boolean needClear = applyCondition(condition);
+        Keyset keyset = PageUtil.getLocalKeyset();
+        Long previousDeadline = startDeadline(condition, defaultTimeout);
         try {
-            return queryFunc.apply(condition);
+            return afterQuery(condition, keyset, queryFunc.apply(condition));
         } finally {
+            setLocalDeadline(previousDeadline);
             if (needClear) {
                 PageHelper.clearPage();
+                PageUtil.clearKeyset();
+                PageUtil.clearTotalMode();
             }
         }
     }
@@ -104,11 +161,40 @@ public class DbQueryUtils {
      * @return whether paging or ordering condition applied using {@link PageHelper}
      */
     private static boolean applyCondition(BaseCondition condition) {
-        boolean applied = PageUtil.startPage(condition.getPageNum(), condition.getPageSize());
+        boolean applied = condition.isKeyset()
+                ? PageUtil.startKeyset(condition.getCursor(), condition.getPageSize(), condition.getOrderColumns())
+                : PageUtil.startPage(condition.getPageNum(), condition.getPageSize(), condition.getTotalMode());
         if (!Strings.isNullOrEmpty(condition.getOrder())) {
             PageHelper.orderBy(condition.getOrder());
             return true;
         }
         return applied;
     }
+
+    /**
+     * @param condition      Query condition object
+     * @param defaultTimeout time budget if the condition has no timeout, nullable
+     * @return previous deadline of current thread, an earlier one of outer query is kept
+     */
+    private static Long startDeadline(BaseCondition condition, Duration defaultTimeout) {
+        Duration timeout = condition.getTimeout() != null ? condition.getTimeout() : defaultTimeout;
+        Long previous = LOCAL_DEADLINE.get();
+        if (timeout != null && !timeout.isNegative() && !timeout.isZero()) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            if (previous == null || deadline - previous < 0) {
+                LOCAL_DEADLINE.set(deadline);
+            }
+        }
+        return previous;
+    }
+
+    private static <R> Page<R> afterQuery(BaseCondition condition, Keyset keyset, Page<R> page) {
+        if (keyset != null) {
+            return PageUtil.toKeysetPage(page, keyset);
+        }
+        if (condition.getTotalMode() == TotalMode.NONE && condition.getPageNum() != null) {
+            return PageUtil.toNoCountPage(page, condition.getPageNum(), condition.getPageSize());
+        }
+        return page;
+    }
 }
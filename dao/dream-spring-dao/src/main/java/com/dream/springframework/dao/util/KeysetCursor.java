@@ -0,0 +1,196 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.dao.util;
+
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.RequestException;
+import com.dream.springframework.base.exception.RuntimeRequestException;
+import com.dream.springframework.dao.model.Order;
+import com.dream.springframework.dao.model.OrderColumn;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Opaque cursor token of keyset pagination
+ * <p>
+ * Token is base64url of a version, fingerprint of order columns and type tagged, length prefixed order column values, so that values
+ * are restored with their original types and a cursor issued for another ordering is rejected. NULL values are encoded as such, the
+ * keyset interceptor seeks after them where the database sorts NULL.
+ *
+ * @author DreamJM
+ */
+public class KeysetCursor {
+
+    private static final char VERSION = '1';
+
+    private static final int FINGERPRINT_LENGTH = 8;
+
+    private static final char NULL_TAG = 'N';
+
+    /**
+     * Encodes order column values to cursor token
+     *
+     * @param columns resolved order columns
+     * @param values  order column values of the last item
+     * @return cursor token
+     */
+    public static String encode(List<OrderColumn> columns, Object[] values) {
+        StringBuilder builder = new StringBuilder().append(VERSION).append(fingerprint(columns));
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                builder.append(NULL_TAG).append("0:");
+                continue;
+            }
+            String text = values[i] instanceof Timestamp ? ((Timestamp) values[i]).toInstant().toString()
+                    : values[i] instanceof Date ? String.valueOf(((Date) values[i]).getTime()) : values[i].toString();
+            builder.append(tag(values[i])).append(text.length()).append(':').append(text);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes cursor token to order column values
+     *
+     * @param columns resolved order columns
+     * @param cursor  cursor token
+     * @return order column values
+     * @throws RuntimeRequestException if the cursor is malformed or issued for another ordering
+     */
+    public static Object[] decode(List<OrderColumn> columns, String cursor) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (text.charAt(0) != VERSION || !text.startsWith(fingerprint(columns), 1)) {
+                throw invalid(null);
+            }
+            Object[] values = new Object[columns.size()];
+            int position = 1 + FINGERPRINT_LENGTH;
+            for (int i = 0; i < values.length; i++) {
+                char tag = text.charAt(position);
+                int colon = text.indexOf(':', position);
+                int length = Integer.parseInt(text.substring(position + 1, colon));
+                position = colon + 1 + length;
+                values[i] = parse(tag, text.substring(colon + 1, position));
+            }
+            if (position != text.length()) {
+                throw invalid(null);
+            }
+            return values;
+        } catch (RuntimeRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw invalid(e);
+        }
+    }
+
+    private static String fingerprint(List<OrderColumn> columns) {
+        CRC32 crc = new CRC32();
+        for (OrderColumn column : columns) {
+            crc.update((column.getOrderBy() + (column.getOrder() == Order.ORDER_DESC ? "-" : "+")).getBytes(StandardCharsets.UTF_8));
+        }
+        return String.format("%08x", crc.getValue());
+    }
+
+    private static char tag(Object value) {
+        if (value instanceof String) {
+            return 'S';
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return 'I';
+        } else if (value instanceof Long) {
+            return 'L';
+        } else if (value instanceof Double || value instanceof Float) {
+            return 'D';
+        } else if (value instanceof BigDecimal) {
+            return 'B';
+        } else if (value instanceof BigInteger) {
+            return 'G';
+        } else if (value instanceof Boolean) {
+            return 'Z';
+        } else if (value instanceof Timestamp) {
+            return 'Q';
+        } else if (value instanceof Date) {
+            return 'T';
+        } else if (value instanceof LocalDateTime) {
+            return 'l';
+        } else if (value instanceof LocalDate) {
+            return 'd';
+        } else if (value instanceof LocalTime) {
+            return 't';
+        } else if (value instanceof Instant) {
+            return 'i';
+        } else if (value instanceof OffsetDateTime) {
+            return 'o';
+        }
+        throw new IllegalStateException("Unsupported keyset column type " + value.getClass().getName());
+    }
+
+    private static Object parse(char tag, String text) {
+        switch (tag) {
+            case NULL_TAG:
+                if (!text.isEmpty()) {
+                    throw invalid(null);
+                }
+                return null;
+            case 'S':
+                return text;
+            case 'I':
+                return Integer.valueOf(text);
+            case 'L':
+                return Long.valueOf(text);
+            case 'D':
+                return Double.valueOf(text);
+            case 'B':
+                return new BigDecimal(text);
+            case 'G':
+                return new BigInteger(text);
+            case 'Z':
+                return Boolean.valueOf(text);
+            case 'Q':
+                return Timestamp.from(Instant.parse(text));
+            case 'T':
+                return new Date(Long.parseLong(text));
+            case 'l':
+                return LocalDateTime.parse(text);
+            case 'd':
+                return LocalDate.parse(text);
+            case 't':
+                return LocalTime.parse(text);
+            case 'i':
+                return Instant.parse(text);
+            case 'o':
+                return OffsetDateTime.parse(text);
+            default:
+                throw invalid(null);
+        }
+    }
+
+    private static RuntimeRequestException invalid(Throwable cause) {
+        return new RuntimeRequestException(cause == null ? new RequestException(BaseErrorCode.PARAM_INVALID)
+                : new RequestException(BaseErrorCode.PARAM_INVALID, cause));
+    }
+}
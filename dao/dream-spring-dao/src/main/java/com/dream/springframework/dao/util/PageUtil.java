@@ -16,11 +16,24 @@
 
 package com.dream.springframework.dao.util;
 
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.RequestException;
+import com.dream.springframework.base.exception.RuntimeRequestException;
+import com.dream.springframework.base.model.CursorPageResult;
 import com.dream.springframework.base.model.PageResult;
+import com.dream.springframework.base.model.TotalMode;
+import com.dream.springframework.dao.model.DreamPage;
+import com.dream.springframework.dao.model.Keyset;
+import com.dream.springframework.dao.model.KeysetPage;
+import com.dream.springframework.dao.model.OrderColumn;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
+import com.google.common.base.Strings;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -34,6 +47,10 @@ public class PageUtil {
 
     private static int DEFAULT_PAGE_SIZE = 10;
 
+    private static final ThreadLocal<Keyset> LOCAL_KEYSET = new ThreadLocal<>();
+
+    private static final ThreadLocal<TotalMode> LOCAL_TOTAL_MODE = new ThreadLocal<>();
+
     /**
      * @param defaultPageSize default page size
      */
@@ -52,19 +69,144 @@ public class PageUtil {
      * @return whether page condition applied({@code false} if pageNum is {@code null})
      */
     public static boolean startPage(Integer pageNum, Integer pageSize) {
+        return startPage(pageNum, pageSize, TotalMode.EXACT);
+    }
+
+    /**
+     * Starts paging with {@link PageHelper} and specified total count mode
+     * <p>
+     * {@link TotalMode#NONE} skips the count query and fetches one more item to know whether next page exists, the result should be
+     * passed to {@link #toNoCountPage(List, Integer, Integer)}. {@link TotalMode#CACHED} and {@link TotalMode#ESTIMATED} are applied
+     * by the page total interceptor of dao starter, which falls back to exact count when no cached or estimated total available.
+     *
+     * @param pageNum   page number
+     * @param pageSize  page size
+     * @param totalMode how to produce total count, {@link TotalMode#EXACT} if null
+     * @return whether page condition applied({@code false} if pageNum is {@code null})
+     */
+    public static boolean startPage(Integer pageNum, Integer pageSize, TotalMode totalMode) {
         if (pageNum == null) {
             return false;
         }
-        if (pageNum < 1) {
-            pageNum = 1;
+        pageNum = normalizePageNum(pageNum);
+        pageSize = normalizePageSize(pageSize);
+        if (totalMode == TotalMode.NONE) {
+            PageHelper.offsetPage((pageNum - 1) * pageSize, pageSize + 1, false);
+        } else {
+            PageHelper.startPage(pageNum, pageSize);
+            if (totalMode == TotalMode.CACHED || totalMode == TotalMode.ESTIMATED) {
+                LOCAL_TOTAL_MODE.set(totalMode);
+            }
         }
-        if (pageSize == null) {
-            pageSize = DEFAULT_PAGE_SIZE;
+        return true;
+    }
+
+    /**
+     * Trims the extra item fetched by {@link TotalMode#NONE} paging
+     *
+     * @param rows     database query result
+     * @param pageNum  page number
+     * @param pageSize page size
+     * @param <T>      database entity
+     * @return page without total
+     */
+    public static <T> DreamPage<T> toNoCountPage(List<T> rows, Integer pageNum, Integer pageSize) {
+        pageSize = normalizePageSize(pageSize);
+        DreamPage<T> page = new DreamPage<>(normalizePageNum(pageNum), pageSize, TotalMode.NONE);
+        page.addAll(rows.size() > pageSize ? rows.subList(0, pageSize) : rows);
+        page.setHasNext(rows.size() > pageSize);
+        return page;
+    }
+
+    /**
+     * @return total count mode of the next query to be applied by interceptor, null for exact count
+     */
+    public static TotalMode getLocalTotalMode() {
+        return LOCAL_TOTAL_MODE.get();
+    }
+
+    /**
+     * Clears total count mode of current thread
+     */
+    public static void clearTotalMode() {
+        LOCAL_TOTAL_MODE.remove();
+    }
+
+    private static int normalizePageNum(Integer pageNum) {
+        return pageNum == null || pageNum < 1 ? 1 : pageNum;
+    }
+
+    private static int normalizePageSize(Integer pageSize) {
+        return pageSize == null ? DEFAULT_PAGE_SIZE : pageSize;
+    }
+
+    /**
+     * Starts keyset pagination for the next query
+     * <p>
+     * One more item than page size is fetched without count query to know whether next page exists. Predicate seeking after the cursor
+     * is appended to the query by the keyset interceptor of dao starter.
+     *
+     * @param cursor       cursor returned by previous page, null for first page
+     * @param pageSize     page size, default page size if null
+     * @param orderColumns resolved order columns
+     * @return whether keyset condition applied
+     * @throws RuntimeRequestException if no order column is resolved, e.g. none of requested orders is known
+     */
+    public static boolean startKeyset(String cursor, Integer pageSize, List<OrderColumn> orderColumns) {
+        if (orderColumns == null || orderColumns.isEmpty()) {
+            throw new RuntimeRequestException(new RequestException(BaseErrorCode.PARAM_INVALID));
         }
-        PageHelper.startPage(pageNum, pageSize);
+        pageSize = normalizePageSize(pageSize);
+        Object[] values = Strings.isNullOrEmpty(cursor) ? null : KeysetCursor.decode(orderColumns, cursor);
+        startKeyset(new Keyset(orderColumns, values, pageSize));
         return true;
     }
 
+    /**
+     * Starts keyset pagination for the next query with resolved keyset, e.g. the one started on another thread
+     *
+     * @param keyset keyset pagination
+     */
+    public static void startKeyset(Keyset keyset) {
+        PageHelper.startPage(1, keyset.getPageSize() + 1, false);
+        LOCAL_KEYSET.set(keyset);
+    }
+
+    /**
+     * @return keyset pagination of the next query, null if not started
+     */
+    public static Keyset getLocalKeyset() {
+        return LOCAL_KEYSET.get();
+    }
+
+    /**
+     * Clears keyset pagination of current thread
+     */
+    public static void clearKeyset() {
+        LOCAL_KEYSET.remove();
+    }
+
+    /**
+     * Trims the extra item fetched by keyset pagination and issues cursor of next page
+     *
+     * @param page   database query result
+     * @param keyset keyset pagination of the query
+     * @param <T>    database entity
+     * @return keyset page
+     */
+    public static <T> KeysetPage<T> toKeysetPage(List<T> page, Keyset keyset) {
+        KeysetPage<T> result = new KeysetPage<>(keyset.getPageSize());
+        if (page.size() <= keyset.getPageSize()) {
+            result.addAll(page);
+            return result;
+        }
+        result.addAll(page.subList(0, keyset.getPageSize()));
+        MetaObject last = SystemMetaObject.forObject(result.get(result.size() - 1));
+        Object[] values = keyset.getColumns().stream().map(column -> last.getValue(column.getProperty())).toArray();
+        result.setNextCursor(KeysetCursor.encode(keyset.getColumns(), values));
+        return result;
+    }
+
     /**
      * Converts {@link Page} to {@link PageResult}
      *
@@ -73,8 +215,10 @@ public class PageUtil {
      * @return Page Result
      */
     public static <T> PageResult<T> parsePageResult(Page<T> page) {
-        if (page.getPageNum() > 0) {
-            return new PageResult<>(page.getPageNum(), page.getPageSize(), page.getPages(), page.getTotal(), page.getResult());
+        if (page instanceof KeysetPage) {
+            return new CursorPageResult<>(page.getPageSize(), page.getResult(), ((KeysetPage<T>) page).getNextCursor());
+        } else if (page.getPageNum() > 0) {
+            return toPageResult(page, page.getResult());
         } else {
             return new PageResult<>(page.getResult());
         }
@@ -90,12 +234,26 @@ public class PageUtil {
      * @return Page Result
      */
     public static <T, R> PageResult<R> parsePageResult(Page<T> page, Function<T, @Nullable R> converter) {
-        if (page.getPageNum() > 0) {
-            return new PageResult<>(page.getPageNum(), page.getPageSize(), page.getPages(), page.getTotal(),
-                    page.getResult().stream().map(converter).collect(Collectors.toList()));
+        if (page instanceof KeysetPage) {
+            return new CursorPageResult<>(page.getPageSize(), page.getResult().stream().map(converter).collect(Collectors.toList()),
+                    ((KeysetPage<T>) page).getNextCursor());
+        } else if (page.getPageNum() > 0) {
+            return toPageResult(page, page.getResult().stream().map(converter).collect(Collectors.toList()));
         } else {
             return new PageResult<>(page.getResult().stream().map(converter).collect(Collectors.toList()));
         }
     }
 
+    private static <R> PageResult<R> toPageResult(Page<?> page, List<R> values) {
+        if (page instanceof DreamPage) {
+            DreamPage<?> dreamPage = (DreamPage<?>) page;
+            if (dreamPage.getTotalMode() == TotalMode.NONE) {
+                return new PageResult<>(page.getPageNum(), page.getPageSize(), null, null, values, TotalMode.NONE, dreamPage.isHasNext());
+            }
+            return new PageResult<>(page.getPageNum(), page.getPageSize(), page.getPages(), page.getTotal(), values,
+                    dreamPage.getTotalMode(), dreamPage.isHasNext());
+        }
+        return new PageResult<>(page.getPageNum(), page.getPageSize(), page.getPages(), page.getTotal(), values, TotalMode.EXACT,
+                page.getPageNum() < page.getPages());
+    }
 }
@@ -151,4 +151,9 @@ public abstract class BaseErrorCode {
      */
     public static final int SYS_ERROR = 5000;
 
+    /**
+     * Batch item not executed because the batch action was cancelled or timed out
+     */
+    public static final int BATCH_CANCELLED = 5901;
+
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV writer
+ * <p>
+ * Starts with an UTF-8 BOM so that Excel detects the encoding. Text starting with '=', '+', '-' or '@' is prefixed by a single
+ * quote to prevent formula injection when the file is opened in spreadsheet applications.
+ *
+ * @author DreamJM
+ */
+public class CsvExportWriter implements ExportWriter {
+
+    private final ChannelWriter writer;
+
+    /**
+     * @param channel channel to be written to
+     * @throws IOException if failed to write BOM
+     */
+    public CsvExportWriter(WritableByteChannel channel) throws IOException {
+        this.writer = new ChannelWriter(channel);
+        writer.write('\uFEFF');
+    }
+
+    @Override
+    public void writeHeader(List<String> titles) throws IOException {
+        writeRow(titles);
+    }
+
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(values.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = ExportValues.format(value);
+        boolean guard = value instanceof CharSequence && isFormulaLike(text);
+        if (guard || needsQuote(text)) {
+            writer.write('"');
+            if (guard) {
+                writer.write('\'');
+            }
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    private static boolean isFormulaLike(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@';
+    }
+
+    private static boolean needsQuote(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return !text.isEmpty() && (text.charAt(0) == ' ' || text.charAt(text.length() - 1) == ' ');
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import java.util.function.Function;
+
+/**
+ * Export column definition
+ *
+ * @param <T> row type
+ * @author DreamJM
+ */
+public class ExportColumn<T> {
+
+    private final String title;
+
+    private final Function<? super T, ?> mapper;
+
+    /**
+     * @param title  column title
+     * @param mapper maps row to cell value
+     */
+    public ExportColumn(String title, Function<? super T, ?> mapper) {
+        this.title = title;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param title  column title
+     * @param mapper maps row to cell value
+     * @param <T>    row type
+     * @return export column
+     */
+    public static <T> ExportColumn<T> of(String title, Function<? super T, ?> mapper) {
+        return new ExportColumn<>(title, mapper);
+    }
+
+    /**
+     * @return column title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @param row row to be exported
+     * @return cell value
+     */
+    public Object getValue(T row) {
+        return mapper.apply(row);
+    }
+}
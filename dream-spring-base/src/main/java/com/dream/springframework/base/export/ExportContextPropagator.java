@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import com.dream.springframework.base.exception.ForbiddenException;
+
+/**
+ * Propagates context of the submitting thread (e.g. visible organizations) to the export job thread
+ *
+ * @author DreamJM
+ */
+@FunctionalInterface
+public interface ExportContextPropagator {
+
+    /**
+     * Captures context of current thread when the job is submitted
+     *
+     * @param job job running without the context
+     * @return job running within the captured context and restoring the previous one afterwards
+     * @throws ForbiddenException if no context could be captured, so that the job is not submitted
+     */
+    Runnable propagate(Runnable job) throws ForbiddenException;
+}
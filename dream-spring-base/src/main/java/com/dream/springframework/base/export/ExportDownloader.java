@@ -0,0 +1,248 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.NotFoundException;
+import com.dream.springframework.base.exception.NotModifiedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Export file download handler
+ * <p>
+ * File content is sent by Tomcat sendfile without copying when the connector supports it. Otherwise it is copied to the servlet
+ * output stream by {@link FileChannel#transferTo}, which goes through a small temporary buffer per write instead of loading the file,
+ * so memory stays bounded regardless of file size. Supports single {@code Range} with {@code If-Range}, conditional requests by
+ * {@code ETag}/{@code Last-Modified}, {@code HEAD} requests and pre-gzipped '.gz' variants next to the file.
+ * <p>
+ * Export files are never modified after creation, so the strong ETag is derived from file size and modification time.
+ *
+ * @author DreamJM
+ */
+public class ExportDownloader {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Suffix of pre-gzipped variant
+     */
+    public static final String GZIP_SUFFIX = ".gz";
+
+    private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+
+    /**
+     * Resolves export file path under the export directory
+     *
+     * @param directory export directory
+     * @param path      relative path from {@link com.dream.springframework.base.model.ExportResult#getPath()}
+     * @return export file
+     * @throws NotFoundException if the path escapes the directory or the file does not exist
+     */
+    public static Path resolve(Path directory, String path) throws NotFoundException {
+        if (path == null || path.isEmpty()) {
+            throw new NotFoundException(BaseErrorCode.DATA_NOT_FOUND);
+        }
+        Path root = directory.toAbsolutePath().normalize();
+        Path file = root.resolve(path).normalize();
+        if (!file.startsWith(root) || file.equals(root) || !Files.isRegularFile(file)) {
+            throw new NotFoundException(BaseErrorCode.DATA_NOT_FOUND);
+        }
+        return file;
+    }
+
+    /**
+     * Writes export file to the response
+     *
+     * @param file     export file
+     * @param fileName download file name, the file's own name if null
+     * @param request  http request
+     * @param response http response
+     * @throws NotModifiedException if the client copy is still valid
+     * @throws IOException          if failed to send the file
+     */
+    public static void download(Path file, String fileName, HttpServletRequest request, HttpServletResponse response)
+            throws NotModifiedException, IOException {
+        String name = fileName == null ? file.getFileName().toString() : fileName;
+        Path gzipFile = file.resolveSibling(file.getFileName() + GZIP_SUFFIX);
+        boolean gzip = acceptsGzip(request) && Files.isRegularFile(gzipFile);
+        Path content = gzip ? gzipFile : file;
+        long length = Files.size(content);
+        long lastModified = Files.getLastModifiedTime(content).toMillis() / 1000 * 1000;
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + (gzip ? "-gz" : "") + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (isNotModified(request, etag, lastModified)) {
+            throw new NotModifiedException(BaseErrorCode.DATA_NOT_MODIFIED);
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isIfRangeMatched(request, etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        response.setContentType(contentType(name));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename*=UTF-8''" + URLEncoder.encode(name, StandardCharsets.UTF_8.name()).replace("+", "%20"));
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count <= 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, content.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(content, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, Math.min(remaining, TRANSFER_CHUNK), out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accept != null && Arrays.stream(accept.split(",")).map(encoding -> encoding.replace(" ", ""))
+                .anyMatch(encoding -> encoding.equals("gzip") || encoding.startsWith("gzip;") && !encoding.endsWith("q=0"));
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return ifNoneMatch.trim().equals("*") || Arrays.stream(ifNoneMatch.split(","))
+                    .map(tag -> tag.trim().startsWith("W/") ? tag.trim().substring(2) : tag.trim()).anyMatch(etag::equals);
+        }
+        long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    private static boolean isIfRangeMatched(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.trim().startsWith("\"")) {
+            return ifRange.trim().equals(etag);
+        }
+        return getDateHeader(request, HttpHeaders.IF_RANGE) == lastModified;
+    }
+
+    private static long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param range  range header value
+     * @param length content length
+     * @return start and end (inclusive) of a single range, empty array to ignore the range (e.g. multiple or malformed ranges),
+     * null if unsatisfiable
+     */
+    private static long[] parseRange(String range, long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (end < start) {
+                    return last.isEmpty() || Long.parseLong(last) >= start ? null : new long[0];
+                }
+            }
+            return start >= length ? null : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static String contentType(String fileName) {
+        for (ExportFormat format : ExportFormat.values()) {
+            if (fileName.endsWith("." + format.getExtension())) {
+                return format.getContentType();
+            }
+        }
+        return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Supported export file formats
+ *
+ * @author DreamJM
+ */
+public enum ExportFormat {
+
+    /**
+     * Comma separated values
+     */
+    CSV("csv", "text/csv;charset=UTF-8"),
+
+    /**
+     * Office Open XML workbook
+     */
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    /**
+     * @return file extension without dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return media type of the file
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @param channel channel to be written to, closed along with the writer
+     * @return writer of the format
+     * @throws IOException if failed to initialize the file
+     */
+    public ExportWriter newWriter(WritableByteChannel channel) throws IOException {
+        return this == CSV ? new CsvExportWriter(channel) : new XlsxExportWriter(channel);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import com.dream.springframework.base.model.ExportResult;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous export job state
+ *
+ * @author DreamJM
+ */
+public class ExportJob implements ExportProgress {
+
+    private final String id;
+
+    private final String owner;
+
+    private final long createdAt = System.currentTimeMillis();
+
+    private final AtomicLong rows = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final ExportJobManager manager;
+
+    private volatile ExportJobStatus status = ExportJobStatus.PENDING;
+
+    private volatile long total = -1;
+
+    private volatile boolean cancelled;
+
+    private volatile ExportResult result;
+
+    private volatile Integer errorCode;
+
+    private volatile long finishedAt;
+
+    ExportJob(String id, String owner, ExportJobManager manager) {
+        this.id = id;
+        this.owner = owner;
+        this.manager = manager;
+    }
+
+    @Override
+    public void rowWritten() {
+        rows.incrementAndGet();
+        if (cancelled) {
+            throw new CancellationException("Export job " + id + " cancelled");
+        }
+    }
+
+    @Override
+    public void bytesWritten(long bytes) throws IOException {
+        this.bytes.addAndGet(bytes);
+        manager.reserve(bytes);
+    }
+
+    @Override
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    /**
+     * @return job identity
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return job status
+     */
+    public ExportJobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return exported row count so far
+     */
+    public long getRows() {
+        return rows.get();
+    }
+
+    /**
+     * @return expected total row count, null if unknown
+     */
+    public Long getTotal() {
+        return total < 0 ? null : total;
+    }
+
+    /**
+     * @return progress percentage, null if total row count is unknown
+     */
+    public Integer getPercent() {
+        if (status == ExportJobStatus.COMPLETED) {
+            return 100;
+        }
+        return total <= 0 ? null : (int) Math.min(99, rows.get() * 100 / total);
+    }
+
+    /**
+     * @return export result when completed
+     */
+    public ExportResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return error code when failed
+     */
+    public Integer getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * @return created timestamp in milliseconds
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return finished timestamp in milliseconds, 0 if not finished
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    String getOwner() {
+        return owner;
+    }
+
+    long getBytes() {
+        return bytes.get();
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    void start() {
+        status = ExportJobStatus.RUNNING;
+    }
+
+    void complete(ExportResult result) {
+        this.result = result;
+        finish(ExportJobStatus.COMPLETED);
+    }
+
+    void fail(int errorCode) {
+        this.errorCode = errorCode;
+        finish(ExportJobStatus.FAILED);
+    }
+
+    void finish(ExportJobStatus status) {
+        this.finishedAt = System.currentTimeMillis();
+        this.status = status;
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.ForbiddenException;
+import com.dream.springframework.base.exception.NotFoundException;
+import com.dream.springframework.base.exception.RequestException;
+import com.dream.springframework.base.model.ExportResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous export job manager
+ * <p>
+ * Submitted exports run on a bounded dedicated executor instead of request threads. Each owner (e.g. user identity) may have a
+ * limited number of pending or running jobs, and all export files share a disk budget: bytes are reserved while being written and
+ * released when a job fails, is cancelled or its result expires. Finished jobs and their files are evicted after TTL.
+ * <p>
+ * Jobs run without the request context of their owner, an {@link ExportContextPropagator} carries the needed context (e.g. visible
+ * organizations) from the submitting thread.
+ *
+ * @author DreamJM
+ */
+public class ExportJobManager implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobManager.class);
+
+    private final Executor executor;
+
+    private final Path directory;
+
+    private final int perOwnerLimit;
+
+    private final long diskBudget;
+
+    private final long ttlMillis;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> activeCounts = new HashMap<>();
+
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    private final ScheduledExecutorService cleaner;
+
+    private final ExportContextPropagator propagator;
+
+    /**
+     * @param executor        bounded executor running export jobs, should reject tasks when saturated
+     * @param directory       directory of export files
+     * @param perOwnerLimit   max pending or running jobs per owner
+     * @param diskBudget      max total bytes of export files
+     * @param ttl             time to live of finished jobs and their files
+     * @param cleanupInterval interval of expired jobs cleanup
+     */
+    public ExportJobManager(Executor executor, Path directory, int perOwnerLimit, long diskBudget, Duration ttl,
+                            Duration cleanupInterval) {
+        this(executor, directory, perOwnerLimit, diskBudget, ttl, cleanupInterval, null);
+    }
+
+    /**
+     * @param executor        bounded executor running export jobs, should reject tasks when saturated
+     * @param directory       directory of export files
+     * @param perOwnerLimit   max pending or running jobs per owner
+     * @param diskBudget      max total bytes of export files
+     * @param ttl             time to live of finished jobs and their files
+     * @param cleanupInterval interval of expired jobs cleanup
+     * @param propagator      propagator of the submitting thread context, null if jobs need no context
+     */
+    public ExportJobManager(Executor executor, Path directory, int perOwnerLimit, long diskBudget, Duration ttl,
+                            Duration cleanupInterval, ExportContextPropagator propagator) {
+        this.executor = executor;
+        this.directory = directory;
+        this.perOwnerLimit = perOwnerLimit;
+        this.diskBudget = diskBudget;
+        this.ttlMillis = ttl.toMillis();
+        this.propagator = propagator;
+        deleteOrphans();
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Dream-Export-Cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(this::cleanup, cleanupInterval.toMillis(), cleanupInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Submits an export job, returns immediately
+     *
+     * @param owner job owner, e.g. user identity
+     * @param task  export task writing into {@link #getDirectory()}
+     * @return submitted job
+     * @throws ForbiddenException if the owner has too many running jobs, the disk budget is used up, the executor is saturated or
+     *                            the context could not be propagated
+     */
+    public ExportJob submit(String owner, ExportTask task) throws ForbiddenException {
+        if (usedBytes.get() >= diskBudget) {
+            throw new ForbiddenException(BaseErrorCode.ACCESS_LIMIT);
+        }
+        ExportJob job = new ExportJob(UUID.randomUUID().toString().replace("-", ""), owner, this);
+        Runnable runnable = () -> run(job, task);
+        if (propagator != null) {
+            runnable = propagator.propagate(runnable);
+        }
+        synchronized (activeCounts) {
+            int count = activeCounts.getOrDefault(owner, 0);
+            if (count >= perOwnerLimit) {
+                throw new ForbiddenException(BaseErrorCode.ACCESS_LIMIT);
+            }
+            activeCounts.put(owner, count + 1);
+        }
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            release(owner);
+            throw new ForbiddenException(BaseErrorCode.ACCESS_LIMIT, e);
+        }
+        return job;
+    }
+
+    /**
+     * @param owner job owner
+     * @param jobId job identity
+     * @return job of the owner
+     * @throws NotFoundException if job not found or not owned by the owner
+     */
+    public ExportJob get(String owner, String jobId) throws NotFoundException {
+        ExportJob job = jobId == null ? null : jobs.get(jobId);
+        if (job == null || !job.getOwner().equals(owner)) {
+            throw new NotFoundException(BaseErrorCode.DATA_NOT_FOUND);
+        }
+        return job;
+    }
+
+    /**
+     * @param owner job owner
+     * @param jobId job identity
+     * @return export file of the completed job
+     * @throws NotFoundException if job not found, not owned by the owner or not completed
+     */
+    public Path getFile(String owner, String jobId) throws NotFoundException {
+        ExportJob job = get(owner, jobId);
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            throw new NotFoundException(BaseErrorCode.DATA_NOT_FOUND);
+        }
+        return ExportDownloader.resolve(directory, job.getResult().getPath());
+    }
+
+    /**
+     * @param owner job owner
+     * @return jobs of the owner, latest first
+     */
+    public List<ExportJob> list(String owner) {
+        return jobs.values().stream().filter(job -> job.getOwner().equals(owner))
+                .sorted(Comparator.comparingLong(ExportJob::getCreatedAt).reversed()).collect(Collectors.toList());
+    }
+
+    /**
+     * Cancels a pending or running job cooperatively, the running export stops at its next row
+     *
+     * @param owner job owner
+     * @param jobId job identity
+     * @return cancelled job
+     * @throws NotFoundException if job not found or not owned by the owner
+     */
+    public ExportJob cancel(String owner, String jobId) throws NotFoundException {
+        ExportJob job = get(owner, jobId);
+        if (!job.getStatus().isFinished()) {
+            job.cancel();
+        }
+        return job;
+    }
+
+    /**
+     * @return directory of export files
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return bytes of export files reserved against the disk budget
+     */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * Evicts finished jobs whose TTL expired and deletes their files
+     */
+    public void cleanup() {
+        long expireBefore = System.currentTimeMillis() - ttlMillis;
+        jobs.values().removeIf(job -> {
+            if (!job.getStatus().isFinished() || job.getFinishedAt() >= expireBefore) {
+                return false;
+            }
+            if (job.getStatus() == ExportJobStatus.COMPLETED) {
+                ExportUtils.deleteQuietly(directory.resolve(job.getResult().getPath()));
+                ExportUtils.deleteQuietly(directory.resolve(job.getResult().getPath() + ExportDownloader.GZIP_SUFFIX));
+                usedBytes.addAndGet(-job.getBytes());
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public void close() {
+        cleaner.shutdownNow();
+    }
+
+    /**
+     * Reserves bytes against the disk budget
+     *
+     * @param bytes bytes to be reserved
+     * @throws DiskBudgetExceededException if the disk budget is exceeded
+     */
+    void reserve(long bytes) throws DiskBudgetExceededException {
+        if (usedBytes.addAndGet(bytes) > diskBudget) {
+            throw new DiskBudgetExceededException();
+        }
+    }
+
+    private void run(ExportJob job, ExportTask task) {
+        try {
+            if (job.isCancelled()) {
+                job.finish(ExportJobStatus.CANCELLED);
+                return;
+            }
+            job.start();
+            ExportResult result = task.execute(job);
+            if (job.isCancelled()) {
+                ExportUtils.deleteQuietly(directory.resolve(result.getPath()));
+                onAborted(job, ExportJobStatus.CANCELLED, null);
+            } else {
+                job.complete(result);
+            }
+        } catch (CancellationException e) {
+            onAborted(job, ExportJobStatus.CANCELLED, null);
+        } catch (DiskBudgetExceededException e) {
+            logger.warn("Export job {} aborted: disk budget {} bytes exceeded", job.getId(), diskBudget);
+            onAborted(job, ExportJobStatus.FAILED, BaseErrorCode.ACCESS_LIMIT);
+        } catch (RequestException e) {
+            onAborted(job, ExportJobStatus.FAILED, e.getCode());
+        } catch (Exception e) {
+            logger.error("Export job {} failed", job.getId(), e);
+            onAborted(job, ExportJobStatus.FAILED, BaseErrorCode.SYS_ERROR);
+        } finally {
+            release(job.getOwner());
+        }
+    }
+
+    private void onAborted(ExportJob job, ExportJobStatus status, Integer errorCode) {
+        // aborted export files are deleted by the export itself
+        usedBytes.addAndGet(-job.getBytes());
+        if (errorCode != null) {
+            job.fail(errorCode);
+        } else {
+            job.finish(status);
+        }
+    }
+
+    private void release(String owner) {
+        synchronized (activeCounts) {
+            activeCounts.computeIfPresent(owner, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void deleteOrphans() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        long expireBefore = System.currentTimeMillis() - ttlMillis;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toMillis() < expireBefore) {
+                    ExportUtils.deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to clean export directory: {}", directory, e);
+        }
+    }
+
+    /**
+     * Thrown when export files would exceed the disk budget
+     */
+    public static class DiskBudgetExceededException extends IOException {
+
+        public DiskBudgetExceededException() {
+            super("Export disk budget exceeded");
+        }
+    }
+}
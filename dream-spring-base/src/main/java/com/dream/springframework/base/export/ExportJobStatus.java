@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+/**
+ * Export job status
+ *
+ * @author DreamJM
+ */
+public enum ExportJobStatus {
+
+    /**
+     * Waiting for an export thread
+     */
+    PENDING,
+
+    /**
+     * Exporting
+     */
+    RUNNING,
+
+    /**
+     * Export file is ready
+     */
+    COMPLETED,
+
+    /**
+     * Export failed
+     */
+    FAILED,
+
+    /**
+     * Cancelled by user
+     */
+    CANCELLED;
+
+    /**
+     * @return whether the job is finished
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
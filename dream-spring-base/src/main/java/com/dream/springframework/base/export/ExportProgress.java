@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import java.io.IOException;
+
+/**
+ * Export progress listener, also the cooperative cancellation point of an export
+ *
+ * @author DreamJM
+ */
+public interface ExportProgress {
+
+    /**
+     * Progress listener doing nothing
+     */
+    ExportProgress NONE = new ExportProgress() {
+        @Override
+        public void rowWritten() {
+        }
+
+        @Override
+        public void bytesWritten(long bytes) {
+        }
+    };
+
+    /**
+     * Called after each data row is written
+     *
+     * @throws java.util.concurrent.CancellationException if the export is cancelled
+     */
+    void rowWritten();
+
+    /**
+     * Called after bytes are written to the file
+     *
+     * @param bytes written byte count
+     * @throws IOException if the export must not write more, e.g. disk budget exceeded
+     */
+    void bytesWritten(long bytes) throws IOException;
+
+    /**
+     * @param total expected total row count if known in advance
+     */
+    default void setTotal(long total) {
+    }
+}
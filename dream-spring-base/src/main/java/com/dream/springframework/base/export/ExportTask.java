@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import com.dream.springframework.base.model.ExportResult;
+
+/**
+ * Export task run by {@link ExportJobManager}
+ *
+ * @author DreamJM
+ */
+@FunctionalInterface
+public interface ExportTask {
+
+    /**
+     * Exports into the export directory of the job manager
+     *
+     * @param progress progress listener to be passed to the export, e.g. {@link ExportUtils}
+     * @return export result
+     * @throws Exception if export failed
+     */
+    ExportResult execute(ExportProgress progress) throws Exception;
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import com.dream.springframework.base.model.ExportResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming export utilities
+ * <p>
+ * Rows are pulled from an iterator (e.g. a MyBatis cursor) and written out one by one, so memory stays constant regardless of row
+ * count. The file is written with a '.part' suffix and moved to its final name once complete, a failed export leaves no file behind.
+ *
+ * @author DreamJM
+ */
+public class ExportUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportUtils.class);
+
+    private static final String PART_SUFFIX = ".part";
+
+    /**
+     * Exports rows into a new file under the directory
+     *
+     * @param rows      rows to be exported
+     * @param columns   column definitions
+     * @param format    file format
+     * @param directory directory to write to, created if absent
+     * @param <T>       row type
+     * @return export result with file path relative to the directory
+     * @throws IOException if failed to write the file
+     */
+    public static <T> ExportResult export(Iterator<? extends T> rows, List<ExportColumn<T>> columns, ExportFormat format,
+                                          Path directory) throws IOException {
+        return export(rows, columns, format, directory, ExportProgress.NONE);
+    }
+
+    /**
+     * Exports rows into a new file under the directory and reports progress
+     *
+     * @param rows      rows to be exported
+     * @param columns   column definitions
+     * @param format    file format
+     * @param directory directory to write to, created if absent
+     * @param progress  progress listener, the export is aborted when it throws
+     * @param <T>       row type
+     * @return export result with file path relative to the directory
+     * @throws IOException if failed to write the file
+     */
+    public static <T> ExportResult export(Iterator<? extends T> rows, List<ExportColumn<T>> columns, ExportFormat format,
+                                          Path directory, ExportProgress progress) throws IOException {
+        Files.createDirectories(directory);
+        String fileName = UUID.randomUUID().toString().replace("-", "") + "." + format.getExtension();
+        Path target = directory.resolve(fileName);
+        Path part = directory.resolve(fileName + PART_SUFFIX);
+        long count = 0;
+        WritableByteChannel channel = new ProgressChannel(FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+                progress);
+        try (ExportWriter writer = format.newWriter(channel)) {
+            writer.writeHeader(columns.stream().map(ExportColumn::getTitle).collect(Collectors.toList()));
+            List<Object> values = new ArrayList<>(columns.size());
+            while (rows.hasNext()) {
+                T row = rows.next();
+                values.clear();
+                for (ExportColumn<T> column : columns) {
+                    values.add(column.getValue(row));
+                }
+                writer.writeRow(values);
+                count++;
+                progress.rowWritten();
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            deleteQuietly(part);
+            throw e;
+        }
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        return new ExportResult(fileName, count, Files.size(target));
+    }
+
+    /**
+     * @param file file to be deleted
+     */
+    public static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete export file: {}", file, e);
+        }
+    }
+
+    /**
+     * Channel reporting written bytes to the progress listener
+     */
+    private static class ProgressChannel implements WritableByteChannel {
+
+        private final FileChannel channel;
+
+        private final ExportProgress progress;
+
+        private ProgressChannel(FileChannel channel, ExportProgress progress) {
+            this.channel = channel;
+            this.progress = progress;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int written = channel.write(src);
+            progress.bytesWritten(written);
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * Cell value formatting shared by export writers
+ *
+ * @author DreamJM
+ */
+final class ExportValues {
+
+    private static final int MAX_DIGITS = 15;
+
+    private static final long MAX_EXACT_INTEGER = 1_000_000_000_000_000L;
+
+    private ExportValues() {
+    }
+
+    /**
+     * @param value non null cell value
+     * @return text of the value, numbers are never in scientific notation and dates are in ISO-8601
+     */
+    static String format(Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            return Double.isFinite(d) ? BigDecimal.valueOf(d).stripTrailingZeros().toPlainString() : String.valueOf(d);
+        } else if (value instanceof java.sql.Date || value instanceof java.sql.Time) {
+            return value.toString();
+        } else if (value instanceof Date) {
+            return ((Date) value).toInstant().toString();
+        } else if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Numbers beyond 15 significant digits (e.g. long identities) are kept as text, since spreadsheets store numbers as doubles
+     *
+     * @param value non null cell value
+     * @return whether the value should be stored as a spreadsheet number
+     */
+    static boolean isNumeric(Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            return Double.isFinite(((Number) value).doubleValue());
+        } else if (value instanceof Long) {
+            return Math.abs((Long) value) < MAX_EXACT_INTEGER;
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).precision() <= MAX_DIGITS;
+        } else if (value instanceof BigInteger) {
+            return ((BigInteger) value).abs().compareTo(BigInteger.valueOf(MAX_EXACT_INTEGER)) < 0;
+        }
+        return value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Incremental tabular data writer, rows are written out as they come so that memory does not grow with row count
+ *
+ * @author DreamJM
+ */
+public interface ExportWriter extends Closeable {
+
+    /**
+     * Writes header row
+     *
+     * @param titles column titles
+     * @throws IOException if failed to write
+     */
+    void writeHeader(List<String> titles) throws IOException;
+
+    /**
+     * Writes a data row
+     *
+     * @param values column values, null for empty cell
+     * @throws IOException if failed to write
+     */
+    void writeRow(List<?> values) throws IOException;
+
+    /**
+     * Completes the file and closes the underlying channel
+     *
+     * @throws IOException if failed to write or close
+     */
+    @Override
+    void close() throws IOException;
+}
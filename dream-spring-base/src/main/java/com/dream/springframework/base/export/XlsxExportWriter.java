@@ -0,0 +1,216 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streaming Office Open XML (XLSX) writer
+ * <p>
+ * Rows are written as inline string or number cells straight into the deflated sheet entry, no shared string table or row model is
+ * kept in memory. A new sheet repeating the header is started when a sheet reaches the row limit of spreadsheet applications.
+ *
+ * @author DreamJM
+ */
+public class XlsxExportWriter implements ExportWriter {
+
+    /**
+     * Max rows of a sheet in Excel
+     */
+    public static final int MAX_SHEET_ROWS = 1_048_576;
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private final ZipOutputStream zip;
+
+    private final ChannelWriter writer;
+
+    private final int maxSheetRows;
+
+    private List<String> titles;
+
+    private int sheetCount;
+
+    private int sheetRows;
+
+    /**
+     * @param channel channel to be written to
+     */
+    public XlsxExportWriter(WritableByteChannel channel) {
+        this(channel, MAX_SHEET_ROWS);
+    }
+
+    /**
+     * @param channel      channel to be written to
+     * @param maxSheetRows max rows (header included) of a sheet
+     */
+    public XlsxExportWriter(WritableByteChannel channel, int maxSheetRows) {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+        this.writer = new ChannelWriter(Channels.newChannel(zip));
+        this.maxSheetRows = maxSheetRows;
+    }
+
+    @Override
+    public void writeHeader(List<String> titles) throws IOException {
+        this.titles = titles;
+        writeRow(titles);
+    }
+
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+        if (sheetCount == 0 || sheetRows >= maxSheetRows) {
+            nextSheet();
+        }
+        writer.write("<row>");
+        for (Object value : values) {
+            writeCell(value);
+        }
+        writer.write("</row>");
+        sheetRows++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (sheetCount == 0) {
+                nextSheet();
+            }
+            endSheet();
+            writeEntry("[Content_Types].xml", contentTypes());
+            writeEntry("_rels/.rels", "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\"><Relationship Id=\"rId1\" Type=\"" + REL_NS
+                    + "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+            writeEntry("xl/workbook.xml", workbook());
+            writeEntry("xl/_rels/workbook.xml.rels", workbookRelationships());
+            zip.finish();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void nextSheet() throws IOException {
+        if (sheetCount > 0) {
+            endSheet();
+        }
+        sheetCount++;
+        sheetRows = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        writer.write(XML_DECLARATION);
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+        if (sheetCount > 1 && titles != null) {
+            writeHeader(titles);
+        }
+    }
+
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeCell(Object value) throws IOException {
+        if (value == null) {
+            writer.write("<c/>");
+        } else if (value instanceof Boolean) {
+            writer.write((Boolean) value ? "<c t=\"b\"><v>1</v></c>" : "<c t=\"b\"><v>0</v></c>");
+        } else if (ExportValues.isNumeric(value)) {
+            writer.write("<c><v>");
+            writer.write(ExportValues.format(value));
+            writer.write("</v></c>");
+        } else {
+            writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+            writeEscaped(ExportValues.format(value));
+            writer.write("</t></is></c>");
+        }
+    }
+
+    private void writeEscaped(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                default:
+                    // characters not allowed in XML 1.0 are dropped
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        writer.write(c);
+                    }
+            }
+        }
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(XML_DECLARATION);
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private String contentTypes() {
+        StringBuilder builder = new StringBuilder("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ")
+                .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+        for (int i = 1; i <= sheetCount; i++) {
+            builder.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ")
+                    .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return builder.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder builder = new StringBuilder("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(REL_NS)
+                .append("\"><sheets>");
+        for (int i = 1; i <= sheetCount; i++) {
+            builder.append("<sheet name=\"Sheet").append(i).append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i)
+                    .append("\"/>");
+        }
+        return builder.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRelationships() {
+        StringBuilder builder = new StringBuilder("<Relationships xmlns=\"").append(PACKAGE_REL_NS).append("\">");
+        for (int i = 1; i <= sheetCount; i++) {
+            builder.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        return builder.append("</Relationships>").toString();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+
+/**
+ * Page information of keyset (cursor) pagination
+ *
+ * @param <T> data type inside page
+ * @author DreamJM
+ */
+@ApiModel("Cursor Page Info")
+public class CursorPageResult<T> extends PageResult<T> {
+
+    @ApiModelProperty("cursor to query next page, null if no more data")
+    private String nextCursor;
+
+    public CursorPageResult(Integer pageSize, List<T> values, String nextCursor) {
+        super(null, pageSize, null, null, values, TotalMode.NONE, nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return cursor to query next page, null if no more data
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
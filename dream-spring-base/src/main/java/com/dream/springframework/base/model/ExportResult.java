@@ -25,14 +25,43 @@ public class ExportResult {
 
     private String path;
 
+    private long rows;
+
+    private long size;
+
     public ExportResult(String path) {
         this.path = path;
     }
 
+    /**
+     * @param path File url relative path
+     * @param rows Exported data row count
+     * @param size File size in bytes
+     */
+    public ExportResult(String path, long rows, long size) {
+        this.path = path;
+        this.rows = rows;
+        this.size = size;
+    }
+
     /**
      * @return File url relative path
      */
     public String getPath() {
         return path;
     }
+
+    /**
+     * @return Exported data row count
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return File size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
 }
@@ -45,6 +45,12 @@ public class PageResult<T> {
     @ApiModelProperty("data list")
     private List<T> values;
 
+    @ApiModelProperty("how the total count is produced")
+    private TotalMode totalMode;
+
+    @ApiModelProperty("whether next page exists")
+    private Boolean hasNext;
+
     public PageResult(List<T> values) {
         this.values = values;
         this.total = values == null ? 0L : values.size();
@@ -58,6 +64,13 @@ public class PageResult<T> {
         this.values = values;
     }
 
+    public PageResult(Integer pageNum, Integer pageSize, Integer pages, Long total, List<T> values, TotalMode totalMode,
+                      Boolean hasNext) {
+        this(pageNum, pageSize, pages, total, values);
+        this.totalMode = totalMode;
+        this.hasNext = hasNext;
+    }
+
     /**
      * @return current page number
      */
@@ -92,4 +105,18 @@ public class PageResult<T> {
     public List<T> getValues() {
         return values;
     }
+
+    /**
+     * @return how the total count is produced
+     */
+    public TotalMode getTotalMode() {
+        return totalMode;
+    }
+
+    /**
+     * @return whether next page exists
+     */
+    public Boolean getHasNext() {
+        return hasNext;
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.model;
+
+/**
+ * How the total count of a page is produced
+ *
+ * @author DreamJM
+ */
+public enum TotalMode {
+
+    /**
+     * Counted by a count query
+     */
+    EXACT,
+
+    /**
+     * Exact total counted by a previous identical query, cached within a TTL
+     */
+    CACHED,
+
+    /**
+     * Estimated by database statistics, e.g. {@code EXPLAIN}
+     */
+    ESTIMATED,
+
+    /**
+     * Not counted, only whether next page exists is known
+     */
+    NONE
+}
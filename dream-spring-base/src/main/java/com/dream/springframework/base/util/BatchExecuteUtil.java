@@ -22,9 +22,22 @@ import com.dream.springframework.base.model.ErrorItem;
 import com.dream.springframework.base.model.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Batch action execute utilities
@@ -35,6 +48,9 @@ public class BatchExecuteUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchExecuteUtil.class);
 
+    private static final boolean WEB_PRESENT = ClassUtils.isPresent("org.springframework.web.context.request.RequestContextHolder",
+            BatchExecuteUtil.class.getClassLoader());
+
     /**
      * Applies each value to the executor and collect execution errors to return
      *
@@ -47,20 +63,147 @@ public class BatchExecuteUtil {
         List<ErrorItem> errors = new ArrayList<>();
         if (values != null) {
             for (T value : values) {
-                try {
-                    executor.accept(value);
-                } catch (RequestException ex) {
-                    errors.add(new ErrorItem(String.valueOf(value), ex.getCode(), ex.getMessage()));
-                } catch (Exception e) {
-                    errors.add(
-                            new ErrorItem(String.valueOf(value), BaseErrorCode.SYS_ERROR, MessageUtils.getError(BaseErrorCode.SYS_ERROR)));
-                    logger.error("Batch execution error!", e);
+                ErrorItem error = execute(value, executor);
+                if (error != null) {
+                    errors.add(error);
                 }
             }
         }
         return errors;
     }
 
+    /**
+     * Applies values to the action in parallel chunks and collect execution errors to return
+     * <p>
+     * Values of a chunk are executed sequentially, at most {@link BatchOptions#getParallelism()} chunks run at the same time on the
+     * executor. Errors are in input order and the same as {@link #executeBatch(List, ExConsumer)} would return. Values not executed
+     * because the deadline passed or the failure threshold was reached are reported with {@link BaseErrorCode#BATCH_CANCELLED}, values
+     * being executed when the deadline passes are reported so as well although they may still complete afterwards.
+     * <p>
+     * Locale and request attributes of the calling thread are available to the action.
+     *
+     * @param values   values to be executed on
+     * @param action   value action
+     * @param executor bounded executor, values are executed by the calling thread if it rejects all tasks
+     * @param options  parallel execution options
+     * @param <T>      value type
+     * @return execution errors in input order
+     */
+    public static <T> List<ErrorItem> executeBatch(List<T> values, ExConsumer<T, RequestException> action, Executor executor,
+                                                   BatchOptions options) {
+        if (values == null || values.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int size = values.size();
+        int chunkSize = options.getChunkSize();
+        int chunkCount = (size + chunkSize - 1) / chunkSize;
+        int workers = Math.min(options.getParallelism(), chunkCount);
+        boolean timed = options.getTimeout() != null;
+        long deadline = timed ? System.nanoTime() + options.getTimeout().toNanos() : 0;
+        AtomicReferenceArray<ErrorItem> errors = new AtomicReferenceArray<>(size);
+        AtomicIntegerArray executed = new AtomicIntegerArray(size);
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CountDownLatch latch = new CountDownLatch(workers);
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        Object requestAttributes = WEB_PRESENT ? RequestContextHolder.getRequestAttributes() : null;
+        Runnable worker = () -> {
+            LocaleContext previousLocale = LocaleContextHolder.getLocaleContext();
+            Object previousAttributes = WEB_PRESENT ? RequestContextHolder.getRequestAttributes() : null;
+            LocaleContextHolder.setLocaleContext(localeContext);
+            if (WEB_PRESENT) {
+                RequestContextHolder.setRequestAttributes((RequestAttributes) requestAttributes);
+            }
+            try {
+                int chunk;
+                while (!cancelled.get() && (chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                    for (int i = chunk * chunkSize; i < Math.min(size, (chunk + 1) * chunkSize); i++) {
+                        if (cancelled.get() || timed && System.nanoTime() - deadline > 0) {
+                            cancelled.set(true);
+                            return;
+                        }
+                        ErrorItem error = execute(values.get(i), action);
+                        if (error != null) {
+                            errors.set(i, error);
+                            int threshold = options.getFailureThreshold();
+                            if (threshold > 0 && failures.incrementAndGet() >= threshold) {
+                                cancelled.set(true);
+                            }
+                        }
+                        executed.set(i, 1);
+                    }
+                }
+            } finally {
+                LocaleContextHolder.setLocaleContext(previousLocale);
+                if (WEB_PRESENT) {
+                    RequestContextHolder.setRequestAttributes((RequestAttributes) previousAttributes);
+                }
+                latch.countDown();
+            }
+        };
+        int rejected = 0;
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                rejected++;
+                latch.countDown();
+            }
+        }
+        if (rejected == workers) {
+            worker.run();
+        }
+        try {
+            if (!timed) {
+                latch.await();
+            } else if (!latch.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                cancelled.set(true);
+            }
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+        }
+        List<ErrorItem> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (executed.get(i) == 0) {
+                result.add(new ErrorItem(String.valueOf(values.get(i)), BaseErrorCode.BATCH_CANCELLED,
+                        MessageUtils.getError(BaseErrorCode.BATCH_CANCELLED)));
+            } else if (errors.get(i) != null) {
+                result.add(errors.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies values to the action in parallel chunks and collect execution errors to {@link Result}
+     *
+     * @param values   values to be executed on
+     * @param action   value action
+     * @param executor bounded executor
+     * @param options  parallel execution options
+     * @param <T>      value type
+     * @return result with execution errors in input order
+     * @see #executeBatch(List, ExConsumer, Executor, BatchOptions)
+     */
+    public static <T> Result<List<ErrorItem>> executeBatchResult(List<T> values, ExConsumer<T, RequestException> action,
+                                                                 Executor executor, BatchOptions options) {
+        return composeBatchResult(executeBatch(values, action, executor, options));
+    }
+
+    private static <T> ErrorItem execute(T value, ExConsumer<T, RequestException> executor) {
+        try {
+            executor.accept(value);
+            return null;
+        } catch (RequestException ex) {
+            return new ErrorItem(String.valueOf(value), ex.getCode(), ex.getMessage());
+        } catch (Exception e) {
+            logger.error("Batch execution error!", e);
+            return new ErrorItem(String.valueOf(value), BaseErrorCode.SYS_ERROR, MessageUtils.getError(BaseErrorCode.SYS_ERROR));
+        }
+    }
+
     /**
      * Composes batch action result to {@link Result}
      *
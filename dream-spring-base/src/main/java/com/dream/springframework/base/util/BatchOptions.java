@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dream.springframework.base.util;
+
+import java.time.Duration;
+
+/**
+ * Options of parallel batch execution
+ *
+ * @author DreamJM
+ * @see BatchExecuteUtil#executeBatch(java.util.List, ExConsumer, java.util.concurrent.Executor, BatchOptions)
+ */
+public class BatchOptions {
+
+    private final int parallelism;
+
+    private final int chunkSize;
+
+    private final Duration timeout;
+
+    private final int failureThreshold;
+
+    private BatchOptions(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.chunkSize = builder.chunkSize;
+        this.timeout = builder.timeout;
+        this.failureThreshold = builder.failureThreshold;
+    }
+
+    /**
+     * @return options builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return max chunks executed at the same time
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return values per chunk, values of a chunk are executed sequentially by one thread
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return overall deadline from the start of execution, null if unlimited
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return failure count that cancels remaining values, 0 if unlimited
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Batch options builder
+     */
+    public static class Builder {
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private int chunkSize = 1;
+
+        private Duration timeout;
+
+        private int failureThreshold;
+
+        /**
+         * @param parallelism max chunks executed at the same time
+         * @return builder
+         */
+        public Builder setParallelism(int parallelism) {
+            this.parallelism = Math.max(1, parallelism);
+            return this;
+        }
+
+        /**
+         * @param chunkSize values per chunk
+         * @return builder
+         */
+        public Builder setChunkSize(int chunkSize) {
+            this.chunkSize = Math.max(1, chunkSize);
+            return this;
+        }
+
+        /**
+         * @param timeout overall deadline from the start of execution, null if unlimited
+         * @return builder
+         */
+        public Builder setTimeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * @param failureThreshold failure count that cancels remaining values, 0 if unlimited
+         * @return builder
+         */
+        public Builder setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = Math.max(0, failureThreshold);
+            return this;
+        }
+
+        /**
+         * @return batch options
+         */
+        public BatchOptions build() {
+            return new BatchOptions(this);
+        }
+    }
+}
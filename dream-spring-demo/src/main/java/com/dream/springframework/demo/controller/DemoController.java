@@ -18,9 +18,12 @@ package com.dream.springframework.demo.controller;
 
 import com.dream.springframework.auth.base.annotation.AuthIgnore;
 import com.dream.springframework.base.annotation.AccessLimit;
-import com.dream.springframework.base.exception.BaseErrorCode;
+import com.dream.springframework.base.exception.ForbiddenException;
 import com.dream.springframework.base.exception.NotFoundException;
 import com.dream.springframework.base.exception.RequestException;
+import com.dream.springframework.base.export.ExportDownloader;
+import com.dream.springframework.base.export.ExportFormat;
+import com.dream.springframework.base.export.ExportJob;
 import com.dream.springframework.base.model.*;
 import com.dream.springframework.base.util.BatchExecuteUtil;
 import com.dream.springframework.dao.model.Order;
@@ -32,6 +35,10 @@ import io.swagger.annotations.ApiOperation;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 
@@ -53,9 +60,59 @@ public class DemoController {
     @ApiOperation("Query demos")
     @GetMapping
     public Result<PageResult<Demo>> queryDemos(@RequestParam(required = false) String keyword, @RequestParam int pageNum,
-                                               @RequestParam int pageSize, @RequestParam(required = false) String orderBy) {
+                                               @RequestParam int pageSize, @RequestParam(required = false) String orderBy,
+                                               @RequestParam(required = false) TotalMode totalMode) {
+        return new Result<>(service.query(DemoQuery.builder().setKeyword(keyword).page(pageNum, pageSize, totalMode)
+                .order(Order.parseOrder(orderBy)).build()));
+    }
+
+    @AuthIgnore
+    @ApiOperation("Scroll demos by cursor")
+    @GetMapping("scroll")
+    public Result<PageResult<Demo>> scrollDemos(@RequestParam(required = false) String keyword,
+                                                @RequestParam(required = false) String cursor, @RequestParam int pageSize,
+                                                @RequestParam(required = false) String orderBy) {
         return new Result<>(
-                service.query(DemoQuery.builder().setKeyword(keyword).page(pageNum, pageSize).order(Order.parseOrder(orderBy)).build()));
+                service.query(DemoQuery.builder().setKeyword(keyword).cursor(cursor, pageSize).order(Order.parseOrder(orderBy)).build()));
+    }
+
+    @AuthIgnore
+    @ApiOperation("Submit demos export job")
+    @PostMapping("exports")
+    public Result<ExportJob> exportDemos(HttpServletRequest request, @RequestParam(required = false) String keyword,
+                                         @RequestParam(defaultValue = "CSV") ExportFormat format) throws ForbiddenException {
+        return new Result<>(service.submitExport(request.getRemoteAddr(), DemoQuery.builder().setKeyword(keyword).build(), format));
+    }
+
+    @AuthIgnore
+    @ApiOperation("Get demos export job")
+    @GetMapping("exports/{jobId}")
+    public Result<ExportJob> getExport(HttpServletRequest request, @PathVariable String jobId) throws NotFoundException {
+        return new Result<>(service.getExport(request.getRemoteAddr(), jobId));
+    }
+
+    @AuthIgnore
+    @ApiOperation("Download demos export file")
+    @GetMapping("exports/{jobId}/file")
+    public void downloadExport(HttpServletRequest request, HttpServletResponse response, @PathVariable String jobId)
+            throws RequestException, IOException {
+        Path file = service.getExportFile(request.getRemoteAddr(), jobId);
+        String fileName = file.getFileName().toString();
+        ExportDownloader.download(file, "demos" + fileName.substring(fileName.lastIndexOf('.')), request, response);
+    }
+
+    @AuthIgnore
+    @ApiOperation("Cancel demos export job")
+    @DeleteMapping("exports/{jobId}")
+    public Result<ExportJob> cancelExport(HttpServletRequest request, @PathVariable String jobId) throws NotFoundException {
+        return new Result<>(service.cancelExport(request.getRemoteAddr(), jobId));
+    }
+
+    @AuthIgnore
+    @ApiOperation("Get demo items by ids")
+    @GetMapping("batch")
+    public Result<List<Demo>> getDemos(@RequestParam Long[] ids) {
+        return new Result<>(service.loadAll(Arrays.asList(ids)));
     }
 
     @AuthIgnore
@@ -96,11 +153,7 @@ public class DemoController {
     @ApiOperation("Batch delete demo items")
     @DeleteMapping
     public Result<List<ErrorItem>> batchDeleteDemos(@RequestParam Long[] ids) {
-        Result<List<ErrorItem>> result = new Result<>(BatchExecuteUtil.executeBatch(Arrays.asList(ids), this::deleteDemo));
-        if (result.getData() != null && result.getData().size() > 0) {
-            result.setCode(BaseErrorCode.PART_ERROR);
-        }
-        return result;
+        return BatchExecuteUtil.composeBatchResult(service.batchDelete(Arrays.asList(ids)));
     }
 
 }
@@ -16,7 +16,13 @@
 
 package com.dream.springframework.demo.domain;
 
+import com.dream.springframework.dao.annotation.CachedEntity;
+import com.dream.springframework.dao.annotation.EvictEntity;
+import com.dream.springframework.dao.annotation.ModifiesTables;
 import com.dream.springframework.dao.annotation.QueryCondition;
+import com.dream.springframework.dao.annotation.ReadOnly;
+import com.dream.springframework.dao.annotation.ReindexSearch;
+import com.dream.springframework.dao.loader.BatchLoader;
 import com.dream.springframework.demo.domain.dao.DemoMapper;
 import com.dream.springframework.demo.domain.entity.DemoEntity;
 import com.dream.springframework.demo.domain.query.DemoQuery;
@@ -24,6 +30,7 @@ import com.github.pagehelper.Page;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author DreamJM
@@ -38,25 +45,48 @@ public class DemoRepository {
         this.mapper = mapper;
     }
 
-    @QueryCondition
+    @QueryCondition(cache = true)
     public Page<DemoEntity> query(DemoQuery query) {
         return mapper.query(query);
     }
 
+    @ReadOnly
+    @CachedEntity("demo")
     public Optional<DemoEntity> load(long id) {
         return Optional.ofNullable(mapper.load(id));
     }
 
+    public CompletableFuture<DemoEntity> loadBatched(long id) {
+        return batchLoader().load(id);
+    }
+
+    @ModifiesTables("demo")
+    @EvictEntity(value = "demo", keyProperty = "id")
+    @ReindexSearch(value = "demo", keyProperty = "id")
     public long insert(DemoEntity entity) {
         mapper.insert(entity);
         return entity.getId();
     }
 
+    @ModifiesTables("demo")
+    @EvictEntity(value = "demo", keyProperty = "id")
+    @ReindexSearch(value = "demo", keyProperty = "id")
     public boolean update(DemoEntity entity) {
-        return mapper.update(entity);
+        boolean updated = mapper.update(entity);
+        batchLoader().clear(entity.getId());
+        return updated;
     }
 
+    @ModifiesTables("demo")
+    @EvictEntity("demo")
+    @ReindexSearch("demo")
     public boolean delete(long id) {
-        return mapper.delete(id);
+        boolean deleted = mapper.delete(id);
+        batchLoader().clear(id);
+        return deleted;
+    }
+
+    private BatchLoader<Long, DemoEntity> batchLoader() {
+        return BatchLoader.forRequest("demo", () -> new BatchLoader<>(mapper::loadByIds, DemoEntity::getId, 500));
     }
 }
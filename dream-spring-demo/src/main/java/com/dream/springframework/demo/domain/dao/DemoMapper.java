@@ -20,6 +20,10 @@ import com.dream.springframework.demo.domain.entity.DemoEntity;
 import com.dream.springframework.demo.domain.query.DemoQuery;
 import com.github.pagehelper.Page;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * @author DreamJM
@@ -28,13 +32,24 @@ import org.apache.ibatis.annotations.*;
 public interface DemoMapper {
 
     @Select("<script>SELECT id,name,greeting FROM demo WHERE 1=1 " +
+            "<if test='searchIds != null'>AND id IN " +
+            "<foreach collection='searchIds' item='id' open='(' separator=',' close=')'>#{id}</foreach></if>" +
             "<if test='keyword != null'>AND (name LIKE CONCAT('%',#{keyword},'%') OR greeting LIKE CONCAT('%',#{keyword},'%'))</if>" +
             "</script>")
     Page<DemoEntity> query(DemoQuery query);
 
+    @Select("<script>SELECT id,name,greeting FROM demo WHERE 1=1 " +
+            "<if test='keyword != null'>AND (name LIKE CONCAT('%',#{keyword},'%') OR greeting LIKE CONCAT('%',#{keyword},'%'))</if>" +
+            " ORDER BY id</script>")
+    Cursor<DemoEntity> queryCursor(DemoQuery query);
+
     @Select("SELECT id,name,greeting FROM demo WHERE id=#{param1}")
     DemoEntity load(long id);
 
+    @Select("<script>SELECT id,name,greeting FROM demo WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    List<DemoEntity> loadByIds(@Param("ids") Collection<Long> ids);
+
     @Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
     @Insert("INSERT INTO demo(name,greeting) VALUES(#{name},#{greeting})")
     long insert(DemoEntity entity);
@@ -16,6 +16,7 @@
 
 package com.dream.springframework.demo.domain.query;
 
+import com.dream.springframework.base.model.TotalMode;
 import com.dream.springframework.dao.model.BaseCondition;
 import com.dream.springframework.dao.model.BaseQueryBuilder;
 import com.dream.springframework.dao.model.Order;
@@ -70,6 +71,16 @@ public class DemoQuery extends BaseCondition {
             return this;
         }
 
+        public Builder page(int pageNum, int pageSize, TotalMode totalMode) {
+            setPage(pageNum, pageSize, totalMode);
+            return this;
+        }
+
+        public Builder cursor(String cursor, int pageSize) {
+            setCursor(cursor, pageSize);
+            return this;
+        }
+
         public Builder order(Order order) {
             buildOrder(order);
             return this;
@@ -84,5 +95,10 @@ public class DemoQuery extends BaseCondition {
         protected Order getDefaultOrder() {
             return DEFAULT_ORDER;
         }
+
+        @Override
+        protected String getUniqueKey() {
+            return "id";
+        }
     }
 }
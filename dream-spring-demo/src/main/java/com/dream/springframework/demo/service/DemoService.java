@@ -16,12 +16,26 @@
 
 package com.dream.springframework.demo.service;
 
+import com.dream.springframework.base.exception.ForbiddenException;
 import com.dream.springframework.base.exception.NotFoundException;
+import com.dream.springframework.base.export.ExportColumn;
+import com.dream.springframework.base.export.ExportFormat;
+import com.dream.springframework.base.export.ExportJob;
+import com.dream.springframework.base.export.ExportJobManager;
+import com.dream.springframework.base.model.ErrorItem;
 import com.dream.springframework.base.model.Id;
 import com.dream.springframework.base.model.PageResult;
+import com.dream.springframework.dao.annotation.EvictEntity;
+import com.dream.springframework.dao.annotation.ModifiesTables;
+import com.dream.springframework.dao.annotation.ReadOnly;
+import com.dream.springframework.dao.annotation.ReindexSearch;
+import com.dream.springframework.dao.bulk.BulkWriter;
+import com.dream.springframework.dao.export.CursorExporter;
+import com.dream.springframework.dao.search.SearchIndexManager;
 import com.dream.springframework.dao.util.PageUtil;
 import com.dream.springframework.demo.constant.ErrorCode;
 import com.dream.springframework.demo.domain.DemoRepository;
+import com.dream.springframework.demo.domain.dao.DemoMapper;
 import com.dream.springframework.demo.domain.entity.DemoEntity;
 import com.dream.springframework.demo.domain.query.DemoQuery;
 import com.dream.springframework.demo.model.Demo;
@@ -30,6 +44,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
 /**
  * @author DreamJM
  */
@@ -40,8 +61,21 @@ public class DemoService {
 
     private DemoRepository repository;
 
-    public DemoService(DemoRepository repository) {
+    private CursorExporter exporter;
+
+    private ExportJobManager exportJobManager;
+
+    private BulkWriter bulkWriter;
+
+    private SearchIndexManager searchIndexManager;
+
+    public DemoService(DemoRepository repository, CursorExporter exporter, ExportJobManager exportJobManager, BulkWriter bulkWriter,
+                       SearchIndexManager searchIndexManager) {
         this.repository = repository;
+        this.exporter = exporter;
+        this.exportJobManager = exportJobManager;
+        this.bulkWriter = bulkWriter;
+        this.searchIndexManager = searchIndexManager;
     }
 
     @Async
@@ -50,9 +84,28 @@ public class DemoService {
     }
 
     public PageResult<Demo> query(DemoQuery order) {
+        order.setSearchIds(searchIndexManager.search("demo", order.getKeyword()));
         return PageUtil.parsePageResult(repository.query(order), Demo::new);
     }
 
+    public ExportJob submitExport(String owner, DemoQuery query, ExportFormat format) throws ForbiddenException {
+        return exportJobManager.submit(owner, progress -> exporter.export(DemoMapper.class, mapper -> mapper.queryCursor(query),
+                Arrays.asList(ExportColumn.of("ID", DemoEntity::getId), ExportColumn.of("Name", DemoEntity::getName),
+                        ExportColumn.of("Greeting", DemoEntity::getGreeting)), format, progress));
+    }
+
+    public ExportJob getExport(String owner, String jobId) throws NotFoundException {
+        return exportJobManager.get(owner, jobId);
+    }
+
+    public Path getExportFile(String owner, String jobId) throws NotFoundException {
+        return exportJobManager.getFile(owner, jobId);
+    }
+
+    public ExportJob cancelExport(String owner, String jobId) throws NotFoundException {
+        return exportJobManager.cancel(owner, jobId);
+    }
+
     public Id insert(Demo demo) {
         return new Id(repository.insert(new DemoEntity(demo.getId(), demo.getName(), demo.getGreeting())));
     }
@@ -67,6 +120,19 @@ public class DemoService {
         return new Demo(repository.load(id).orElseThrow(() -> new NotFoundException(ErrorCode.DATA_NOT_FOUND)));
     }
 
+    @ModifiesTables("demo")
+    @EvictEntity("demo")
+    @ReindexSearch("demo")
+    public List<ErrorItem> batchDelete(List<Long> ids) {
+        return bulkWriter.execute(DemoMapper.class, ids, DemoMapper::delete, ErrorCode.DATA_NOT_FOUND);
+    }
+
+    @ReadOnly
+    public List<Demo> loadAll(List<Long> ids) {
+        List<CompletableFuture<DemoEntity>> futures = ids.stream().map(repository::loadBatched).collect(Collectors.toList());
+        return futures.stream().map(CompletableFuture::join).filter(Objects::nonNull).map(Demo::new).collect(Collectors.toList());
+    }
+
     public void delete(long id) throws NotFoundException {
         if (!repository.delete(id)) {
             throw new NotFoundException(ErrorCode.DATA_NOT_FOUND);